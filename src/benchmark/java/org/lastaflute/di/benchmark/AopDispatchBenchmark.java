@@ -0,0 +1,97 @@
+/*
+ * Copyright 2015-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.di.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.lastaflute.di.benchmark.mock.BenchSeaLogic;
+import org.lastaflute.di.core.aop.Aspect;
+import org.lastaflute.di.core.aop.frame.MethodInterceptor;
+import org.lastaflute.di.core.aop.frame.MethodInvocation;
+import org.lastaflute.di.core.aop.impl.AspectImpl;
+import org.lastaflute.di.core.aop.impl.PointcutImpl;
+import org.lastaflute.di.core.aop.proxy.AopProxy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The benchmark of intercepted method dispatch in enhanced class. <br>
+ * Zero interceptor means plain (not enhanced) instance as baseline.
+ * Allocation per call is shown as gc.alloc.rate.norm by '-prof gc' (default of benchmark profile),
+ * before and after lazy arguments are in src/benchmark/results/aop-dispatch-gc.txt.
+ * @author jflute
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AopDispatchBenchmark {
+
+    @Param({ "0", "1", "3" })
+    public int interceptorCount;
+
+    protected BenchSeaLogic seaLogic;
+    protected int base = 7; // not constant to avoid folding
+    protected String land = "oneman";
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (interceptorCount == 0) {
+            seaLogic = new BenchSeaLogic();
+            return;
+        }
+        final Aspect[] aspects = new Aspect[interceptorCount];
+        for (int i = 0; i < interceptorCount; i++) {
+            aspects[i] = new AspectImpl(new PassThroughInterceptor(), new PointcutImpl(new String[] { "hangar", "countBonvo", "greetLand" }));
+        }
+        seaLogic = (BenchSeaLogic) new AopProxy(BenchSeaLogic.class, aspects).create();
+    }
+
+    @Benchmark
+    public Object noParameter() {
+        return seaLogic.hangar();
+    }
+
+    @Benchmark
+    public int primitive() {
+        return seaLogic.countBonvo(base);
+    }
+
+    @Benchmark
+    public Object objectParameter() {
+        return seaLogic.greetLand(land);
+    }
+
+    public static class PassThroughInterceptor implements MethodInterceptor {
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            return invocation.proceed();
+        }
+    }
+}
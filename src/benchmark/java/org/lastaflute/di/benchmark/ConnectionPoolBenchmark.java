@@ -0,0 +1,93 @@
+/*
+ * Copyright 2015-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.di.benchmark;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import org.lastaflute.jta.core.LaTransactionManager;
+import org.lastaflute.jta.dbcp.ConcurrentConnectionPool;
+import org.lastaflute.jta.dbcp.ConnectionWrapper;
+import org.lastaflute.jta.dbcp.MockXADataSource;
+import org.lastaflute.jta.dbcp.SimpleConnectionPool;
+import org.lastaflute.jta.dbcp.impl.StandardConnectionPoolMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The benchmark of connection check-out/check-in under many threads. <br>
+ * SampleTime mode shows percentiles (p50, p99, p99.9) of one round trip so tail latency is visible.
+ * @author jflute
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(64)
+@State(Scope.Benchmark)
+public class ConnectionPoolBenchmark {
+
+    @Param({ "simple", "concurrent" })
+    public String poolType;
+
+    @Param({ "16" })
+    public int maxPoolSize;
+
+    @Param({ "false", "true" })
+    public boolean metrics; // to see recording overhead
+
+    protected SimpleConnectionPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        pool = "concurrent".equals(poolType) ? new ConcurrentConnectionPool() : new SimpleConnectionPool();
+        pool.setXADataSource(new MockXADataSource());
+        pool.setTransactionManager(new LaTransactionManager());
+        pool.setMaxPoolSize(maxPoolSize);
+        pool.setMaxWait(-1L); // wait forever, measuring waiting time
+        if (metrics) {
+            pool.setMetrics(new StandardConnectionPoolMetrics());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.close();
+    }
+
+    @Benchmark
+    public Object checkOut_checkIn() throws SQLException {
+        final ConnectionWrapper wrapper = pool.checkOut();
+        try {
+            return wrapper.getPhysicalConnection();
+        } finally {
+            wrapper.close();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2015-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.di.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.lastaflute.di.benchmark.mock.BenchLandAction;
+import org.lastaflute.di.core.LaContainer;
+import org.lastaflute.di.core.factory.SingletonLaContainerFactory;
+import org.lastaflute.di.mockapp.logic.MockSeaLogic;
+import org.lastaflute.di.mockapp.logic.firstpark.MockLandLogic;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The benchmark of container boot and first resolution. <br>
+ * Smart deploy mode follows lasta_di.properties on classpath (warm in test resources),
+ * so run it with your properties to compare hot, cool and warm.
+ * @author jflute
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContainerBootBenchmark {
+
+    @Benchmark
+    public Object boot_syntheticTree() { // rich components in included di.xml files
+        SingletonLaContainerFactory.setConfigPath("benchmark_app.xml");
+        SingletonLaContainerFactory.init();
+        try {
+            final LaContainer container = SingletonLaContainerFactory.getContainer();
+            return container.getComponent(BenchLandAction.class);
+        } finally {
+            SingletonLaContainerFactory.destroy();
+        }
+    }
+
+    @Benchmark
+    public Object boot_smartDeployResolution() { // quick components by naming convention
+        SingletonLaContainerFactory.setConfigPath("test_app.xml");
+        SingletonLaContainerFactory.init();
+        try {
+            final LaContainer container = SingletonLaContainerFactory.getContainer();
+            container.getComponent(MockSeaLogic.class);
+            return container.getComponent(MockLandLogic.class);
+        } finally {
+            SingletonLaContainerFactory.destroy();
+        }
+    }
+}
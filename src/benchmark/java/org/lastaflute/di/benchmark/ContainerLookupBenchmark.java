@@ -0,0 +1,117 @@
+/*
+ * Copyright 2015-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.di.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.lastaflute.di.benchmark.mock.BenchExternalContext;
+import org.lastaflute.di.benchmark.mock.BenchHangarForm;
+import org.lastaflute.di.benchmark.mock.BenchLandAction;
+import org.lastaflute.di.benchmark.mock.BenchSeaLogic;
+import org.lastaflute.di.core.ComponentDef;
+import org.lastaflute.di.core.deployer.ComponentDeployerFactory;
+import org.lastaflute.di.core.deployer.ExternalComponentDeployerProvider;
+import org.lastaflute.di.core.factory.annohandler.AnnotationHandler;
+import org.lastaflute.di.core.factory.annohandler.AnnotationHandlerFactory;
+import org.lastaflute.di.core.meta.InstanceDef;
+import org.lastaflute.di.core.meta.impl.InstanceDefFactory;
+import org.lastaflute.di.core.meta.impl.LaContainerImpl;
+import org.lastaflute.di.util.LdiSrl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The benchmark of component lookup per instance type. <br>
+ * Prototype lookup includes constructor and field injection (AutoPropertyAssembler) per call.
+ * @author jflute
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContainerLookupBenchmark {
+
+    protected LaContainerImpl container;
+    protected BenchExternalContext externalContext;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ComponentDeployerFactory.setProvider(new ExternalComponentDeployerProvider()); // for request instance
+        container = new LaContainerImpl();
+        externalContext = new BenchExternalContext();
+        container.setExternalContext(externalContext);
+        register(BenchSeaLogic.class, InstanceDefFactory.SINGLETON);
+        register(BenchLandAction.class, InstanceDefFactory.PROTOTYPE);
+        register(BenchHangarForm.class, InstanceDefFactory.REQUEST);
+        container.init();
+    }
+
+    protected void register(Class<?> componentClass, InstanceDef instanceDef) {
+        final AnnotationHandler handler = AnnotationHandlerFactory.getAnnotationHandler();
+        final ComponentDef componentDef = handler.createComponentDef(componentClass, instanceDef);
+        componentDef.setComponentName(LdiSrl.initUncap(componentClass.getSimpleName())); // e.g. benchSeaLogic
+        handler.appendDI(componentDef);
+        container.register(componentDef);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        container.destroy();
+        ComponentDeployerFactory.setProvider(new ComponentDeployerFactory.DefaultProvider());
+    }
+
+    @Benchmark
+    public Object singleton_byType() {
+        return container.getComponent(BenchSeaLogic.class);
+    }
+
+    @Benchmark
+    public Object singleton_byName() {
+        return container.getComponent("benchSeaLogic");
+    }
+
+    @Benchmark
+    public Object prototype_withFieldInjection() {
+        return container.getComponent(BenchLandAction.class);
+    }
+
+    @Benchmark
+    public Object request_firstLookup() { // created and put to new request map
+        externalContext.beginRequest();
+        try {
+            return container.getComponent(BenchHangarForm.class);
+        } finally {
+            externalContext.endRequest();
+        }
+    }
+
+    @Benchmark
+    public Object notFound_hasComponentDef() {
+        return container.hasComponentDef("noExistComponent");
+    }
+}
@@ -84,6 +84,10 @@ public interface ComponentDef
 
     void setExternalBinding(boolean externalBinding);
 
+    boolean isLazyInit(); // means singleton is assembled at first use instead of container initialization
+
+    void setLazyInit(boolean lazyInit);
+
     // *no needed because of HotdeployBehavior synchronization by jflute (2017/06/25)
     //String getCreatorThreadCode(); // null allowed if e.g. simple component, cool deploy
 }
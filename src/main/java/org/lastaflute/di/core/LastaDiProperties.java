@@ -45,12 +45,22 @@ public class LastaDiProperties {
     public static final String SMART_PACKAGE1_KEY = "smart.package1";
     public static final String SMART_PACKAGE2_KEY = "smart.package2";
     public static final String SMART_PACKAGE3_KEY = "smart.package3";
+    public static final String SMART_COOL_PARALLEL_CLASS_LOADING_KEY = "smart.cool.parallel.class.loading";
+    public static final String SMART_COOL_COMPONENT_INDEX_KEY = "smart.cool.component.index";
 
     public static final String DIXML_SCRIPT_EXPRESSION_ENGINE_KEY = "dixml.script.expression.engine";
     public static final String DIXML_SCRIPT_MANAGED_ENGINE_NAME_KEY = "dixml.script.managed.engine.name";
 
     public static final String PLAIN_PROPERTY_INJECTION_PACKAGE1_KEY = "plain.property.injection.package1";
     public static final String NAMING_STYLING_FREEDOM_INTERFACE_MAPPER = "naming.styling.freedom.interface.mapper";
+    public static final String NAMING_STYLING_EXISTENCE_CLASS_INDEX_KEY = "naming.styling.existence.class.index";
+
+    public static final String AOP_ENHANCED_CLASS_CACHE_DIR_KEY = "aop.enhanced.class.cache.dir";
+
+    public static final String BEAN_DESC_LAZY_INTROSPECTION_KEY = "bean.desc.lazy.introspection";
+
+    public static final String CONTAINER_PARALLEL_COMPONENT_INIT_KEY = "container.parallel.component.init";
+    public static final String CONTAINER_LAZY_SINGLETON_KEY = "container.lazy.singleton";
 
     public static final String INTERNAL_DEBUG_KEY = "internal.debug";
     public static final String SUPPRESS_LASTA_ENV_KEY = "suppress.lasta.env";
@@ -255,6 +265,14 @@ public class LastaDiProperties {
         return getProperty(SMART_PACKAGE3_KEY);
     }
 
+    public boolean isSmartCoolParallelClassLoading() { // e.g. for many classes in cool deploy
+        return isProperty(SMART_COOL_PARALLEL_CLASS_LOADING_KEY);
+    }
+
+    public boolean isSmartCoolComponentIndex() { // index generated by CoolComponentIndex at build time
+        return isProperty(SMART_COOL_COMPONENT_INDEX_KEY);
+    }
+
     // -----------------------------------------------------
     //                                         Di XML Script
     //                                         -------------
@@ -321,6 +339,35 @@ public class LastaDiProperties {
         return getProperty(NAMING_STYLING_FREEDOM_INTERFACE_MAPPER);
     }
 
+    public boolean isNamingStylingExistenceClassIndex() { // e.g. for many classes in cool deploy
+        return isProperty(NAMING_STYLING_EXISTENCE_CLASS_INDEX_KEY);
+    }
+
+    // -----------------------------------------------------
+    //                                                   AOP
+    //                                                   ---
+    public String getAopEnhancedClassCacheDir() { // null allowed, e.g. for many enhanced classes
+        return getProperty(AOP_ENHANCED_CLASS_CACHE_DIR_KEY);
+    }
+
+    // -----------------------------------------------------
+    //                                             Bean Desc
+    //                                             ---------
+    public boolean isBeanDescLazyIntrospection() { // e.g. for many classes touched at boot
+        return isProperty(BEAN_DESC_LAZY_INTROSPECTION_KEY);
+    }
+
+    // -----------------------------------------------------
+    //                                             Container
+    //                                             ---------
+    public boolean isContainerParallelComponentInit() { // e.g. for many singletons with heavy init method
+        return isProperty(CONTAINER_PARALLEL_COMPONENT_INIT_KEY);
+    }
+
+    public boolean isContainerLazySingleton() { // e.g. for many singletons unused in some processes
+        return isProperty(CONTAINER_LAZY_SINGLETON_KEY);
+    }
+
     // -----------------------------------------------------
     //                                        Internal Debug
     //                                        --------------
@@ -34,4 +34,6 @@ public @interface Component {
     AutoBindingType autoBinding() default AutoBindingType.AUTO;
 
     boolean externalBinding() default false;
+
+    boolean lazyInit() default false; // only for singleton
 }
@@ -45,6 +45,7 @@ import javassist.CannotCompileException;
 import javassist.ClassPool;
 import javassist.CtClass;
 import javassist.CtConstructor;
+import javassist.CtField;
 import javassist.CtMethod;
 import javassist.CtNewConstructor;
 import javassist.CtNewMethod;
@@ -178,6 +179,11 @@ public class AbstractGenerator {
     //                                                                    Define the Class
     //                                                                    ================
     public Class<?> toClass(final ClassLoader classLoader, final CtClass ctClass) {
+        return defineClass(classLoader, ctClass.getName(), convertCtClassToBytecode(ctClass));
+    }
+
+    public Class<?> defineClass(final ClassLoader classLoader, final String className, final byte[] bytecode) {
+        // also called with cached bytecode (without CtClass) by AspectWeaver
         // _/_/_/_/_/_/_/_/_/_/_/_/_/_/_/_/_/_/_/_/
         // how to define class to class-loader:
         //  ClassLoader way :: classic, ClassLoader@defineClass() by reflection private-access
@@ -195,7 +201,7 @@ public class AbstractGenerator {
         // _/_/_/_/
         if (defineClassMethod.isAccessible()) {
             try {
-                enhancedClass = invokeClassLoaderDefineClass(classLoader, ctClass);
+                enhancedClass = invokeClassLoaderDefineClass(classLoader, className, bytecode);
             } catch (Throwable cause) {
                 currentCauseList.add(cause);
             }
@@ -213,7 +219,7 @@ public class AbstractGenerator {
         if (isInterfaceDefineEnabled()) { // e.g. MethodInvocation
             if (classLoader instanceof BytecodeClassDefiner) {
                 try {
-                    enhancedClass = callInterfaceDefineClass(((BytecodeClassDefiner) classLoader), ctClass);
+                    enhancedClass = callInterfaceDefineClass(((BytecodeClassDefiner) classLoader), className, bytecode);
                 } catch (Throwable cause) {
                     currentCauseList.add(cause);
                 }
@@ -229,7 +235,7 @@ public class AbstractGenerator {
         // using Lookup architecture e.g. java9 or later
         // _/_/_/_/
         try {
-            enhancedClass = invokeMethodHandlesDefineClass(classLoader, ctClass);
+            enhancedClass = invokeMethodHandlesDefineClass(classLoader, bytecode);
         } catch (Throwable cause) {
             currentCauseList.add(cause);
         }
@@ -245,7 +251,7 @@ public class AbstractGenerator {
         //    currentCauseList.add(cause);
         //}
 
-        final String giveupMessage = buildCannotDefineClassMessage(classLoader, ctClass, currentCauseList);
+        final String giveupMessage = buildCannotDefineClassMessage(classLoader, className, currentCauseList);
         if (currentCauseList.isEmpty()) {
             throw new CannotDefineClassException(giveupMessage);
         } else {
@@ -256,10 +262,8 @@ public class AbstractGenerator {
     // -----------------------------------------------------
     //                                       ClassLoader way
     //                                       ---------------
-    protected Class<?> invokeClassLoaderDefineClass(final ClassLoader classLoader, final CtClass ctClass) {
+    protected Class<?> invokeClassLoaderDefineClass(final ClassLoader classLoader, final String className, final byte[] bytecode) {
         try {
-            final String className = ctClass.getName();
-            final byte[] bytecode = convertCtClassToBytecode(ctClass);
             final Integer off = 0;
             final Integer len = bytecode.length;
             final Object[] args = new Object[] { className, bytecode, off, len, protectionDomain };
@@ -294,9 +298,7 @@ public class AbstractGenerator {
         return false; // as default
     }
 
-    protected Class<?> callInterfaceDefineClass(final BytecodeClassDefiner definer, final CtClass ctClass) {
-        final String className = ctClass.getName();
-        final byte[] bytecode = convertCtClassToBytecode(ctClass);
+    protected Class<?> callInterfaceDefineClass(final BytecodeClassDefiner definer, final String className, final byte[] bytecode) {
         final Integer off = 0;
         final Integer len = bytecode.length;
         return definer.defineBytecodeClass(className, bytecode, off, len, protectionDomain);
@@ -305,7 +307,7 @@ public class AbstractGenerator {
     // -----------------------------------------------------
     //                                     MethodHandles way
     //                                     -----------------
-    protected Class<?> invokeMethodHandlesDefineClass(final ClassLoader classLoader, final CtClass ctClass) {
+    protected Class<?> invokeMethodHandlesDefineClass(final ClassLoader classLoader, final byte[] bytecode) {
         if (privateLookupInMethod == null) {
             return null;
         }
@@ -316,7 +318,6 @@ public class AbstractGenerator {
             String msg = "privateLookupInMethod exists but lookupDefineClassMethod is null: " + privateLookupInMethod;
             throw new IllegalStateException(msg);
         }
-        final byte[] bytecode = convertCtClassToBytecode(ctClass);
         return LdiReflectionUtil.invoke(lookupDefineClassMethod, lookup, new Object[] { bytecode });
     }
 
@@ -362,7 +363,7 @@ public class AbstractGenerator {
         return bytecode;
     }
 
-    protected String buildCannotDefineClassMessage(final ClassLoader classLoader, final CtClass ctClass,
+    protected String buildCannotDefineClassMessage(final ClassLoader classLoader, final String className,
             LinkedList<Throwable> currentCauseList) {
         final LdiExceptionMessageBuilder br = new LdiExceptionMessageBuilder();
         br.addNotice("Cannot define the class to class loader.");
@@ -384,8 +385,8 @@ public class AbstractGenerator {
         br.addElement("consider 'add-opens' option of java command for ClassLoader way.");
         br.addItem("ClassLoader");
         br.addElement(classLoader);
-        br.addItem("CtClass");
-        br.addElement(ctClass);
+        br.addItem("Class Name");
+        br.addElement(className);
         if (!currentCauseList.isEmpty()) {
             br.addItem("Gradual Cause");
             for (Throwable cause : currentCauseList) {
@@ -492,6 +493,46 @@ public class AbstractGenerator {
         }
     }
 
+    protected CtConstructor createConstructor(final CtClass clazz, final Class<?>[] parameterTypes, final String body) {
+        try {
+            final CtConstructor ctConstructor = CtNewConstructor.make(toCtClassArray(parameterTypes), null, body, clazz);
+            clazz.addConstructor(ctConstructor);
+            return ctConstructor;
+        } catch (final CannotCompileException e) {
+            final LdiExceptionMessageBuilder br = new LdiExceptionMessageBuilder();
+            br.addNotice("Cannot make or add the constructor to the class by Javassist.");
+            br.addItem("CtClass");
+            br.addElement(clazz);
+            br.addItem("parameterTypes");
+            br.addElement(parameterTypes != null ? Arrays.asList(parameterTypes) : null);
+            br.addItem("Constructor Body");
+            br.addElement(body);
+            throw new CannotCompileRuntimeException(br.buildExceptionMessage(), e);
+        }
+    }
+
+    // ===================================================================================
+    //                                                                      Field Handling
+    //                                                                      ==============
+    protected CtField createField(final CtClass clazz, final int modifiers, final Class<?> type, final String name) {
+        try {
+            final CtField ctField = new CtField(toCtClass(type), name, clazz);
+            ctField.setModifiers(modifiers);
+            clazz.addField(ctField);
+            return ctField;
+        } catch (final CannotCompileException e) {
+            final LdiExceptionMessageBuilder br = new LdiExceptionMessageBuilder();
+            br.addNotice("Cannot make or add the field to the class by Javassist.");
+            br.addItem("CtClass");
+            br.addElement(clazz);
+            br.addItem("Field Type");
+            br.addElement(type);
+            br.addItem("Field Name");
+            br.addElement(name);
+            throw new CannotCompileRuntimeException(br.buildExceptionMessage(), e);
+        }
+    }
+
     // ===================================================================================
     //                                                                     Method Handling
     //                                                                     ===============
@@ -587,9 +628,9 @@ public class AbstractGenerator {
     }
 
     protected static String toObject(final Class<?> type, final String expr) {
-        if (type.isPrimitive()) {
+        if (type.isPrimitive()) { // valueOf() to use boxing cache e.g. Boolean, small Integer
             final Class<?> wrapper = LdiClassUtil.getWrapperClass(type);
-            return "new " + wrapper.getName() + "(" + expr + ")";
+            return wrapper.getName() + ".valueOf(" + expr + ")";
         }
         return expr;
     }
@@ -20,12 +20,15 @@ import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 
 import org.lastaflute.di.core.aop.InterType;
 import org.lastaflute.di.core.aop.frame.MethodInterceptor;
+import org.lastaflute.di.core.smart.hot.HotdeployClassLoader;
 import org.lastaflute.di.core.util.ClassPoolUtil;
 import org.lastaflute.di.exception.NoSuchFieldRuntimeException;
 import org.lastaflute.di.util.LdiClassLoaderUtil;
@@ -61,8 +64,9 @@ public class AspectWeaver {
     protected final Map<?, ?> parameters; // null allowed, no modification here
 
     protected final ClassPool classPool; // not null
+    protected final EnhancedClassCache enhancedClassCache; // null allowed if no cache
     protected final String enhancedClassName; // not null
-    protected final EnhancedClassGenerator enhancedClassGenerator; // not null
+    protected EnhancedClassGenerator enhancedClassGenerator; // null allowed while cache is active (lazy)
 
     // -----------------------------------------------------
     //                                               Mutable
@@ -70,6 +74,11 @@ public class AspectWeaver {
     protected final List<Class<?>> methodInvocationClassList = new ArrayList<Class<?>>();
     protected Class<?> enhancedClass; // null allowed as lazy loaded
 
+    // only while cache is active, generated (or loaded from cache) at generateClass()
+    protected final Map<Method, MethodInterceptor[]> pendingInterceptorsMap = new LinkedHashMap<Method, MethodInterceptor[]>();
+    protected final Map<String, byte[]> methodInvocationBytecodeMap = new LinkedHashMap<String, byte[]>(); // to store cache
+    protected boolean cacheAbandoned; // e.g. inter types, which cannot be cached
+
     // ===================================================================================
     //                                                                         Constructor
     //                                                                         ===========
@@ -78,14 +87,31 @@ public class AspectWeaver {
         this.parameters = parameters;
 
         classPool = initializeClassPool(targetClass);
+        enhancedClassCache = prepareEnhancedClassCache(targetClass);
         enhancedClassName = buildEnhancedClassName();
-        enhancedClassGenerator = createEnhancedClassGenerator(targetClass);
+        if (enhancedClassCache == null) { // generated step by step
+            enhancedClassGenerator = createEnhancedClassGenerator(targetClass);
+        }
     }
 
     protected ClassPool initializeClassPool(final Class<?> targetClass) {
         return ClassPoolUtil.getClassPool(targetClass);
     }
 
+    protected EnhancedClassCache prepareEnhancedClassCache(final Class<?> targetClass) { // null allowed
+        if (LdiClassLoaderUtil.getClassLoader(targetClass) instanceof HotdeployClassLoader) {
+            return null; // enhanced class names are changed per class loader so no merit
+        }
+        return EnhancedClassCache.getDefaultCache();
+    }
+
+    protected EnhancedClassGenerator prepareEnhancedClassGenerator() {
+        if (enhancedClassGenerator == null) {
+            enhancedClassGenerator = createEnhancedClassGenerator(targetClass);
+        }
+        return enhancedClassGenerator;
+    }
+
     protected EnhancedClassGenerator createEnhancedClassGenerator(final Class<?> targetClass) {
         return newEnhancedClassGenerator(classPool, targetClass, enhancedClassName);
     }
@@ -99,15 +125,34 @@ public class AspectWeaver {
     //                                                                         Interceptor
     //                                                                         ===========
     public void setInterceptors(final Method method, final MethodInterceptor[] interceptors) {
+        if (isCacheActive()) { // may be loaded from cache so no generation here
+            pendingInterceptorsMap.put(method, interceptors);
+            return;
+        }
+        doSetInterceptors(method, interceptors);
+    }
+
+    protected void doSetInterceptors(final Method method, final MethodInterceptor[] interceptors) {
         final String methodInvocationClassName = buildMethodInvocationClassName(method);
         final MethodInvocationClassGenerator methodInvocationClassGenerator =
                 createMethodInvocationClassGenerator(methodInvocationClassName);
 
         final String invokeSuperMethodName = createInvokeSuperMethod(method);
+        methodInvocationClassGenerator.createLazyArguments(method);
         methodInvocationClassGenerator.createProceedMethod(method, invokeSuperMethodName);
-        enhancedClassGenerator.createTargetMethod(method, methodInvocationClassName);
+        prepareEnhancedClassGenerator().createTargetMethod(method, methodInvocationClassName);
+
+        final byte[] bytecode = methodInvocationClassGenerator.toBytecode();
+        if (isCacheActive()) { // stored with enhanced class later
+            methodInvocationBytecodeMap.put(methodInvocationClassName, bytecode);
+        }
+        final ClassLoader classLoader = LdiClassLoaderUtil.getClassLoader(targetClass);
+        final Class<?> methodInvocationClass = methodInvocationClassGenerator.defineClass(classLoader, methodInvocationClassName, bytecode);
+        setupMethodInvocationClass(methodInvocationClass, method, interceptors);
+    }
 
-        final Class<?> methodInvocationClass = methodInvocationClassGenerator.toClass(LdiClassLoaderUtil.getClassLoader(targetClass));
+    protected void setupMethodInvocationClass(final Class<?> methodInvocationClass, final Method method,
+            final MethodInterceptor[] interceptors) {
         setStaticField(methodInvocationClass, "method", method);
         setStaticField(methodInvocationClass, "interceptors", interceptors);
         setStaticField(methodInvocationClass, "parameters", parameters);
@@ -127,9 +172,10 @@ public class AspectWeaver {
     //                                                                          Inter Type
     //                                                                          ==========
     public void setInterTypes(final InterType[] interTypes) {
-        if (interTypes == null) {
+        if (interTypes == null || interTypes.length == 0) {
             return;
         }
+        abandonCache(); // inter types freely change the class so cannot be cached
 
         for (int i = 0; i < interTypes.length; ++i) {
             enhancedClassGenerator.applyInterType(interTypes[i]);
@@ -142,7 +188,11 @@ public class AspectWeaver {
     public Class<?> generateClass() {
         if (enhancedClass == null) {
             // define the class to the class loader
-            enhancedClass = enhancedClassGenerator.toClass(LdiClassLoaderUtil.getClassLoader(targetClass));
+            if (isCacheActive()) {
+                enhancedClass = generateClassWithCache();
+            } else {
+                enhancedClass = enhancedClassGenerator.toClass(LdiClassLoaderUtil.getClassLoader(targetClass));
+            }
 
             for (int i = 0; i < methodInvocationClassList.size(); ++i) {
                 final Class<?> methodInvocationClass = (Class<?>) methodInvocationClassList.get(i);
@@ -152,6 +202,98 @@ public class AspectWeaver {
         return enhancedClass;
     }
 
+    // ===================================================================================
+    //                                                                               Cache
+    //                                                                               =====
+    protected boolean isCacheActive() {
+        return enhancedClassCache != null && !cacheAbandoned;
+    }
+
+    /**
+     * Abandon the enhanced class cache and generate pending classes by Javassist immediately. <br>
+     * Call it before changing the enhanced class generator by yourself, the cache cannot know the change.
+     */
+    public void abandonCache() {
+        if (!isCacheActive() || enhancedClass != null) { // no cache or already defined
+            return;
+        }
+        cacheAbandoned = true;
+        prepareEnhancedClassGenerator();
+        for (Entry<Method, MethodInterceptor[]> entry : pendingInterceptorsMap.entrySet()) {
+            doSetInterceptors(entry.getKey(), entry.getValue());
+        }
+        pendingInterceptorsMap.clear();
+        methodInvocationBytecodeMap.clear();
+    }
+
+    protected Class<?> generateClassWithCache() {
+        final ClassLoader classLoader = LdiClassLoaderUtil.getClassLoader(targetClass);
+        final List<String> classNameList = buildCacheClassNameList();
+        final String cacheKey = enhancedClassCache.buildCacheKey(targetClass, buildCacheIdentityList(classNameList));
+        if (cacheKey != null) {
+            final Map<String, byte[]> bytecodeMap = enhancedClassCache.load(cacheKey);
+            if (bytecodeMap != null && classNameList.equals(new ArrayList<String>(bytecodeMap.keySet()))) {
+                return defineCachedClass(classLoader, bytecodeMap); // without Javassist compilation
+            }
+        }
+
+        // no cache here, so generate them and store them
+        prepareEnhancedClassGenerator();
+        for (Entry<Method, MethodInterceptor[]> entry : pendingInterceptorsMap.entrySet()) {
+            doSetInterceptors(entry.getKey(), entry.getValue());
+        }
+        pendingInterceptorsMap.clear();
+        final byte[] enhancedBytecode = enhancedClassGenerator.toBytecode();
+        final Class<?> generatedClass = enhancedClassGenerator.defineClass(classLoader, enhancedClassName, enhancedBytecode);
+        if (cacheKey != null) {
+            final Map<String, byte[]> bytecodeMap = new LinkedHashMap<String, byte[]>();
+            bytecodeMap.put(enhancedClassName, enhancedBytecode);
+            bytecodeMap.putAll(methodInvocationBytecodeMap);
+            enhancedClassCache.store(cacheKey, bytecodeMap);
+        }
+        methodInvocationBytecodeMap.clear();
+        return generatedClass;
+    }
+
+    protected List<String> buildCacheClassNameList() { // same order as cache file
+        final List<String> classNameList = new ArrayList<String>();
+        classNameList.add(enhancedClassName);
+        int index = 0;
+        for (Method method : pendingInterceptorsMap.keySet()) {
+            classNameList.add(buildMethodInvocationClassName(method, index));
+            ++index;
+        }
+        return classNameList;
+    }
+
+    protected List<String> buildCacheIdentityList(final List<String> classNameList) {
+        // method signatures (and constructors in target class bytecode) determine generated bytecode
+        final List<String> identityList = new ArrayList<String>(classNameList);
+        for (Method method : pendingInterceptorsMap.keySet()) {
+            identityList.add(method.toString());
+        }
+        return identityList;
+    }
+
+    protected Class<?> defineCachedClass(final ClassLoader classLoader, final Map<String, byte[]> bytecodeMap) {
+        final Class<?> templateClass = MethodInvocationClassGenerator.getTemplateClass();
+        for (Entry<Method, MethodInterceptor[]> entry : pendingInterceptorsMap.entrySet()) {
+            final Method method = entry.getKey();
+            final String methodInvocationClassName = buildMethodInvocationClassName(method);
+            final byte[] bytecode = bytecodeMap.get(methodInvocationClassName);
+            final CachedClassGenerator generator = newCachedClassGenerator(templateClass, /*interfaceDefineEnabled*/true);
+            final Class<?> methodInvocationClass = generator.defineClass(classLoader, methodInvocationClassName, bytecode);
+            setupMethodInvocationClass(methodInvocationClass, method, entry.getValue());
+        }
+        pendingInterceptorsMap.clear();
+        final CachedClassGenerator generator = newCachedClassGenerator(targetClass, /*interfaceDefineEnabled*/false);
+        return generator.defineClass(classLoader, enhancedClassName, bytecodeMap.get(enhancedClassName));
+    }
+
+    protected CachedClassGenerator newCachedClassGenerator(final Class<?> lookupClass, final boolean interfaceDefineEnabled) {
+        return new CachedClassGenerator(classPool, lookupClass, interfaceDefineEnabled);
+    }
+
     // ===================================================================================
     //                                                                        Static Field
     //                                                                        ============
@@ -176,7 +318,9 @@ public class AspectWeaver {
         if (targetClassName.startsWith("java.") || (pkg != null && pkg.isSealed())) {
             sb.append(PREFIX_ENHANCED_CLASS);
         }
-        sb.append(targetClassName).append(SUFFIX_ENHANCED_CLASS).append(Integer.toHexString(hashCode()));
+        // stable name for cache, the name is a part of cached bytecode
+        final int identityHash = enhancedClassCache != null ? targetClassName.hashCode() : hashCode();
+        sb.append(targetClassName).append(SUFFIX_ENHANCED_CLASS).append(Integer.toHexString(identityHash));
 
         // #for_now jflute strictly not thread-safe? (2024/06/18)
         final int length = sb.length();
@@ -191,6 +335,10 @@ public class AspectWeaver {
     }
 
     public String buildMethodInvocationClassName(final Method method) {
+        return buildMethodInvocationClassName(method, methodInvocationClassList.size());
+    }
+
+    protected String buildMethodInvocationClassName(final Method method, final int classCount) {
         // _/_/_/_/_/_/_/_/_/_/_/_/_/_/_/_/_/_/_/_/_/_/_/_/_/_/_/_/_/_/_/_/_/_/_/_/_/_/_/_/_/_/_/_/_/_/_/_/_/_/_/_/
         // MethodHandles way requires that lookup class's package is same as enhanced class's one:
         // { @log
@@ -208,7 +356,6 @@ public class AspectWeaver {
         final String invocationSuffix = SUFFIX_METHOD_INVOCATION_CLASS;
         final String methodName = method.getName();
         final String invocationSeparator = SEPARATOR_METHOD_INVOCATION_CLASS;
-        final int classCount = methodInvocationClassList.size();
         return pkg + "." + enhancedIdentity + invocationSuffix + methodName + invocationSeparator + classCount;
         // before:
         //return enhancedClassName + SUFFIX_METHOD_INVOCATION_CLASS + method.getName() + SEPARATOR_METHOD_INVOCATION_CLASS
@@ -218,7 +365,7 @@ public class AspectWeaver {
     public String createInvokeSuperMethod(final Method method) { // should be createInvokeSuperMethod[Name]()
         final String invokeSuperMethodName = PREFIX_ENHANCED_CLASS + method.getName() + SUFFIX_INVOKE_SUPER_METHOD;
         if (!LdiMethodUtil.isAbstract(method)) {
-            enhancedClassGenerator.createInvokeSuperMethod(method, invokeSuperMethodName);
+            prepareEnhancedClassGenerator().createInvokeSuperMethod(method, invokeSuperMethodName);
         }
         return invokeSuperMethodName;
     }
@@ -242,7 +389,11 @@ public class AspectWeaver {
         return enhancedClassName;
     }
 
-    public EnhancedClassGenerator getEnhancedClassGenerator() {
+    public EnhancedClassGenerator getEnhancedClassGenerator() { // null allowed if cache is active, see abandonCache()
         return enhancedClassGenerator;
     }
+
+    public EnhancedClassCache getEnhancedClassCache() { // null allowed if no cache
+        return enhancedClassCache;
+    }
 }
\ No newline at end of file
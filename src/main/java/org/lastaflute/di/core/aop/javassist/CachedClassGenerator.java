@@ -0,0 +1,52 @@
+/*
+ * Copyright 2015-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.di.core.aop.javassist;
+
+import javassist.ClassPool;
+
+/**
+ * The generator that only defines bytecode loaded from EnhancedClassCache. <br>
+ * No Javassist compilation here, the defining ways are same as other generators.
+ * @author jflute
+ */
+public class CachedClassGenerator extends AbstractGenerator {
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final boolean interfaceDefineEnabled; // same as original generator
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    /**
+     * @param classPool The class pool of target class. (NotNull)
+     * @param targetClass The target class of original generator, used as lookup class. (NotNull)
+     * @param interfaceDefineEnabled Is interface way enabled? (true if method invocation class)
+     */
+    public CachedClassGenerator(final ClassPool classPool, final Class<?> targetClass, final boolean interfaceDefineEnabled) {
+        super(classPool, targetClass);
+        this.interfaceDefineEnabled = interfaceDefineEnabled;
+    }
+
+    // ===================================================================================
+    //                                                                    Define the Class
+    //                                                                    ================
+    @Override
+    protected boolean isInterfaceDefineEnabled() {
+        return interfaceDefineEnabled;
+    }
+}
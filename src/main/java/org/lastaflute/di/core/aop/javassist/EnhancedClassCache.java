@@ -0,0 +1,255 @@
+/*
+ * Copyright 2015-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.di.core.aop.javassist;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.lastaflute.di.core.LastaDiProperties;
+import org.lastaflute.di.helper.log.LaLogger;
+import org.lastaflute.di.util.LdiInputStreamUtil;
+
+/**
+ * The on-disk cache of bytecode generated by AspectWeaver. <br>
+ * The enhanced class and its method invocation classes are saved as one cache file,
+ * and they are defined from the file without Javassist compilation at next boot. <br>
+ * The cache key is digest of the target class hierarchy bytecode and the aspect configuration
+ * (intercepted method signatures) so changed classes are regenerated automatically.
+ * <pre>
+ * e.g. lasta_di.properties
+ *  aop.enhanced.class.cache.dir = ./target/lastadi-aop-cache
+ * </pre>
+ * You can also prepare the cache at build time by booting the container once (e.g. unit test)
+ * and ship the directory with your application.
+ * @author jflute
+ */
+public class EnhancedClassCache {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    private static final LaLogger logger = LaLogger.getLogger(EnhancedClassCache.class);
+
+    public static final String CACHE_FILE_EXT = ".ldiaop";
+    protected static final int CACHE_FORMAT_VERSION = 3; // increment it if generated bytecode is changed
+    protected static final String DIGEST_ALGORITHM = "SHA-1";
+
+    // -----------------------------------------------------
+    //                                         Default Cache
+    //                                         -------------
+    protected static volatile EnhancedClassCache defaultCache; // null allowed if disabled
+    protected static volatile boolean defaultCachePrepared;
+
+    public static EnhancedClassCache getDefaultCache() { // null allowed if disabled
+        if (!defaultCachePrepared) {
+            synchronized (EnhancedClassCache.class) {
+                if (!defaultCachePrepared) {
+                    final String cacheDir = LastaDiProperties.getInstance().getAopEnhancedClassCacheDir();
+                    if (cacheDir != null) {
+                        defaultCache = new EnhancedClassCache(new File(cacheDir));
+                        logger.info("Lasta Di uses enhanced class cache: " + cacheDir);
+                    }
+                    defaultCachePrepared = true;
+                }
+            }
+        }
+        return defaultCache;
+    }
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final File cacheDir; // not null
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    public EnhancedClassCache(File cacheDir) {
+        if (cacheDir == null) {
+            throw new IllegalArgumentException("The argument 'cacheDir' should not be null.");
+        }
+        this.cacheDir = cacheDir;
+    }
+
+    // ===================================================================================
+    //                                                                           Cache Key
+    //                                                                           =========
+    /**
+     * @param targetClass The class before enhancement. (NotNull)
+     * @param identityList The list of strings that identify the generated classes e.g. class names, method signatures. (NotNull)
+     * @return The key of cache as hex string. (NullAllowed: when the bytecode of target class is not found)
+     */
+    public String buildCacheKey(Class<?> targetClass, List<String> identityList) {
+        final MessageDigest digest = newDigest();
+        digest.update(toBytes("v" + CACHE_FORMAT_VERSION));
+        if (!updateClassBytecode(digest, MethodInvocationClassGenerator.getTemplateClass())) { // framework version
+            return null;
+        }
+        if (!updateHierarchyBytecode(digest, targetClass)) {
+            return null;
+        }
+        for (String identity : identityList) {
+            digest.update(toBytes(identity));
+        }
+        return toHex(digest.digest());
+    }
+
+    protected boolean updateHierarchyBytecode(MessageDigest digest, Class<?> clazz) { // false if not found
+        if (clazz == null || clazz.getClassLoader() == null) { // e.g. java.lang.Object
+            return true;
+        }
+        if (!updateClassBytecode(digest, clazz)) {
+            return false;
+        }
+        for (Class<?> interfaceType : clazz.getInterfaces()) {
+            if (!updateHierarchyBytecode(digest, interfaceType)) {
+                return false;
+            }
+        }
+        return updateHierarchyBytecode(digest, clazz.getSuperclass());
+    }
+
+    protected boolean updateClassBytecode(MessageDigest digest, Class<?> clazz) { // false if not found
+        final String resourcePath = clazz.getName().replace('.', '/') + ".class";
+        final ClassLoader classLoader = clazz.getClassLoader();
+        final InputStream ins = classLoader != null ? classLoader.getResourceAsStream(resourcePath) : null;
+        if (ins == null) { // e.g. generated class
+            return false;
+        }
+        digest.update(toBytes(clazz.getName()));
+        digest.update(LdiInputStreamUtil.getBytes(ins)); // with closing
+        return true;
+    }
+
+    protected MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) { // basically no way
+            throw new IllegalStateException("Not found the digest algorithm: " + DIGEST_ALGORITHM, e);
+        }
+    }
+
+    protected byte[] toBytes(String str) {
+        return str.getBytes(StandardCharsets.UTF_8);
+    }
+
+    protected String toHex(byte[] bytes) {
+        final StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    // ===================================================================================
+    //                                                                        Load & Store
+    //                                                                        ============
+    /**
+     * @param cacheKey The key built by buildCacheKey(). (NotNull)
+     * @return The map of class name and bytecode, keeping stored order. (NullAllowed: when not found or broken)
+     */
+    public Map<String, byte[]> load(String cacheKey) {
+        final File cacheFile = toCacheFile(cacheKey);
+        if (!cacheFile.exists()) {
+            return null;
+        }
+        // read all at first to validate lengths in the file by the remaining size
+        try (DataInputStream ins = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(cacheFile.toPath())))) {
+            if (ins.readInt() != CACHE_FORMAT_VERSION) {
+                return null;
+            }
+            final int classCount = ins.readInt();
+            assertCacheLength(classCount, ins.available(), cacheFile);
+            final Map<String, byte[]> bytecodeMap = new LinkedHashMap<String, byte[]>();
+            for (int i = 0; i < classCount; i++) {
+                final String className = ins.readUTF();
+                final int bytecodeLength = ins.readInt();
+                assertCacheLength(bytecodeLength, ins.available(), cacheFile);
+                final byte[] bytecode = new byte[bytecodeLength];
+                ins.readFully(bytecode);
+                bytecodeMap.put(className, bytecode);
+            }
+            return bytecodeMap;
+        } catch (IOException | RuntimeException e) { // e.g. broken file, regenerated so no exception
+            logger.warn("Failed to load the enhanced class cache, so regenerate it: " + cacheFile, e);
+            return null;
+        }
+    }
+
+    protected void assertCacheLength(int length, int remainingSize, File cacheFile) throws IOException {
+        if (length < 0 || length > remainingSize) { // not to allocate huge array by broken file
+            throw new IOException("Illegal length in the cache file: length=" + length + ", remaining=" + remainingSize);
+        }
+    }
+
+    /**
+     * @param cacheKey The key built by buildCacheKey(). (NotNull)
+     * @param bytecodeMap The map of class name and bytecode. (NotNull)
+     */
+    public void store(String cacheKey, Map<String, byte[]> bytecodeMap) {
+        if (!cacheDir.exists() && !cacheDir.mkdirs() && !cacheDir.exists()) { // may be made by other thread
+            logger.warn("Failed to make the directory for enhanced class cache: " + cacheDir);
+            return;
+        }
+        final File cacheFile = toCacheFile(cacheKey);
+        final File tempFile = new File(cacheDir, cacheKey + "." + Thread.currentThread().getId() + ".tmp");
+        try {
+            try (DataOutputStream ous = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+                ous.writeInt(CACHE_FORMAT_VERSION);
+                ous.writeInt(bytecodeMap.size());
+                for (Map.Entry<String, byte[]> entry : bytecodeMap.entrySet()) {
+                    ous.writeUTF(entry.getKey());
+                    ous.writeInt(entry.getValue().length);
+                    ous.write(entry.getValue());
+                }
+            }
+            // no half-written file for readers
+            if (!tempFile.renameTo(cacheFile) && !cacheFile.exists()) {
+                logger.warn("Failed to rename the enhanced class cache: " + tempFile + " to " + cacheFile);
+            }
+        } catch (IOException e) { // cache is optional so no exception
+            logger.warn("Failed to store the enhanced class cache: " + cacheFile, e);
+        } finally {
+            if (tempFile.exists()) {
+                tempFile.delete();
+            }
+        }
+    }
+
+    protected File toCacheFile(String cacheKey) {
+        return new File(cacheDir, cacheKey + CACHE_FILE_EXT);
+    }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    public File getCacheDir() {
+        return cacheDir;
+    }
+}
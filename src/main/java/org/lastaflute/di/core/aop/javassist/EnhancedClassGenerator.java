@@ -32,6 +32,12 @@ import javassist.CtClass;
  */
 public class EnhancedClassGenerator extends AbstractGenerator {
 
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    /** The shared arguments for no-parameter methods, to avoid allocation per call. (NotNull, EmptyAllowed) */
+    public static final Object[] EMPTY_ARGUMENTS = new Object[0];
+
     // ===================================================================================
     //                                                                           Attribute
     //                                                                           =========
@@ -111,10 +117,14 @@ public class EnhancedClassGenerator extends AbstractGenerator {
     //                                                                    Define the Class
     //                                                                    ================
     public Class<?> toClass(final ClassLoader classLoader) { // with closing
-        final Class<?> clazz = toClass(classLoader, enhancedCtClass);
+        return defineClass(classLoader, enhancedClassName, toBytecode());
+    }
+
+    public byte[] toBytecode() { // with closing, e.g. for cache of enhanced class
+        final byte[] bytecode = convertCtClassToBytecode(enhancedCtClass);
         enhancedCtClass.detach();
         enhancedCtClass = null;
-        return clazz;
+        return bytecode;
     }
 
     // ===================================================================================
@@ -122,7 +132,8 @@ public class EnhancedClassGenerator extends AbstractGenerator {
     //                                                                  ==================
     public static String createTargetMethodSource(final Method method, final String methodInvocationClassName) {
         final StringBuffer sb = new StringBuffer(200);
-        sb.append("Object result = new ").append(methodInvocationClassName).append("(this, $args).proceed();");
+        final String arguments = createArgumentsExpression(method);
+        sb.append("Object result = new ").append(methodInvocationClassName).append("(this, ").append(arguments).append(").proceed();");
         final Class<?> returnType = method.getReturnType();
         if (returnType.equals(void.class)) {
             sb.append("return;");
@@ -147,6 +158,20 @@ public class EnhancedClassGenerator extends AbstractGenerator {
         return "{" + code + "}";
     }
 
+    public static String createArgumentsExpression(final Method method) {
+        final int parameterCount = method.getParameterTypes().length;
+        if (parameterCount == 0) { // $args makes new empty array per call
+            return EnhancedClassGenerator.class.getName() + ".EMPTY_ARGUMENTS";
+        }
+        // typed constructor of method invocation, arguments array is materialized lazily there
+        final StringBuilder sb = new StringBuilder(50);
+        for (int i = 0; i < parameterCount; ++i) {
+            sb.append("$").append(i + 1).append(", ");
+        }
+        sb.setLength(sb.length() - 2);
+        return new String(sb);
+    }
+
     public static String createInvokeSuperMethodSource(final Method method) {
         return "{" + "return ($r) super." + method.getName() + "($$);" + "}";
     }
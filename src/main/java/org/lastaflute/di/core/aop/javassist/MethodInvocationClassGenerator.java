@@ -17,6 +17,7 @@ package org.lastaflute.di.core.aop.javassist;
 
 import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.Map;
 
 import org.lastaflute.di.core.aop.LaMethodInvocation;
@@ -63,14 +64,42 @@ public class MethodInvocationClassGenerator extends AbstractGenerator {
         setMethodBody(method, createProceedMethodSource(targetMethod, enhancedClassName, invokeSuperMethodName));
     }
 
+    /**
+     * Create the typed fields of arguments, the constructor to receive them
+     * and getArguments() that materializes the arguments array at first call. <br>
+     * So interceptors that don't read arguments cost neither the array nor boxing per call. <br>
+     * No-parameter method does nothing here because it uses the shared empty arguments.
+     * @param targetMethod The intercepted method. (NotNull)
+     */
+    public void createLazyArguments(final Method targetMethod) {
+        final Class<?>[] parameterTypes = targetMethod.getParameterTypes();
+        if (parameterTypes.length == 0) {
+            return;
+        }
+        for (int i = 0; i < parameterTypes.length; ++i) {
+            createField(methodInvocationCtClass, Modifier.PRIVATE, parameterTypes[i], createArgumentFieldName(i));
+        }
+        final Class<?>[] constructorTypes = new Class<?>[parameterTypes.length + 1];
+        constructorTypes[0] = Object.class; // target
+        System.arraycopy(parameterTypes, 0, constructorTypes, 1, parameterTypes.length);
+        createConstructor(methodInvocationCtClass, constructorTypes, createLazyArgumentsConstructorSource(parameterTypes));
+        final CtMethod method = getDeclaredMethod(methodInvocationCtClass, "getArguments", null);
+        setMethodBody(method, createGetArgumentsMethodSource(parameterTypes));
+    }
+
     // ===================================================================================
     //                                                                    Define the Class
     //                                                                    ================
     public Class<?> toClass(final ClassLoader classLoader) { // with closing
-        final Class<?> clazz = toClass(classLoader, methodInvocationCtClass);
+        final String methodInvocationClassName = methodInvocationCtClass.getName();
+        return defineClass(classLoader, methodInvocationClassName, toBytecode());
+    }
+
+    public byte[] toBytecode() { // with closing, e.g. for cache of enhanced class
+        final byte[] bytecode = convertCtClassToBytecode(methodInvocationCtClass);
         methodInvocationCtClass.detach();
         methodInvocationCtClass = null;
-        return clazz;
+        return bytecode;
     }
 
     @Override
@@ -99,10 +128,20 @@ public class MethodInvocationClassGenerator extends AbstractGenerator {
             return createThrowStatement(targetMethod, enhancedClassName);
         }
 
-        final String invokeSuper = "((" + enhancedClassName + ") target)." + invokeSuperMethodName + "("
-                + createArgumentString(targetMethod.getParameterTypes()) + ")";
-
+        final Class<?>[] parameterTypes = targetMethod.getParameterTypes();
         final Class<?> returnType = targetMethod.getReturnType();
+        final String invokeSuperPrefix = "((" + enhancedClassName + ") target)." + invokeSuperMethodName + "(";
+        final String invokeSuper = invokeSuperPrefix + createArgumentString(parameterTypes) + ")";
+        if (parameterTypes.length == 0) {
+            return createInvokeSuperReturnStatement(returnType, invokeSuper);
+        }
+        // arguments array is null if no one has called getArguments() so typed fields are current
+        final String fieldInvokeSuper = invokeSuperPrefix + createArgumentFieldString(parameterTypes) + ")";
+        return "if (arguments == null) {" + createInvokeSuperReturnStatement(returnType, fieldInvokeSuper) + "}"
+                + createInvokeSuperReturnStatement(returnType, invokeSuper);
+    }
+
+    protected static String createInvokeSuperReturnStatement(final Class<?> returnType, final String invokeSuper) {
         if (returnType.equals(void.class)) {
             return invokeSuper + ";" + "return null;";
         }
@@ -128,6 +167,49 @@ public class MethodInvocationClassGenerator extends AbstractGenerator {
         return new String(sb);
     }
 
+    public static String createArgumentFieldString(final Class<?>[] argTypes) {
+        if (argTypes == null || argTypes.length == 0) {
+            return "";
+        }
+        final StringBuilder sb = new StringBuilder(100);
+        for (int i = 0; i < argTypes.length; ++i) {
+            sb.append(createArgumentFieldName(i)).append(", ");
+        }
+        sb.setLength(sb.length() - 2);
+        return new String(sb);
+    }
+
+    public static String createArgumentFieldName(final int index) {
+        return "argument" + index;
+    }
+
+    public static String createLazyArgumentsConstructorSource(final Class<?>[] argTypes) {
+        final StringBuilder sb = new StringBuilder(200);
+        sb.append("{");
+        sb.append("target = $1;"); // arguments array stays null until getArguments()
+        for (int i = 0; i < argTypes.length; ++i) {
+            sb.append(createArgumentFieldName(i)).append(" = $").append(i + 2).append(";");
+        }
+        sb.append("}");
+        return new String(sb);
+    }
+
+    public static String createGetArgumentsMethodSource(final Class<?>[] argTypes) {
+        final StringBuilder sb = new StringBuilder(300);
+        sb.append("{");
+        sb.append("if (arguments == null) {"); // interceptors may rewrite elements so keep the instance
+        sb.append("Object[] materialized = new Object[").append(argTypes.length).append("];");
+        for (int i = 0; i < argTypes.length; ++i) {
+            sb.append("materialized[").append(i).append("] = ");
+            sb.append(toObject(argTypes[i], createArgumentFieldName(i))).append(";");
+        }
+        sb.append("arguments = materialized;");
+        sb.append("}");
+        sb.append("return arguments;");
+        sb.append("}");
+        return new String(sb);
+    }
+
     public static String createArgumentTypeString(final Class<?>[] argTypes) {
         if (argTypes == null || argTypes.length == 0) {
             return "";
@@ -156,7 +238,7 @@ public class MethodInvocationClassGenerator extends AbstractGenerator {
         private static Map<String, Object> parameters;
 
         private Object target;
-        private Object[] arguments;
+        private Object[] arguments; // null until getArguments() if lazy arguments (typed fields) are created
 
         int interceptorsIndex;
 
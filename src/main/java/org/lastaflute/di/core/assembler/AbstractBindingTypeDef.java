@@ -27,7 +27,7 @@ import org.lastaflute.di.core.util.BindingUtil;
 import org.lastaflute.di.helper.beans.PropertyDesc;
 import org.lastaflute.di.helper.beans.exception.BeanIllegalPropertyException;
 import org.lastaflute.di.helper.misc.LdiExceptionMessageBuilder;
-import org.lastaflute.di.util.LdiFieldUtil;
+import org.lastaflute.di.util.LdiMethodHandleUtil;
 
 /**
  * @author modified by jflute (originated in Seasar)
@@ -112,6 +112,34 @@ public abstract class AbstractBindingTypeDef implements BindingTypeDef {
         return false;
     }
 
+    // -----------------------------------------------------
+    //                                     Resolved Property
+    //                                     -----------------
+    /**
+     * Resolve the component definition for the auto property in the same order as auto binding. <br>
+     * The result can be reused for other instances while registration of the container is not changed.
+     * @param componentDef The component definition of property owner. (NotNull)
+     * @param propertyDesc The description of the property. (NotNull)
+     * @return The resolved component definition. (NullAllowed: when not resolved, needs normal auto binding)
+     */
+    public ComponentDef resolveAutoPropertyComponentDef(ComponentDef componentDef, PropertyDesc propertyDesc) {
+        final Class<?> propType = propertyDesc.getPropertyType();
+        return resolveAutoBindingComponentDef(componentDef, propertyDesc.getPropertyName(), propType, isPropertyAutoBindable(propType));
+    }
+
+    /**
+     * Bind the property by the component definition already resolved by {@link #resolveAutoPropertyComponentDef(ComponentDef, PropertyDesc)}.
+     * @param componentDef The component definition of property owner. (NotNull)
+     * @param propertyDesc The description of the property. (NotNull)
+     * @param resolvedDef The resolved component definition of the property value. (NotNull)
+     * @param component The component instance of property owner. (NotNull)
+     */
+    public void bindResolvedProperty(ComponentDef componentDef, PropertyDesc propertyDesc, ComponentDef resolvedDef, Object component) {
+        final Object value = getResolvedComponent(componentDef, resolvedDef, propertyDesc.getPropertyType(), component,
+                propertyDesc.getPropertyName());
+        setPropertyValue(componentDef, propertyDesc, component, value);
+    }
+
     protected boolean isPropertyAutoBindable(Class<?> clazz) {
         return BindingUtil.isPropertyAutoBindable(clazz);
     }
@@ -193,6 +221,33 @@ public abstract class AbstractBindingTypeDef implements BindingTypeDef {
         return false;
     }
 
+    // -----------------------------------------------------
+    //                               Resolved Resource Field
+    //                               -----------------------
+    /**
+     * Resolve the component definition for the auto resource field in the same order as auto binding. <br>
+     * The result can be reused for other instances while registration of the container is not changed.
+     * @param componentDef The component definition of field owner. (NotNull)
+     * @param field The resource field. (NotNull)
+     * @return The resolved component definition. (NullAllowed: when not resolved, needs normal auto binding)
+     */
+    public ComponentDef resolveAutoResourceFieldComponentDef(ComponentDef componentDef, Field field) {
+        final Class<?> propType = field.getType();
+        return resolveAutoBindingComponentDef(componentDef, field.getName(), propType, isFieldAutoBindable(propType));
+    }
+
+    /**
+     * Bind the field by the component definition already resolved by {@link #resolveAutoResourceFieldComponentDef(ComponentDef, Field)}.
+     * @param componentDef The component definition of field owner. (NotNull)
+     * @param field The resource field. (NotNull)
+     * @param resolvedDef The resolved component definition of the field value. (NotNull)
+     * @param component The component instance of field owner. (NotNull)
+     */
+    public void bindResolvedResourceField(ComponentDef componentDef, Field field, ComponentDef resolvedDef, Object component) {
+        final Object value = getResolvedComponent(componentDef, resolvedDef, field.getType(), component, field.getName());
+        setResourceFieldValue(componentDef, field, component, value);
+    }
+
     protected boolean isFieldAutoBindable(Class<?> clazz) {
         return BindingUtil.isFieldAutoBindable(clazz);
     }
@@ -203,7 +258,7 @@ public abstract class AbstractBindingTypeDef implements BindingTypeDef {
             return;
         }
         try {
-            LdiFieldUtil.set(field, component, value); // annotation field (contains public, private)
+            LdiMethodHandleUtil.setFieldValue(field, component, value); // annotation field (contains public, private)
         } catch (NumberFormatException ex) {
             throw new BeanIllegalPropertyException(componentDef.getComponentClass(), field.getName(), ex);
         }
@@ -214,6 +269,43 @@ public abstract class AbstractBindingTypeDef implements BindingTypeDef {
     // ===================================================================================
     //                                                                        Assist Logic
     //                                                                        ============
+    /**
+     * Is the resolved binding available for the binding type? (resolved definitions are replayed instead of auto binding)
+     * @return The determination, true if available.
+     */
+    public boolean isAutoBindingResolvable() { // false if no auto binding e.g. none type
+        return true;
+    }
+
+    protected ComponentDef resolveAutoBindingComponentDef(ComponentDef componentDef, String propName, Class<?> propType,
+            boolean typeAutoBindable) { // same order as bindAutoProperty() and bindAutoResourceField()
+        final LaContainer container = componentDef.getContainer();
+        final boolean hasComponentByType = container.hasComponentDef(propType);
+        if (hasComponentByType) {
+            final ComponentDef cd = container.getComponentDef(propType);
+            if (isSimpleNamingAutoBindable(propName, propType, cd)) {
+                return cd;
+            }
+        }
+        if (container.hasComponentDef(propName)) { // needs instance check of the component
+            return null;
+        }
+        if (typeAutoBindable && hasComponentByType) {
+            return container.getComponentDef(propType);
+        }
+        return null; // e.g. array or component definition itself
+    }
+
+    protected Object getResolvedComponent(ComponentDef componentDef, ComponentDef resolvedDef, Object key, Object component,
+            String propertyName) {
+        try {
+            return resolvedDef.getComponent();
+        } catch (RuntimeException cause) {
+            throwPropertyComponentGetFailureException(componentDef, key, component, propertyName, cause);
+            return null; // unreachable
+        }
+    }
+
     protected boolean isSimpleNamingAutoBindable(String propertyName, Class<?> propertyType, ComponentDef cd) {
         final String componentName = cd.getComponentName();
         if (componentName == null) {
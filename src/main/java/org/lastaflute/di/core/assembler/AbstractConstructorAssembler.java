@@ -17,6 +17,7 @@ package org.lastaflute.di.core.assembler;
 
 import java.lang.reflect.Constructor;
 import java.util.Collections;
+import java.util.function.Function;
 
 import org.lastaflute.di.core.ComponentDef;
 import org.lastaflute.di.core.LaContainer;
@@ -27,17 +28,30 @@ import org.lastaflute.di.core.expression.Expression;
 import org.lastaflute.di.helper.beans.BeanDesc;
 import org.lastaflute.di.helper.beans.factory.BeanDescFactory;
 import org.lastaflute.di.util.LdiClassUtil;
-import org.lastaflute.di.util.LdiConstructorUtil;
+import org.lastaflute.di.util.LdiMethodHandleUtil;
 
 /**
  * @author modified by jflute (originated in Seasar)
  */
 public abstract class AbstractConstructorAssembler extends AbstractAssembler implements ConstructorAssembler {
 
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    // compiled once per concrete class, benign race (same instantiator)
+    protected volatile CachedInstantiator defaultInstantiator; // lazy-loaded
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
     public AbstractConstructorAssembler(ComponentDef componentDef) {
         super(componentDef);
     }
 
+    // ===================================================================================
+    //                                                                            Assemble
+    //                                                                            ========
+
     @Override
     public Object assemble() {
         if (getComponentDef().getExpression() != null) {
@@ -81,7 +95,53 @@ public abstract class AbstractConstructorAssembler extends AbstractAssembler imp
     }
 
     protected Object assembleDefault() {
-        final Constructor<?> constructor = LdiClassUtil.getConstructor(getComponentDef().getConcreteClass(), null);
-        return LdiConstructorUtil.newInstance(constructor, null);
+        final Class<?> concreteClass = getComponentDef().getConcreteClass();
+        CachedInstantiator cached = defaultInstantiator;
+        if (cached == null || !cached.isTarget(concreteClass)) {
+            cached = new CachedInstantiator(concreteClass, LdiClassUtil.getConstructor(concreteClass, null));
+            defaultInstantiator = cached;
+        }
+        return cached.newInstance(null);
+    }
+
+    // ===================================================================================
+    //                                                                        Instantiator
+    //                                                                        ============
+    /**
+     * The constructor compiled to instantiator for the concrete class.
+     */
+    protected static class CachedInstantiator {
+
+        protected final Class<?> targetClass; // not null, key of cache
+        protected final Constructor<?> constructor; // null allowed: e.g. no suitable constructor
+        protected final Class<?>[] parameterTypes; // not null, empty if no constructor
+        protected final Function<Object[], Object> instantiator; // null allowed: when no constructor
+
+        public CachedInstantiator(Class<?> targetClass, Constructor<?> constructor) {
+            this.targetClass = targetClass;
+            this.constructor = constructor;
+            this.parameterTypes = constructor != null ? constructor.getParameterTypes() : new Class<?>[0];
+            this.instantiator = constructor != null ? LdiMethodHandleUtil.toInstantiator(constructor) : null;
+        }
+
+        public boolean isTarget(Class<?> targetClass) {
+            return this.targetClass == targetClass;
+        }
+
+        public Object newInstance(Object[] args) {
+            return instantiator.apply(args);
+        }
+
+        public Class<?> getTargetClass() {
+            return targetClass;
+        }
+
+        public Constructor<?> getConstructor() {
+            return constructor;
+        }
+
+        public Class<?>[] getParameterTypes() { // not copied for performance so read-only
+            return parameterTypes;
+        }
     }
 }
\ No newline at end of file
@@ -19,25 +19,41 @@ import java.lang.reflect.Constructor;
 
 import org.lastaflute.di.core.ComponentDef;
 import org.lastaflute.di.core.util.BindingUtil;
-import org.lastaflute.di.util.LdiConstructorUtil;
 
 /**
  * @author modified by jflute (originated in Seasar)
  */
 public class AutoConstructorAssembler extends AbstractConstructorAssembler {
 
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    // suitable constructor is found once per concrete class, benign race (same instantiator)
+    protected volatile CachedInstantiator suitableInstantiator; // lazy-loaded
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
     public AutoConstructorAssembler(ComponentDef componentDef) {
         super(componentDef);
     }
 
+    // ===================================================================================
+    //                                                                            Assemble
+    //                                                                            ========
     @Override
     protected Object doAssemble() {
-        final Constructor<?> constructor = getSuitableConstructor();
-        if (constructor == null) {
+        final Class<?> concreteClass = getComponentDef().getConcreteClass();
+        CachedInstantiator cached = suitableInstantiator;
+        if (cached == null || !cached.isTarget(concreteClass)) {
+            cached = new CachedInstantiator(concreteClass, getSuitableConstructor());
+            suitableInstantiator = cached;
+        }
+        if (cached.getConstructor() == null) {
             return assembleDefault();
         }
-        final Object[] args = getArgs(constructor.getParameterTypes());
-        return LdiConstructorUtil.newInstance(constructor, args);
+        final Object[] args = getArgs(cached.getParameterTypes());
+        return cached.newInstance(args);
     }
 
     protected Constructor<?> getSuitableConstructor() {
@@ -15,50 +15,305 @@
  */
 package org.lastaflute.di.core.assembler;
 
+import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.lastaflute.di.core.ComponentDef;
+import org.lastaflute.di.core.LaContainer;
 import org.lastaflute.di.core.LastaDiProperties;
+import org.lastaflute.di.core.meta.AccessTypeDef;
 import org.lastaflute.di.core.meta.BindingTypeDef;
 import org.lastaflute.di.core.meta.PropertyDef;
+import org.lastaflute.di.core.meta.impl.LaContainerImpl;
+import org.lastaflute.di.core.smart.hot.HotdeployUtil;
 import org.lastaflute.di.helper.beans.BeanDesc;
 import org.lastaflute.di.helper.beans.PropertyDesc;
+import org.lastaflute.di.helper.beans.factory.BeanDescFactory;
 
 /**
  * @author modified by jflute (originated in Seasar)
  */
 public class AutoPropertyAssembler extends AbstractPropertyAssembler {
 
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    // replayed for every instance (e.g. prototype, request scope), benign race (same plan)
+    // not shared between component definitions so hot deploy (new definitions) discards it
+    protected volatile InjectionPlan injectionPlan; // lazy-loaded
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
     public AutoPropertyAssembler(ComponentDef componentDef) {
         super(componentDef);
     }
 
+    // ===================================================================================
+    //                                                                            Assemble
+    //                                                                            ========
     @Override
     public void assemble(Object component) { // #injection_point
         if (component == null) {
             return;
         }
-        final BeanDesc beanDesc = getBeanDesc(component);
         final ComponentDef componentDef = getComponentDef();
+        final InjectionPlan plan = prepareInjectionPlan(componentDef, component);
+        final PropertyDef[] propertyDefs = plan.getPropertyDefs();
+        final ResolvedBinding[] resolvedBindings = plan.getResolvedBindings();
+        for (int i = 0; i < propertyDefs.length; i++) {
+            final ResolvedBinding resolvedBinding = resolvedBindings[i];
+            if (resolvedBinding != null) { // no lookup from container
+                resolvedBinding.bind(componentDef, component);
+            } else {
+                final PropertyDef propDef = propertyDefs[i];
+                propDef.getAccessTypeDef().bind(componentDef, propDef, component);
+            }
+        }
+        if (componentDef.isExternalBinding()) { // names are changed by external binding
+            final Set<String> names = new HashSet<String>(plan.getNames());
+            bindExternally(plan.getBeanDesc(), componentDef, component, names);
+            setupPlainProperty(component, plan.getBeanDesc(), componentDef, names);
+        } else {
+            replayPlainProperty(component, componentDef, plan);
+        }
+    }
+
+    // ===================================================================================
+    //                                                                      Injection Plan
+    //                                                                      ==============
+    protected InjectionPlan prepareInjectionPlan(ComponentDef componentDef, Object component) {
+        final Class<?> componentClass = getComponentClass(component);
         final int defSize = componentDef.getPropertyDefSize();
+        final long registrationVersion = findRegistrationVersion(componentDef); // before resolution
+        InjectionPlan plan = injectionPlan;
+        if (plan == null || !plan.isAvailable(componentClass, defSize, registrationVersion)) { // first or changed
+            plan = createInjectionPlan(componentDef, componentClass, defSize, registrationVersion);
+            injectionPlan = plan;
+        }
+        return plan;
+    }
+
+    protected long findRegistrationVersion(ComponentDef componentDef) { // minus if unknown
+        final LaContainer container = componentDef.getContainer();
+        if (container instanceof LaContainerImpl) { // resolved in the container of the owner
+            return ((LaContainerImpl) container).getRegistrationVersion();
+        }
+        return -1L;
+    }
+
+    protected InjectionPlan createInjectionPlan(ComponentDef componentDef, Class<?> componentClass, int defSize,
+            long registrationVersion) {
+        final BeanDesc beanDesc = BeanDescFactory.getBeanDesc(componentClass);
+        final PropertyDef[] propertyDefs = new PropertyDef[defSize];
         final Set<String> names = new HashSet<String>();
         for (int i = 0; i < defSize; ++i) {
             final PropertyDef propDef = componentDef.getPropertyDef(i);
-            propDef.getAccessTypeDef().bind(componentDef, propDef, component);
+            propertyDefs[i] = propDef;
             names.add(propDef.getPropertyName());
         }
-        if (componentDef.isExternalBinding()) {
-            bindExternally(beanDesc, componentDef, component, names);
+        final List<PropertyDesc> plainDescList = new ArrayList<PropertyDesc>();
+        final int descSize = beanDesc.getPropertyDescSize();
+        for (int i = 0; i < descSize; ++i) {
+            final PropertyDesc propDesc = beanDesc.getPropertyDesc(i);
+            if (needsPlainPropertyInjection(propDesc) && !names.contains(propDesc.getPropertyName())) {
+                plainDescList.add(propDesc);
+            }
+        }
+        final PropertyDesc[] plainDescs = plainDescList.toArray(new PropertyDesc[plainDescList.size()]);
+        final ResolvedBinding[] resolvedBindings = new ResolvedBinding[defSize]; // null element means not resolved
+        final ComponentDef[] resolvedDefs = new ComponentDef[plainDescs.length]; // me too
+        if (isResolutionAvailable(registrationVersion)) {
+            for (int i = 0; i < defSize; i++) {
+                resolvedBindings[i] = resolvePropertyDefBinding(componentDef, beanDesc, propertyDefs[i]);
+            }
+            final BindingTypeDef plainBindingTypeDef = getPlainPropertyBindingTypeDef();
+            if (isResolvableBindingType(plainBindingTypeDef)) {
+                final AbstractBindingTypeDef resolver = (AbstractBindingTypeDef) plainBindingTypeDef;
+                for (int i = 0; i < plainDescs.length; i++) {
+                    final PropertyDesc propDesc = plainDescs[i];
+                    if (propDesc.isWritable()) {
+                        resolvedDefs[i] = resolver.resolveAutoPropertyComponentDef(componentDef, propDesc);
+                    }
+                }
+            }
+        }
+        return new InjectionPlan(componentClass, beanDesc, propertyDefs, resolvedBindings, Collections.unmodifiableSet(names), plainDescs,
+                resolvedDefs, registrationVersion);
+    }
+
+    protected boolean isResolutionAvailable(long registrationVersion) {
+        // hot deploy changes definitions, and resolution cannot be verified without registration version
+        return !HotdeployUtil.isHotdeploy() && registrationVersion >= 0;
+    }
+
+    protected boolean isResolvableBindingType(BindingTypeDef bindingTypeDef) {
+        return bindingTypeDef instanceof AbstractBindingTypeDef && ((AbstractBindingTypeDef) bindingTypeDef).isAutoBindingResolvable();
+    }
+
+    protected ResolvedBinding resolvePropertyDefBinding(ComponentDef componentDef, BeanDesc beanDesc, PropertyDef propDef) {
+        if (propDef.isValueGettable()) { // e.g. expression, manual binding
+            return null;
+        }
+        final BindingTypeDef bindingTypeDef = propDef.getBindingTypeDef();
+        if (!isResolvableBindingType(bindingTypeDef)) {
+            return null;
+        }
+        final AbstractBindingTypeDef resolver = (AbstractBindingTypeDef) bindingTypeDef;
+        final AccessTypeDef accessTypeDef = propDef.getAccessTypeDef();
+        final String propertyName = propDef.getPropertyName();
+        if (accessTypeDef instanceof AccessTypeFieldDef) { // e.g. @Resource field
+            if (!beanDesc.hasField(propertyName) || !beanDesc.getHiddenFieldList(propertyName).isEmpty()) { // hidden fields are rare
+                return null;
+            }
+            final Field field = beanDesc.getField(propertyName);
+            final ComponentDef resolvedDef = resolver.resolveAutoResourceFieldComponentDef(componentDef, field);
+            return resolvedDef != null ? new ResolvedBinding(resolver, null, field, resolvedDef) : null;
+        } else if (accessTypeDef instanceof AccessTypePropertyDef) { // e.g. @Resource setter
+            if (!beanDesc.hasPropertyDesc(propertyName)) {
+                return null;
+            }
+            final PropertyDesc propDesc = beanDesc.getPropertyDesc(propertyName);
+            if (!propDesc.isWritable()) {
+                return null;
+            }
+            final ComponentDef resolvedDef = resolver.resolveAutoPropertyComponentDef(componentDef, propDesc);
+            return resolvedDef != null ? new ResolvedBinding(resolver, propDesc, null, resolvedDef) : null;
+        }
+        return null; // unknown access type
+    }
+
+    /**
+     * The immutable plan of property injection for the component definition. <br>
+     * The property definitions and the plain properties are fixed after the first assembling,
+     * and the resolved definitions are valid while the registration version of the container is same.
+     */
+    protected static class InjectionPlan {
+
+        protected final Class<?> componentClass; // not null, key of plan
+        protected final BeanDesc beanDesc; // not null
+        protected final PropertyDef[] propertyDefs; // not null, size is also key of plan
+        protected final ResolvedBinding[] resolvedBindings; // not null, same size as property defs, element may be null
+        protected final Set<String> names; // not null, read-only, property names of definitions
+        protected final PropertyDesc[] plainDescs; // not null, target of plain property injection
+        protected final ComponentDef[] resolvedDefs; // not null, same size as plain descs, element may be null
+        protected final long registrationVersion; // also key of plan, resolved definitions may be changed by registration
+
+        public InjectionPlan(Class<?> componentClass, BeanDesc beanDesc, PropertyDef[] propertyDefs, ResolvedBinding[] resolvedBindings,
+                Set<String> names, PropertyDesc[] plainDescs, ComponentDef[] resolvedDefs, long registrationVersion) {
+            this.componentClass = componentClass;
+            this.beanDesc = beanDesc;
+            this.propertyDefs = propertyDefs;
+            this.resolvedBindings = resolvedBindings;
+            this.names = names;
+            this.plainDescs = plainDescs;
+            this.resolvedDefs = resolvedDefs;
+            this.registrationVersion = registrationVersion;
+        }
+
+        public boolean isAvailable(Class<?> componentClass, int defSize, long registrationVersion) {
+            return this.componentClass == componentClass && propertyDefs.length == defSize
+                    && this.registrationVersion == registrationVersion;
+        }
+
+        public Class<?> getComponentClass() {
+            return componentClass;
+        }
+
+        public BeanDesc getBeanDesc() {
+            return beanDesc;
+        }
+
+        public PropertyDef[] getPropertyDefs() {
+            return propertyDefs;
+        }
+
+        public ResolvedBinding[] getResolvedBindings() {
+            return resolvedBindings;
+        }
+
+        public Set<String> getNames() {
+            return names;
+        }
+
+        public PropertyDesc[] getPlainDescs() {
+            return plainDescs;
+        }
+
+        public ComponentDef[] getResolvedDefs() {
+            return resolvedDefs;
+        }
+
+        public long getRegistrationVersion() {
+            return registrationVersion;
+        }
+    }
+
+    /**
+     * The binding of property definition whose target component definition is already resolved. <br>
+     * It is replayed without lookup from container, either property or field is not null.
+     */
+    protected static class ResolvedBinding {
+
+        protected final AbstractBindingTypeDef bindingTypeDef; // not null
+        protected final PropertyDesc propertyDesc; // null allowed: when field access
+        protected final Field field; // null allowed: when property access
+        protected final ComponentDef resolvedDef; // not null
+
+        public ResolvedBinding(AbstractBindingTypeDef bindingTypeDef, PropertyDesc propertyDesc, Field field, ComponentDef resolvedDef) {
+            this.bindingTypeDef = bindingTypeDef;
+            this.propertyDesc = propertyDesc;
+            this.field = field;
+            this.resolvedDef = resolvedDef;
+        }
+
+        public void bind(ComponentDef componentDef, Object component) {
+            if (field != null) {
+                bindingTypeDef.bindResolvedResourceField(componentDef, field, resolvedDef, component);
+            } else {
+                bindingTypeDef.bindResolvedProperty(componentDef, propertyDesc, resolvedDef, component);
+            }
+        }
+
+        public PropertyDesc getPropertyDesc() {
+            return propertyDesc;
+        }
+
+        public Field getField() {
+            return field;
+        }
+
+        public ComponentDef getResolvedDef() {
+            return resolvedDef;
+        }
+    }
+
+    // ===================================================================================
+    //                                                                      Plain Property
+    //                                                                      ==============
+    protected void replayPlainProperty(Object component, ComponentDef componentDef, InjectionPlan plan) {
+        final BindingTypeDef bindingTypeDef = getPlainPropertyBindingTypeDef();
+        final PropertyDesc[] plainDescs = plan.getPlainDescs();
+        final ComponentDef[] resolvedDefs = plan.getResolvedDefs();
+        for (int i = 0; i < plainDescs.length; i++) {
+            final ComponentDef resolvedDef = resolvedDefs[i];
+            if (resolvedDef != null) { // means abstract binding type
+                ((AbstractBindingTypeDef) bindingTypeDef).bindResolvedProperty(componentDef, plainDescs[i], resolvedDef, component);
+            } else {
+                bindingTypeDef.bind(componentDef, null, plainDescs[i], component);
+            }
         }
-        setupPlainProperty(component, beanDesc, componentDef, names);
     }
 
     protected void setupPlainProperty(Object component, BeanDesc beanDesc, ComponentDef componentDef, Set<String> names) {
         // #lasta_di not support plain property DI, annotation DI only supported
         // but DBFlute and LastaFlute uses it so special handling here
-        final BindingTypeDef bindingTypeDef = BindingTypeDefFactory.getBindingTypeDef(BindingTypeDef.SHOULD_NAME);
+        final BindingTypeDef bindingTypeDef = getPlainPropertyBindingTypeDef();
         final int descSize = beanDesc.getPropertyDescSize();
         for (int i = 0; i < descSize; ++i) {
             final PropertyDesc propDesc = beanDesc.getPropertyDesc(i);
@@ -70,6 +325,10 @@ public class AutoPropertyAssembler extends AbstractPropertyAssembler {
         }
     }
 
+    protected BindingTypeDef getPlainPropertyBindingTypeDef() {
+        return BindingTypeDefFactory.getBindingTypeDef(BindingTypeDef.SHOULD_NAME);
+    }
+
     protected boolean needsPlainPropertyInjection(PropertyDesc propDesc) {
         final Method writeMethod = propDesc.getWriteMethod();
         if (writeMethod == null) { // e.g. getter only or public field, are out of target 
@@ -34,4 +34,9 @@ public class BindingTypeNoneDef extends AbstractBindingTypeDef {
 
     protected void doBindResourceField(ComponentDef componentDef, Field field, Object component) {
     }
+
+    @Override
+    public boolean isAutoBindingResolvable() { // no auto binding
+        return false;
+    }
 }
\ No newline at end of file
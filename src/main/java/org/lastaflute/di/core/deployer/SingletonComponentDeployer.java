@@ -15,7 +15,15 @@
  */
 package org.lastaflute.di.core.deployer;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
 import org.lastaflute.di.core.ComponentDef;
+import org.lastaflute.di.core.LastaDiProperties;
 import org.lastaflute.di.core.exception.CyclicReferenceComponentException;
 
 /**
@@ -23,38 +31,178 @@ import org.lastaflute.di.core.exception.CyclicReferenceComponentException;
  */
 public class SingletonComponentDeployer extends AbstractComponentDeployer {
 
-    private Object component;
-    private boolean instantiating = false;
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    private static final long WAIT_CHECK_MILLIS = 10L; // interval to check cross-thread cycle while waiting
+
+    // thread waiting for first assembly of deployer, to detect cycle over threads e.g. A<->B from two threads
+    private static final Map<Thread, SingletonComponentDeployer> waitingMap = new ConcurrentHashMap<Thread, SingletonComponentDeployer>();
 
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    // fast path after creation is only one volatile read, lock is used for first creation (and destroy)
+    private final ReentrantLock assemblyLock = new ReentrantLock(); // not this, not to be held by outer synchronization
+    private volatile Object component; // published after whole assembly (injection and init method)
+    private volatile Object assembling; // while injection, for property cycle of assembling thread (or cross-thread cycle)
+    private volatile Thread assemblingThread; // owner of the lock while assembling
+    private boolean instantiating = false; // guarded by lock
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
     public SingletonComponentDeployer(ComponentDef componentDef) {
         super(componentDef);
     }
 
+    // ===================================================================================
+    //                                                                          Initialize
+    //                                                                          ==========
     @Override
     public void init() {
+        if (isLazyInit()) { // assembled by first deploy()
+            return;
+        }
         deploy();
     }
 
+    public boolean isLazyInit() {
+        return getComponentDef().isLazyInit() || LastaDiProperties.getInstance().isContainerLazySingleton();
+    }
+
+    // ===================================================================================
+    //                                                                              Deploy
+    //                                                                              ======
     @Override
     public Object deploy() {
-        if (component == null) {
-            assemble();
+        final Object deployed = component;
+        if (deployed != null) { // mainly here after initialization
+            return deployed;
+        }
+        if (!assemblyLock.tryLock()) { // assembling by other thread
+            final Object resolved = waitForAssembly();
+            if (resolved != null) {
+                return resolved;
+            }
+            // the lock is acquired here
+        }
+        try { // first creation only
+            if (component != null) {
+                return component;
+            }
+            if (assembling != null) { // reentrant by the assembling thread, same as before publishing
+                return assembling;
+            }
+            return assemble();
+        } finally {
+            assemblyLock.unlock();
         }
-        return component;
     }
 
-    private void assemble() {
+    private Object assemble() {
         if (instantiating) {
             throw new CyclicReferenceComponentException(getComponentDef().getComponentClass());
         }
-        instantiating = true;
+        assemblingThread = Thread.currentThread();
+        try {
+            instantiating = true;
+            final Object created;
+            try {
+                created = getConstructorAssembler().assemble();
+            } finally {
+                instantiating = false;
+            }
+            assembling = created;
+            try {
+                getPropertyAssembler().assemble(created);
+                getInitMethodAssembler().assemble(created);
+                component = created;
+            } finally {
+                assembling = null;
+            }
+            return created;
+        } finally {
+            assemblingThread = null;
+        }
+    }
+
+    // -----------------------------------------------------
+    //                                     Cross-Thread Wait
+    //                                     -----------------
+    /**
+     * Wait for the assembly by other thread, or for the lock to assemble by myself. <br>
+     * If the waiting makes cycle over threads (e.g. T1 assembles A and waits for B, T2 assembles B and waits for A),
+     * the in-progress instance is returned in the same way as property cycle in one thread. <br>
+     * If the waited one is still in constructor, it keeps waiting while other deployer in the cycle has in-progress instance
+     * (the other thread can take it and go ahead), and the cycle is error only when all are in constructor.
+     * @return The assembled or in-progress component. (NullAllowed: the lock is acquired, should be unlocked)
+     */
+    private Object waitForAssembly() {
+        final Thread current = Thread.currentThread();
+        waitingMap.put(current, this);
         try {
-            component = getConstructorAssembler().assemble();
+            while (!assemblyLock.tryLock(WAIT_CHECK_MILLIS, TimeUnit.MILLISECONDS)) {
+                final Object deployed = component;
+                if (deployed != null) {
+                    return deployed;
+                }
+                final List<SingletonComponentDeployer> cycleList = findWaitingCycle(current);
+                if (cycleList != null) {
+                    final Object inProgress = assembling;
+                    if (inProgress != null) { // injecting properties, can be referred like property cycle
+                        return inProgress;
+                    }
+                    if (assemblingThread != null && !hasInProgressInCycle(cycleList)) { // all in constructor so cannot resolve
+                        throw new CyclicReferenceComponentException(getComponentDef().getComponentClass());
+                    }
+                }
+            }
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the assembly: " + getComponentDef(), e);
         } finally {
-            instantiating = false;
+            waitingMap.remove(current);
         }
-        getPropertyAssembler().assemble(component);
-        getInitMethodAssembler().assemble(component);
+    }
+
+    private List<SingletonComponentDeployer> findWaitingCycle(Thread current) { // null if no cycle
+        // follows owner -> waiting deployer -> owner...
+        final List<SingletonComponentDeployer> cycleList = new ArrayList<SingletonComponentDeployer>();
+        SingletonComponentDeployer waited = this;
+        final int limit = waitingMap.size() + 1; // not to loop forever by cycle of other threads
+        for (int i = 0; i < limit; i++) {
+            cycleList.add(waited);
+            final Thread owner = waited.assemblingThread;
+            if (owner == null) {
+                return null;
+            }
+            if (owner == current) {
+                return cycleList;
+            }
+            waited = waitingMap.get(owner);
+            if (waited == null) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private boolean hasInProgressInCycle(List<SingletonComponentDeployer> cycleList) {
+        for (SingletonComponentDeployer deployer : cycleList) {
+            if (deployer.assembling != null) { // its waiting thread can go ahead by the instance
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true if the component has been assembled (and not destroyed yet), e.g. false if lazy and unused.
+     */
+    public boolean isMaterialized() {
+        return component != null;
     }
 
     @Override
@@ -62,12 +210,21 @@ public class SingletonComponentDeployer extends AbstractComponentDeployer {
         throw new UnsupportedOperationException("injectDependency");
     }
 
+    // ===================================================================================
+    //                                                                             Destroy
+    //                                                                             =======
     @Override
     public void destroy() {
-        if (component == null) {
-            return;
+        assemblyLock.lock(); // not to destroy half-assembled one
+        try {
+            final Object deployed = component;
+            if (deployed == null) {
+                return;
+            }
+            getDestroyMethodAssembler().assemble(deployed);
+            component = null;
+        } finally {
+            assemblyLock.unlock();
         }
-        getDestroyMethodAssembler().assemble(component);
-        component = null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2015-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.di.core.factory.annohandler;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The snapshot of annotations on one class, scanned once and shared by definition builders. <br>
+ * Method and field parts are scanned at first access, and returned arrays should not be modified.
+ * @author jflute
+ */
+public class AnnotationMetadata {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    protected static final Annotation[] EMPTY_ANNOTATIONS = new Annotation[0];
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final Class<?> targetClass; // not null
+    protected final Annotation[] classAnnotations; // not null, empty allowed
+    protected final Map<Class<? extends Annotation>, Annotation> classAnnotationMap; // not null, empty allowed
+    protected volatile Method[] methods; // lazy-loaded, public and neither bridge nor synthetic
+    protected volatile Map<Method, Annotation[]> methodAnnotationMap; // lazy-loaded with methods
+    protected volatile Map<Field, Annotation[]> fieldAnnotationMap; // lazy-loaded, declared fields in hierarchy
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    public AnnotationMetadata(Class<?> targetClass) {
+        this.targetClass = targetClass;
+        this.classAnnotations = targetClass.getAnnotations();
+        this.classAnnotationMap = toAnnotationMap(classAnnotations);
+    }
+
+    protected Map<Class<? extends Annotation>, Annotation> toAnnotationMap(Annotation[] annotations) {
+        if (annotations.length == 0) {
+            return Collections.emptyMap();
+        }
+        final Map<Class<? extends Annotation>, Annotation> map = new HashMap<Class<? extends Annotation>, Annotation>(annotations.length);
+        for (Annotation annotation : annotations) {
+            map.put(annotation.annotationType(), annotation);
+        }
+        return map;
+    }
+
+    // ===================================================================================
+    //                                                                    Class Annotation
+    //                                                                    ================
+    public Annotation[] getClassAnnotations() {
+        return classAnnotations;
+    }
+
+    public <ANNO extends Annotation> ANNO getClassAnnotation(Class<ANNO> annotationType) {
+        return annotationType.cast(classAnnotationMap.get(annotationType));
+    }
+
+    // ===================================================================================
+    //                                                                   Method Annotation
+    //                                                                   =================
+    public Method[] getMethods() {
+        prepareMethods();
+        return methods;
+    }
+
+    public Annotation[] getMethodAnnotations(Method method) {
+        prepareMethods();
+        final Annotation[] annotations = methodAnnotationMap.get(method);
+        return annotations != null ? annotations : method.getAnnotations(); // e.g. method of other class
+    }
+
+    public <ANNO extends Annotation> ANNO getMethodAnnotation(Method method, Class<ANNO> annotationType) {
+        return findAnnotation(getMethodAnnotations(method), annotationType);
+    }
+
+    protected void prepareMethods() {
+        if (methods != null) {
+            return;
+        }
+        synchronized (this) {
+            if (methods != null) {
+                return;
+            }
+            final List<Method> methodList = new ArrayList<Method>();
+            final Map<Method, Annotation[]> annotationMap = new HashMap<Method, Annotation[]>();
+            for (Method method : targetClass.getMethods()) {
+                if (method.isBridge() || method.isSynthetic()) {
+                    continue;
+                }
+                methodList.add(method);
+                final Annotation[] annotations = method.getAnnotations();
+                annotationMap.put(method, annotations.length > 0 ? annotations : EMPTY_ANNOTATIONS);
+            }
+            methodAnnotationMap = annotationMap; // before methods, which is the mark of preparation
+            methods = methodList.toArray(new Method[methodList.size()]);
+        }
+    }
+
+    // ===================================================================================
+    //                                                                    Field Annotation
+    //                                                                    ================
+    public <ANNO extends Annotation> ANNO getFieldAnnotation(Field field, Class<ANNO> annotationType) {
+        prepareFields();
+        final Annotation[] annotations = fieldAnnotationMap.get(field);
+        if (annotations == null) { // e.g. field of other class
+            return field.getAnnotation(annotationType);
+        }
+        return findAnnotation(annotations, annotationType);
+    }
+
+    protected void prepareFields() {
+        if (fieldAnnotationMap != null) {
+            return;
+        }
+        synchronized (this) {
+            if (fieldAnnotationMap != null) {
+                return;
+            }
+            final Map<Field, Annotation[]> annotationMap = new HashMap<Field, Annotation[]>();
+            for (Class<?> clazz = targetClass; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+                for (Field field : clazz.getDeclaredFields()) {
+                    final Annotation[] annotations = field.getAnnotations();
+                    annotationMap.put(field, annotations.length > 0 ? annotations : EMPTY_ANNOTATIONS);
+                }
+            }
+            fieldAnnotationMap = annotationMap;
+        }
+    }
+
+    // ===================================================================================
+    //                                                                        Small Helper
+    //                                                                        ============
+    protected <ANNO extends Annotation> ANNO findAnnotation(Annotation[] annotations, Class<ANNO> annotationType) {
+        for (Annotation annotation : annotations) { // small so simple loop
+            if (annotation.annotationType() == annotationType) {
+                return annotationType.cast(annotation);
+            }
+        }
+        return null;
+    }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    public Class<?> getTargetClass() {
+        return targetClass;
+    }
+
+    @Override
+    public String toString() {
+        return "metadata:{" + targetClass.getName() + ", " + classAnnotations.length + " annotations}";
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2015-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.di.core.factory.annohandler;
+
+import java.lang.annotation.Annotation;
+
+import org.lastaflute.di.Disposable;
+import org.lastaflute.di.DisposableUtil;
+
+/**
+ * The cache of annotation metadata per class, used by definition builders. <br>
+ * Meta-annotation lookup goes through the metadata of the annotation type, so it is memoized as well.
+ * @author jflute
+ */
+public class AnnotationMetadataFactory {
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    private static volatile boolean initialized;
+
+    // same policy as bean description cache, released with hot deploy class loader or by clear()
+    private static volatile ClassValue<AnnotationMetadata> metadataCache = newMetadataCache();
+
+    static {
+        initialize();
+    }
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    protected AnnotationMetadataFactory() {
+    }
+
+    // ===================================================================================
+    //                                                                            Metadata
+    //                                                                            ========
+    public static AnnotationMetadata getMetadata(Class<?> targetClass) {
+        if (!initialized) {
+            initialize();
+        }
+        return metadataCache.get(targetClass);
+    }
+
+    /**
+     * @param <ANNO> The type of meta-annotation.
+     * @param annotationType The type of annotation that may be annotated by the meta-annotation. (NotNull)
+     * @param metaAnnotationType The type of meta-annotation to find. (NotNull)
+     * @return The found meta-annotation. (NullAllowed: when not found)
+     */
+    public static <ANNO extends Annotation> ANNO getMetaAnnotation(Class<? extends Annotation> annotationType,
+            Class<ANNO> metaAnnotationType) {
+        return getMetadata(annotationType).getClassAnnotation(metaAnnotationType);
+    }
+
+    protected static ClassValue<AnnotationMetadata> newMetadataCache() {
+        return new ClassValue<AnnotationMetadata>() {
+            @Override
+            protected AnnotationMetadata computeValue(Class<?> type) {
+                return new AnnotationMetadata(type); // may be called concurrently but only one is used
+            }
+        };
+    }
+
+    // ===================================================================================
+    //                                                                          Initialize
+    //                                                                          ==========
+    public static void initialize() {
+        DisposableUtil.add(new Disposable() {
+            public void dispose() {
+                clear();
+            }
+        });
+        initialized = true;
+    }
+
+    public static void clear() {
+        metadataCache = newMetadataCache();
+        initialized = false;
+    }
+}
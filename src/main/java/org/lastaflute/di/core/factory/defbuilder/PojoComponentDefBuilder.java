@@ -21,6 +21,7 @@ import org.lastaflute.di.core.annotation.Component;
 import org.lastaflute.di.core.annotation.InstanceType;
 import org.lastaflute.di.core.assembler.AutoBindingDefFactory;
 import org.lastaflute.di.core.factory.annohandler.AnnotationHandler;
+import org.lastaflute.di.core.factory.annohandler.AnnotationMetadataFactory;
 import org.lastaflute.di.core.meta.AutoBindingDef;
 import org.lastaflute.di.core.meta.InstanceDef;
 import org.lastaflute.di.core.meta.impl.ComponentDefImpl;
@@ -37,7 +38,7 @@ public class PojoComponentDefBuilder implements ComponentDefBuilder {
 
     public ComponentDef createComponentDef(final AnnotationHandler annotationHandler, final Class<?> componentClass,
             final InstanceDef defaultInstanceDef, final AutoBindingDef defaultAutoBindingDef, final boolean defaultExternalBinding) {
-        final Component component = componentClass.getAnnotation(Component.class);
+        final Component component = AnnotationMetadataFactory.getMetadata(componentClass).getClassAnnotation(Component.class);
         if (component == null) {
             return null;
         }
@@ -48,6 +49,7 @@ public class PojoComponentDefBuilder implements ComponentDefBuilder {
         componentDef.setInstanceDef(getInstanceDef(component, defaultInstanceDef));
         componentDef.setAutoBindingDef(getAutoBindingDef(component, defaultAutoBindingDef));
         componentDef.setExternalBinding(component.externalBinding());
+        componentDef.setLazyInit(component.lazyInit());
         return componentDef;
     }
 
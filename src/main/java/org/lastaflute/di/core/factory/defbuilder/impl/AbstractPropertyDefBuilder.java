@@ -25,6 +25,8 @@ import org.lastaflute.di.core.assembler.BindingTypeDefFactory;
 import org.lastaflute.di.core.expression.ScriptingExpression;
 import org.lastaflute.di.core.factory.annohandler.AnnotationHandler;
 import org.lastaflute.di.core.factory.annohandler.AnnotationHandlerFactory;
+import org.lastaflute.di.core.factory.annohandler.AnnotationMetadata;
+import org.lastaflute.di.core.factory.annohandler.AnnotationMetadataFactory;
 import org.lastaflute.di.core.factory.defbuilder.PropertyDefBuilder;
 import org.lastaflute.di.core.meta.AccessTypeDef;
 import org.lastaflute.di.core.meta.InstanceDef;
@@ -52,13 +54,15 @@ public abstract class AbstractPropertyDefBuilder<ANNO extends Annotation> implem
             return null;
         }
         final Method method = propertyDesc.getWriteMethod();
-        final ANNO annotation = method.getAnnotation(getAnnotationType());
+        final AnnotationMetadata metadata = AnnotationMetadataFactory.getMetadata(beanDesc.getBeanClass());
+        final ANNO annotation = metadata.getMethodAnnotation(method, getAnnotationType());
         return annotation != null ? createPropertyDef(propertyDesc.getPropertyName(), AccessTypeDefFactory.PROPERTY, annotation) : null;
     }
 
     @Override
     public PropertyDef createPropertyDef(AnnotationHandler annotationHandler, BeanDesc beanDesc, Field field) { // #injection_point
-        final ANNO annotation = field.getAnnotation(getAnnotationType());
+        final AnnotationMetadata metadata = AnnotationMetadataFactory.getMetadata(beanDesc.getBeanClass());
+        final ANNO annotation = metadata.getFieldAnnotation(field, getAnnotationType());
         return annotation != null ? createPropertyDef(field.getName(), AccessTypeDefFactory.FIELD, annotation) : null;
     }
 
@@ -21,6 +21,8 @@ import java.lang.reflect.Modifier;
 import org.lastaflute.di.core.ComponentDef;
 import org.lastaflute.di.core.annotation.Aspect;
 import org.lastaflute.di.core.factory.annohandler.AnnotationHandler;
+import org.lastaflute.di.core.factory.annohandler.AnnotationMetadata;
+import org.lastaflute.di.core.factory.annohandler.AnnotationMetadataFactory;
 
 /**
  * @author modified by jflute (originated in Seasar)
@@ -41,7 +43,7 @@ public class AspectAnnotationAspectDefBuilder extends AbstractAspectDefBuilder {
             return;
         }
 
-        final Aspect aspect = componentClass.getAnnotation(Aspect.class);
+        final Aspect aspect = AnnotationMetadataFactory.getMetadata(componentClass).getClassAnnotation(Aspect.class);
         if (aspect != null) {
             String interceptor = aspect.value();
             String pointcut = aspect.pointcut();
@@ -58,16 +60,13 @@ public class AspectAnnotationAspectDefBuilder extends AbstractAspectDefBuilder {
             return;
         }
 
-        final Method[] methods = componentClass.getMethods();
-        for (final Method method : methods) {
-            if (method.isBridge() || method.isSynthetic()) {
-                continue;
-            }
+        final AnnotationMetadata metadata = AnnotationMetadataFactory.getMetadata(componentClass);
+        for (final Method method : metadata.getMethods()) { // already without bridge and synthetic
             final int modifiers = method.getModifiers();
             if (!Modifier.isPublic(modifiers) || Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers)) {
                 continue;
             }
-            final Aspect aspect = method.getAnnotation(Aspect.class);
+            final Aspect aspect = metadata.getMethodAnnotation(method, Aspect.class);
             if (aspect != null) {
                 String interceptor = aspect.value();
                 appendAspect(componentDef, interceptor, method);
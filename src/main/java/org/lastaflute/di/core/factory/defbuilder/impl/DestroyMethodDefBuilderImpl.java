@@ -21,6 +21,8 @@ import javax.annotation.PreDestroy;
 
 import org.lastaflute.di.core.ComponentDef;
 import org.lastaflute.di.core.exception.IllegalDestroyMethodAnnotationRuntimeException;
+import org.lastaflute.di.core.factory.annohandler.AnnotationMetadata;
+import org.lastaflute.di.core.factory.annohandler.AnnotationMetadataFactory;
 import org.lastaflute.di.core.factory.annohandler.AnnotationHandler;
 import org.lastaflute.di.core.factory.defbuilder.DestroyMethodDefBuilder;
 import org.lastaflute.di.core.meta.impl.DestroyMethodDefImpl;
@@ -36,11 +38,9 @@ public class DestroyMethodDefBuilderImpl implements DestroyMethodDefBuilder {
         if (componentClass == null) {
             return;
         }
-        for (final Method method : componentClass.getMethods()) {
-            if (method.isBridge() || method.isSynthetic()) {
-                continue;
-            }
-            final PreDestroy destroyMethod = method.getAnnotation(PreDestroy.class);
+        final AnnotationMetadata metadata = AnnotationMetadataFactory.getMetadata(componentClass);
+        for (final Method method : metadata.getMethods()) { // already without bridge and synthetic
+            final PreDestroy destroyMethod = metadata.getMethodAnnotation(method, PreDestroy.class);
             if (destroyMethod == null) {
                 continue;
             }
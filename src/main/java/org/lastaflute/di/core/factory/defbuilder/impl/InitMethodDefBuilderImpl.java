@@ -21,6 +21,8 @@ import javax.annotation.PostConstruct;
 
 import org.lastaflute.di.core.ComponentDef;
 import org.lastaflute.di.core.exception.IllegalInitMethodAnnotationRuntimeException;
+import org.lastaflute.di.core.factory.annohandler.AnnotationMetadata;
+import org.lastaflute.di.core.factory.annohandler.AnnotationMetadataFactory;
 import org.lastaflute.di.core.factory.annohandler.AnnotationHandler;
 import org.lastaflute.di.core.factory.defbuilder.InitMethodDefBuilder;
 import org.lastaflute.di.core.meta.impl.InitMethodDefImpl;
@@ -36,11 +38,9 @@ public class InitMethodDefBuilderImpl implements InitMethodDefBuilder {
         if (componentClass == null) {
             return;
         }
-        for (final Method method : componentClass.getMethods()) {
-            if (method.isBridge() || method.isSynthetic()) {
-                continue;
-            }
-            final PostConstruct initMethod = method.getAnnotation(PostConstruct.class);
+        final AnnotationMetadata metadata = AnnotationMetadataFactory.getMetadata(componentClass);
+        for (final Method method : metadata.getMethods()) { // already without bridge and synthetic
+            final PostConstruct initMethod = metadata.getMethodAnnotation(method, PostConstruct.class);
             if (initMethod == null) {
                 continue;
             }
@@ -28,6 +28,8 @@ import org.lastaflute.di.core.aop.impl.PointcutImpl;
 import org.lastaflute.di.core.expression.Expression;
 import org.lastaflute.di.core.factory.AspectDefFactory;
 import org.lastaflute.di.core.factory.annohandler.AnnotationHandler;
+import org.lastaflute.di.core.factory.annohandler.AnnotationMetadata;
+import org.lastaflute.di.core.factory.annohandler.AnnotationMetadataFactory;
 import org.lastaflute.di.core.meta.AspectDef;
 import org.lastaflute.di.core.meta.impl.AspectDefImpl;
 import org.lastaflute.di.helper.beans.BeanDesc;
@@ -128,9 +130,9 @@ public class MetaAnnotationAspectDefBuilder extends AbstractAspectDefBuilder {
      * @param componentClass
      */
     protected void processClass(final ComponentDef componentDef, final Class<?> componentClass) {
-        for (final Annotation annotation : componentClass.getAnnotations()) {
+        for (final Annotation annotation : AnnotationMetadataFactory.getMetadata(componentClass).getClassAnnotations()) {
             final Class<? extends Annotation> annotationType = annotation.annotationType();
-            final Annotation metaAnnotation = annotationType.getAnnotation(getMetaAnnotationType());
+            final Annotation metaAnnotation = AnnotationMetadataFactory.getMetaAnnotation(annotationType, getMetaAnnotationType());
             if (metaAnnotation == null) {
                 continue;
             }
@@ -149,17 +151,15 @@ public class MetaAnnotationAspectDefBuilder extends AbstractAspectDefBuilder {
      * @param componentClass
      */
     protected void processMethod(final ComponentDef componentDef, final Class<?> componentClass) {
-        for (final Method method : componentClass.getMethods()) {
-            if (method.isBridge() || method.isSynthetic()) {
-                continue;
-            }
+        final AnnotationMetadata metadata = AnnotationMetadataFactory.getMetadata(componentClass);
+        for (final Method method : metadata.getMethods()) { // already without bridge and synthetic
             final int modifiers = method.getModifiers();
             if (!Modifier.isPublic(modifiers) || Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers)) {
                 continue;
             }
-            for (final Annotation annotation : method.getAnnotations()) {
+            for (final Annotation annotation : metadata.getMethodAnnotations(method)) {
                 final Class<? extends Annotation> annotationType = annotation.annotationType();
-                final Annotation metaAnnotation = annotationType.getAnnotation(getMetaAnnotationType());
+                final Annotation metaAnnotation = AnnotationMetadataFactory.getMetaAnnotation(annotationType, getMetaAnnotationType());
                 if (metaAnnotation == null) {
                     continue;
                 }
@@ -175,10 +175,8 @@ public class MetaAnnotationAspectDefBuilder extends AbstractAspectDefBuilder {
      * @return 
      */
     protected String getPointcut(final Annotation annotation) {
-        for (final Method method : annotation.getClass().getMethods()) {
-            if (method.isBridge() || method.isSynthetic()) {
-                continue;
-            }
+        // attributes of annotation type instead of its proxy class, which has same invocation result
+        for (final Method method : AnnotationMetadataFactory.getMetadata(annotation.annotationType()).getMethods()) {
             if ("pointcut".equals(method.getName()) && method.getReturnType() == String.class) {
                 return String.class.cast(LdiMethodUtil.invoke(method, annotation, null));
             }
@@ -192,7 +190,7 @@ public class MetaAnnotationAspectDefBuilder extends AbstractAspectDefBuilder {
      */
     protected String getInterceptorName(final Annotation annotation) {
         final Class<? extends Annotation> annotationType = annotation.annotationType();
-        final Interceptor interceptor = annotationType.getAnnotation(Interceptor.class);
+        final Interceptor interceptor = AnnotationMetadataFactory.getMetaAnnotation(annotationType, Interceptor.class);
         final String value = interceptor.value();
         if (!LdiStringUtil.isEmpty(value)) {
             return value;
@@ -221,10 +219,7 @@ public class MetaAnnotationAspectDefBuilder extends AbstractAspectDefBuilder {
         public Object evaluate(Map<String, ? extends Object> context, LaContainer container, Class<?> conversionType) {
             final MethodInterceptor interceptor = MethodInterceptor.class.cast(container.getComponent(getInterceptorName(annotation)));
             final BeanDesc beanDesc = BeanDescFactory.getBeanDesc(interceptor.getClass());
-            for (final Method method : annotation.annotationType().getMethods()) {
-                if (method.isBridge() || method.isSynthetic()) {
-                    continue;
-                }
+            for (final Method method : AnnotationMetadataFactory.getMetadata(annotation.annotationType()).getMethods()) {
                 final String propertyName = method.getName();
                 if ("pointcut".equals(propertyName) || !beanDesc.hasPropertyDesc(propertyName)) {
                     continue;
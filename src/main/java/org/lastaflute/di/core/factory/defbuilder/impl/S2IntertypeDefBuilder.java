@@ -19,6 +19,7 @@ import org.lastaflute.di.core.ComponentDef;
 import org.lastaflute.di.core.annotation.InterType;
 import org.lastaflute.di.core.expression.ScriptingExpression;
 import org.lastaflute.di.core.factory.annohandler.AnnotationHandler;
+import org.lastaflute.di.core.factory.annohandler.AnnotationMetadataFactory;
 import org.lastaflute.di.core.factory.defbuilder.IntertypeDefBuilder;
 import org.lastaflute.di.core.meta.InterTypeDef;
 import org.lastaflute.di.core.meta.impl.InterTypeDefImpl;
@@ -34,7 +35,7 @@ public class S2IntertypeDefBuilder implements IntertypeDefBuilder {
             return;
         }
 
-        final InterType interType = componentClass.getAnnotation(InterType.class);
+        final InterType interType = AnnotationMetadataFactory.getMetadata(componentClass).getClassAnnotation(InterType.class);
         if (interType != null) {
             for (String interTypeName : interType.value()) {
                 final InterTypeDef interTypeDef = new InterTypeDefImpl();
@@ -45,6 +45,11 @@ import org.lastaflute.di.core.util.PropertyDefSupport;
  */
 public class ComponentDefImpl implements ComponentDef, ContainerConstants {
 
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    private static final MetaDef[] EMPTY_META_DEFS = new MetaDef[0];
+
     // ===================================================================================
     //                                                                           Attribute
     //                                                                           =========
@@ -53,17 +58,19 @@ public class ComponentDefImpl implements ComponentDef, ContainerConstants {
     private Class<?> concreteClass;
     private LaContainer container;
     private Expression expression;
-    private ArgDefSupport argDefSupport = new ArgDefSupport();
-    private PropertyDefSupport propertyDefSupport = new PropertyDefSupport();
-    private InitMethodDefSupport initMethodDefSupport = new InitMethodDefSupport();
-    private DestroyMethodDefSupport destroyMethodDefSupport = new DestroyMethodDefSupport();
-    private AspectDefSupport aspectDefSupport = new AspectDefSupport();
-    private InterTypeDefSupport interTypeDefSupport = new InterTypeDefSupport();
-    private MetaDefSupport metaDefSupport = new MetaDefSupport();
+    // supports are lazy-loaded for compact memory (many components have no definition), null means empty
+    private ArgDefSupport argDefSupport;
+    private PropertyDefSupport propertyDefSupport;
+    private InitMethodDefSupport initMethodDefSupport;
+    private DestroyMethodDefSupport destroyMethodDefSupport;
+    private AspectDefSupport aspectDefSupport;
+    private InterTypeDefSupport interTypeDefSupport;
+    private MetaDefSupport metaDefSupport;
     private InstanceDef instanceDef = InstanceDefFactory.SINGLETON;
     private AutoBindingDef autoBindingDef = AutoBindingDefFactory.AUTO;
-    private ComponentDeployer componentDeployer;
+    private volatile ComponentDeployer componentDeployer; // lazy-loaded, only one per definition even if concurrent
     private boolean externalBinding = false;
+    private boolean lazyInit = false;
 
     // ===================================================================================
     //                                                                         Constructor
@@ -124,65 +131,95 @@ public class ComponentDefImpl implements ComponentDef, ContainerConstants {
     //                                                                    Support Delegate
     //                                                                    ================
     public void addArgDef(ArgDef argDef) {
+        if (argDefSupport == null) {
+            argDefSupport = new ArgDefSupport();
+            argDefSupport.setContainer(container);
+        }
         argDefSupport.addArgDef(argDef);
     }
 
     public void addPropertyDef(PropertyDef propertyDef) {
+        if (propertyDefSupport == null) {
+            propertyDefSupport = new PropertyDefSupport();
+            propertyDefSupport.setContainer(container);
+        }
         propertyDefSupport.addPropertyDef(propertyDef);
     }
 
     public void addInitMethodDef(InitMethodDef methodDef) {
+        if (initMethodDefSupport == null) {
+            initMethodDefSupport = new InitMethodDefSupport();
+            initMethodDefSupport.setContainer(container);
+        }
         initMethodDefSupport.addInitMethodDef(methodDef);
     }
 
     public void addDestroyMethodDef(DestroyMethodDef methodDef) {
+        if (destroyMethodDefSupport == null) {
+            destroyMethodDefSupport = new DestroyMethodDefSupport();
+            destroyMethodDefSupport.setContainer(container);
+        }
         destroyMethodDefSupport.addDestroyMethodDef(methodDef);
     }
 
     public void addAspectDef(AspectDef aspectDef) {
-        aspectDefSupport.addAspectDef(aspectDef);
+        prepareAspectDefSupport().addAspectDef(aspectDef);
         concreteClass = null;
     }
 
     public void addAspectDef(int index, AspectDef aspectDef) {
-        aspectDefSupport.addAspectDef(index, aspectDef);
+        prepareAspectDefSupport().addAspectDef(index, aspectDef);
         concreteClass = null;
     }
 
+    protected AspectDefSupport prepareAspectDefSupport() {
+        if (aspectDefSupport == null) {
+            aspectDefSupport = new AspectDefSupport();
+            aspectDefSupport.setContainer(container);
+        }
+        return aspectDefSupport;
+    }
+
     public void addInterTypeDef(InterTypeDef interTypeDef) {
+        if (interTypeDefSupport == null) {
+            interTypeDefSupport = new InterTypeDefSupport();
+            interTypeDefSupport.setContainer(container);
+        }
         interTypeDefSupport.addInterTypeDef(interTypeDef);
         concreteClass = null;
     }
 
     public int getArgDefSize() {
-        return argDefSupport.getArgDefSize();
+        return argDefSupport != null ? argDefSupport.getArgDefSize() : 0;
     }
 
     public int getPropertyDefSize() {
-        return propertyDefSupport.getPropertyDefSize();
+        return propertyDefSupport != null ? propertyDefSupport.getPropertyDefSize() : 0;
     }
 
     public int getInitMethodDefSize() {
-        return initMethodDefSupport.getInitMethodDefSize();
+        return initMethodDefSupport != null ? initMethodDefSupport.getInitMethodDefSize() : 0;
     }
 
     public int getDestroyMethodDefSize() {
-        return destroyMethodDefSupport.getDestroyMethodDefSize();
+        return destroyMethodDefSupport != null ? destroyMethodDefSupport.getDestroyMethodDefSize() : 0;
     }
 
     public int getAspectDefSize() {
-        return aspectDefSupport.getAspectDefSize();
+        return aspectDefSupport != null ? aspectDefSupport.getAspectDefSize() : 0;
     }
 
     public int getInterTypeDefSize() {
-        return interTypeDefSupport.getInterTypeDefSize();
+        return interTypeDefSupport != null ? interTypeDefSupport.getInterTypeDefSize() : 0;
     }
 
     public ArgDef getArgDef(int index) {
+        assertSupportExists(argDefSupport, index);
         return argDefSupport.getArgDef(index);
     }
 
     public PropertyDef getPropertyDef(int index) {
+        assertSupportExists(propertyDefSupport, index);
         return propertyDefSupport.getPropertyDef(index);
     }
 
@@ -196,50 +233,72 @@ public class ComponentDefImpl implements ComponentDef, ContainerConstants {
     }
 
     public boolean hasPropertyDef(String propertyName) {
-        return propertyDefSupport.hasPropertyDef(propertyName);
+        return propertyDefSupport != null && propertyDefSupport.hasPropertyDef(propertyName);
     }
 
     public InitMethodDef getInitMethodDef(int index) {
+        assertSupportExists(initMethodDefSupport, index);
         return initMethodDefSupport.getInitMethodDef(index);
     }
 
     public DestroyMethodDef getDestroyMethodDef(int index) {
+        assertSupportExists(destroyMethodDefSupport, index);
         return destroyMethodDefSupport.getDestroyMethodDef(index);
     }
 
     public AspectDef getAspectDef(int index) {
+        assertSupportExists(aspectDefSupport, index);
         return aspectDefSupport.getAspectDef(index);
     }
 
     public InterTypeDef getInterTypeDef(int index) {
+        assertSupportExists(interTypeDefSupport, index);
         return interTypeDefSupport.getInterTypeDef(index);
     }
 
     public void addMetaDef(MetaDef metaDef) {
+        if (metaDefSupport == null) {
+            metaDefSupport = new MetaDefSupport(container);
+        }
         metaDefSupport.addMetaDef(metaDef);
     }
 
     public MetaDef getMetaDef(int index) {
+        assertSupportExists(metaDefSupport, index);
         return metaDefSupport.getMetaDef(index);
     }
 
     public MetaDef getMetaDef(String name) {
-        return metaDefSupport.getMetaDef(name);
+        return metaDefSupport != null ? metaDefSupport.getMetaDef(name) : null;
     }
 
     public MetaDef[] getMetaDefs(String name) {
-        return metaDefSupport.getMetaDefs(name);
+        return metaDefSupport != null ? metaDefSupport.getMetaDefs(name) : EMPTY_META_DEFS;
     }
 
     public int getMetaDefSize() {
-        return metaDefSupport.getMetaDefSize();
+        return metaDefSupport != null ? metaDefSupport.getMetaDefSize() : 0;
+    }
+
+    protected void assertSupportExists(Object support, int index) { // same exception as empty list
+        if (support == null) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: 0");
+        }
     }
 
     public ComponentDeployer getComponentDeployer() {
-        if (componentDeployer == null) {
-            componentDeployer = instanceDef.createComponentDeployer(this);
+        ComponentDeployer deployer = componentDeployer;
+        if (deployer != null) {
+            return deployer;
+        }
+        synchronized (this) {
+            deployer = componentDeployer;
+            if (deployer == null) { // two deployers mean two singletons
+                deployer = instanceDef.createComponentDeployer(this);
+                componentDeployer = deployer;
+            }
+            return deployer;
         }
-        return componentDeployer;
     }
 
     // ===================================================================================
@@ -293,13 +352,27 @@ public class ComponentDefImpl implements ComponentDef, ContainerConstants {
 
     public void setContainer(LaContainer container) {
         this.container = container;
-        argDefSupport.setContainer(container);
-        metaDefSupport.setContainer(container);
-        propertyDefSupport.setContainer(container);
-        initMethodDefSupport.setContainer(container);
-        destroyMethodDefSupport.setContainer(container);
-        aspectDefSupport.setContainer(container);
-        interTypeDefSupport.setContainer(container);
+        if (argDefSupport != null) {
+            argDefSupport.setContainer(container);
+        }
+        if (metaDefSupport != null) {
+            metaDefSupport.setContainer(container);
+        }
+        if (propertyDefSupport != null) {
+            propertyDefSupport.setContainer(container);
+        }
+        if (initMethodDefSupport != null) {
+            initMethodDefSupport.setContainer(container);
+        }
+        if (destroyMethodDefSupport != null) {
+            destroyMethodDefSupport.setContainer(container);
+        }
+        if (aspectDefSupport != null) {
+            aspectDefSupport.setContainer(container);
+        }
+        if (interTypeDefSupport != null) {
+            interTypeDefSupport.setContainer(container);
+        }
     }
 
     public Expression getExpression() {
@@ -333,4 +406,12 @@ public class ComponentDefImpl implements ComponentDef, ContainerConstants {
     public void setExternalBinding(boolean externalBinding) {
         this.externalBinding = externalBinding;
     }
+
+    public boolean isLazyInit() {
+        return lazyInit;
+    }
+
+    public void setLazyInit(boolean lazyInit) {
+        this.lazyInit = lazyInit;
+    }
 }
\ No newline at end of file
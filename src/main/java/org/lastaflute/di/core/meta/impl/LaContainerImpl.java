@@ -23,17 +23,21 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.lastaflute.di.core.ComponentDef;
 import org.lastaflute.di.core.ContainerConstants;
 import org.lastaflute.di.core.ExternalContext;
 import org.lastaflute.di.core.LaContainer;
+import org.lastaflute.di.core.LastaDiProperties;
 import org.lastaflute.di.core.exception.ContainerNotRegisteredRuntimeException;
 import org.lastaflute.di.core.exception.CyclicReferenceComponentException;
 import org.lastaflute.di.core.external.ExternalContextComponentDefRegister;
 import org.lastaflute.di.core.meta.MetaDef;
 import org.lastaflute.di.core.meta.TooManyRegistrationComponentDef;
 import org.lastaflute.di.core.util.ComponentUtil;
+import org.lastaflute.di.core.util.LazySingletonUtil;
 import org.lastaflute.di.core.util.MetaDefSupport;
 import org.lastaflute.di.core.util.Traversal;
 import org.lastaflute.di.exception.ContainerInitFailureException;
@@ -52,6 +56,7 @@ import javassist.util.proxy.ProxyFactory.ClassLoaderProvider;
 public class LaContainerImpl implements LaContainer, ContainerConstants {
 
     private static final LaLogger logger = LaLogger.getLogger(LaContainerImpl.class);
+    protected static final ComponentDef[] EMPTY_COMPONENT_DEFS = new ComponentDef[0];
 
     protected Map<Object, ComponentDefHolder> componentDefMap = new HashMap<Object, ComponentDefHolder>();
     protected List<ComponentDef> componentDefList = new ArrayList<ComponentDef>();
@@ -69,6 +74,12 @@ public class LaContainerImpl implements LaContainer, ContainerConstants {
     protected boolean inited = false;
     protected ClassLoader classLoader = null;
 
+    // frozen index of findAllComponentDefs() after initialization, switched to new instance after registration
+    protected volatile Map<Object, ComponentDef[]> allComponentDefsIndex = newAllComponentDefsIndex();
+
+    // incremented after registration to this container or descendants, for cached resolution e.g. injection plan
+    protected final AtomicLong registrationVersion = new AtomicLong();
+
     static {
         Desc.useContextClassLoader = true;
         ProxyFactory.classLoaderProvider = new ClassLoaderProvider() {
@@ -110,7 +121,7 @@ public class LaContainerImpl implements LaContainer, ContainerConstants {
 
     public Object[] findAllComponents(Object componentKey) throws CyclicReferenceComponentException {
         assertParameterIsNotNull(componentKey, "componentKey");
-        ComponentDef[] componentDefs = findAllComponentDefs(componentKey);
+        ComponentDef[] componentDefs = findAllComponentDefsIndexed(componentKey); // shared array, read only here
         return toComponentArray(componentKey, componentDefs);
     }
 
@@ -217,22 +228,21 @@ public class LaContainerImpl implements LaContainer, ContainerConstants {
 
     public void registerMap(Object key, ComponentDef componentDef, LaContainer container) {
         int position = getContainerPosition(container);
-        ComponentDefHolder holder = (ComponentDefHolder) componentDefMap.get(key);
-        if (holder == null) {
+        final ComponentDefHolder existing = (ComponentDefHolder) componentDefMap.get(key);
+        final ComponentDefHolder holder; // immutable, replaced for lock-free lookup of thread-safe container
+        if (existing == null) {
             holder = new ComponentDefHolder(position, componentDef);
-            componentDefMap.put(key, holder);
-        } else if (position > holder.getPosition()) {
+        } else if (position > existing.getPosition()) {
             return;
-        } else if (position < holder.getPosition()) {
-            holder.setPosition(position);
-            holder.setComponentDef(componentDef);
-        } else if (container != this) {
-            holder.setComponentDef(componentDef);
+        } else if (position < existing.getPosition() || container != this) {
+            holder = new ComponentDefHolder(position, componentDef);
         } else {
-            holder.setComponentDef(createTooManyRegistration(key, holder.getComponentDef(), componentDef));
+            holder = new ComponentDefHolder(position, createTooManyRegistration(key, existing.getComponentDef(), componentDef));
         }
+        componentDefMap.put(key, holder);
 
         registerParent(key, holder.getComponentDef());
+        clearAllComponentDefsIndex(); // after registration, collection with old definitions goes to old index
     }
 
     protected void registerParent(Object key, ComponentDef componentDef) { // for performacen when deep nest
@@ -266,6 +276,24 @@ public class LaContainerImpl implements LaContainer, ContainerConstants {
 
     public ComponentDef[] findAllComponentDefs(final Object componentKey) {
         assertParameterIsNotNull(componentKey, "componentKey");
+        final ComponentDef[] componentDefs = findAllComponentDefsIndexed(componentKey);
+        return componentDefs.length > 0 ? componentDefs.clone() : componentDefs; // not to break the index
+    }
+
+    protected ComponentDef[] findAllComponentDefsIndexed(Object componentKey) { // returns shared array
+        if (!inited) { // registration may be going on
+            return collectAllComponentDefs(componentKey);
+        }
+        final Map<Object, ComponentDef[]> index = allComponentDefsIndex; // may be switched by other thread
+        ComponentDef[] componentDefs = index.get(componentKey);
+        if (componentDefs == null) {
+            componentDefs = collectAllComponentDefs(componentKey);
+            index.put(componentKey, componentDefs); // simply ignored if the index has been switched
+        }
+        return componentDefs;
+    }
+
+    protected ComponentDef[] collectAllComponentDefs(final Object componentKey) {
         final List<ComponentDef> componentDefs = new ArrayList<ComponentDef>();
         Traversal.forEachContainer(this, new Traversal.S2ContainerHandler() {
             public Object processContainer(LaContainer container) {
@@ -273,20 +301,52 @@ public class LaContainerImpl implements LaContainer, ContainerConstants {
                 return null;
             }
         });
+        if (componentDefs.isEmpty()) {
+            return EMPTY_COMPONENT_DEFS;
+        }
         return (ComponentDef[]) componentDefs.toArray(new ComponentDef[componentDefs.size()]);
     }
 
+    protected void clearAllComponentDefsIndex() { // also ancestors because they traverse this container
+        if (allComponentDefsIndex == null) { // already destroyed
+            return;
+        }
+        // always switched even if empty, a reader may be collecting to put it into the current index
+        allComponentDefsIndex = newAllComponentDefsIndex();
+        registrationVersion.incrementAndGet();
+        if (parents != null) {
+            for (LaContainer parent : parents) {
+                if (parent instanceof LaContainerImpl) {
+                    ((LaContainerImpl) parent).clearAllComponentDefsIndex();
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the version of registration, changed when components are registered to this container or descendants. <br>
+     * Resolution cached by the version should be resolved again if the version is changed.
+     * @return The number of registration version. (NotMinus)
+     */
+    public long getRegistrationVersion() {
+        return registrationVersion.get();
+    }
+
+    protected Map<Object, ComponentDef[]> newAllComponentDefsIndex() {
+        return new ConcurrentHashMap<Object, ComponentDef[]>();
+    }
+
     public ComponentDef[] findLocalComponentDefs(Object componentKey) {
         ComponentDefHolder holder = (ComponentDefHolder) componentDefMap.get(componentKey);
         if (holder == null || holder.getPosition() > 0) {
-            return new ComponentDef[0];
+            return EMPTY_COMPONENT_DEFS;
         }
         return toComponentDefArray(holder.getComponentDef());
     }
 
     protected ComponentDef[] toComponentDefArray(ComponentDef cd) {
         if (cd == null) {
-            return new ComponentDef[0];
+            return EMPTY_COMPONENT_DEFS;
         } else if (cd instanceof TooManyRegistrationComponentDefImpl) {
             return ((TooManyRegistrationComponentDefImpl) cd).getComponentDefs();
         }
@@ -341,6 +401,7 @@ public class LaContainerImpl implements LaContainer, ContainerConstants {
         childPositions.put(child, new Integer(children.size()));
         child.setRoot(getRoot());
         child.addParent(this);
+        clearAllComponentDefsIndex();
     }
 
     protected int getContainerPosition(LaContainer container) {
@@ -430,15 +491,48 @@ public class LaContainerImpl implements LaContainer, ContainerConstants {
             for (int i = 0; i < getChildSize(); ++i) {
                 getChild(i).init();
             }
-            for (int i = 0; i < getComponentDefSize(); ++i) {
-                getComponentDef(i).init();
-            }
+            initComponentDefs();
             inited = true;
         } finally {
             Thread.currentThread().setContextClassLoader(currentLoader);
         }
     }
 
+    protected void initComponentDefs() {
+        final int size = getComponentDefSize();
+        if (size > 1 && isParallelComponentInit()) {
+            final List<ComponentDef> componentDefList = new ArrayList<ComponentDef>(size);
+            for (int i = 0; i < size; ++i) {
+                componentDefList.add(getComponentDef(i));
+            }
+            newParallelComponentInitializer().initialize(componentDefList);
+        } else {
+            for (int i = 0; i < size; ++i) {
+                getComponentDef(i).init();
+            }
+        }
+    }
+
+    // destroy order is not changed by parallel initialization, always reverse of registration
+    protected boolean isParallelComponentInit() {
+        return isParallelComponentInitEnabled() && isLazyRegistrationFree();
+    }
+
+    protected boolean isParallelComponentInitEnabled() {
+        return LastaDiProperties.getInstance().isContainerParallelComponentInit();
+    }
+
+    // behavior of smart deploy (e.g. warm, hot) registers definitions to root container at lookup,
+    // which conflicts with lookup by other worker threads (definition map is not thread-safe),
+    // so parallel only when definitions are not changed by lookup (e.g. cool deploy)
+    protected boolean isLazyRegistrationFree() {
+        return LaContainerBehavior.getProvider().getClass() == LaContainerBehavior.DefaultProvider.class;
+    }
+
+    protected ParallelComponentInitializer newParallelComponentInitializer() {
+        return new ParallelComponentInitializer(classLoader, Runtime.getRuntime().availableProcessors());
+    }
+
     protected void throwContainerInitFailureException(Throwable cause) {
         if (cause instanceof ContainerInitFailureException) { // means nested exception
             throw (ContainerInitFailureException) cause;
@@ -470,6 +564,12 @@ public class LaContainerImpl implements LaContainer, ContainerConstants {
         if (!inited) {
             return;
         }
+        if (getRoot() == this && logger.isDebugEnabled()) { // before destroyed
+            final String report = LazySingletonUtil.buildNeverMaterializedReport(this);
+            if (report != null) {
+                logger.debug(report);
+            }
+        }
         final ClassLoader currentLoader = Thread.currentThread().getContextClassLoader();
         Thread.currentThread().setContextClassLoader(classLoader);
         try {
@@ -496,6 +596,7 @@ public class LaContainerImpl implements LaContainer, ContainerConstants {
             externalContextComponentDefRegister = null;
             metaDefSupport = null;
             classLoader = null;
+            allComponentDefsIndex = null;
             root = this;
             inited = false;
         } finally {
@@ -507,15 +608,17 @@ public class LaContainerImpl implements LaContainer, ContainerConstants {
     //                                                                       Assert Helper
     //                                                                       =============
     public static ComponentDef createTooManyRegistration(Object key, ComponentDef currentComponentDef, ComponentDef newComponentDef) {
+        // always new instance (copy-on-write) because the current one may be read without lock
+        final TooManyRegistrationComponentDef tmrcf = new TooManyRegistrationComponentDefImpl(key);
         if (currentComponentDef instanceof TooManyRegistrationComponentDef) {
-            ((TooManyRegistrationComponentDef) currentComponentDef).addComponentDef(newComponentDef);
-            return currentComponentDef;
+            for (ComponentDef registered : ((TooManyRegistrationComponentDef) currentComponentDef).getComponentDefs()) {
+                tmrcf.addComponentDef(registered);
+            }
         } else {
-            TooManyRegistrationComponentDef tmrcf = new TooManyRegistrationComponentDefImpl(key);
             tmrcf.addComponentDef(currentComponentDef);
-            tmrcf.addComponentDef(newComponentDef);
-            return tmrcf;
         }
+        tmrcf.addComponentDef(newComponentDef);
+        return tmrcf;
     }
 
     /**
@@ -540,8 +643,9 @@ public class LaContainerImpl implements LaContainer, ContainerConstants {
 
     static class ComponentDefHolder {
 
-        private int position;
-        private ComponentDef componentDef;
+        // immutable for lock-free lookup of thread-safe container, replaced when registration
+        private final int position;
+        private final ComponentDef componentDef;
 
         public ComponentDefHolder(int position, ComponentDef componentDef) {
             this.position = position;
@@ -552,17 +656,9 @@ public class LaContainerImpl implements LaContainer, ContainerConstants {
             return position;
         }
 
-        public void setPosition(int position) {
-            this.position = position;
-        }
-
         public ComponentDef getComponentDef() {
             return componentDef;
         }
-
-        public void setComponentDef(ComponentDef componentDef) {
-            this.componentDef = componentDef;
-        }
     }
 
     // ===================================================================================
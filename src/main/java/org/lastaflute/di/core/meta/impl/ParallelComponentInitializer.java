@@ -0,0 +1,433 @@
+/*
+ * Copyright 2015-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.di.core.meta.impl;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.lastaflute.di.core.ComponentDef;
+import org.lastaflute.di.core.meta.ArgDef;
+import org.lastaflute.di.core.meta.InitMethodDef;
+import org.lastaflute.di.core.meta.InstanceDef;
+import org.lastaflute.di.core.meta.PropertyDef;
+import org.lastaflute.di.helper.beans.BeanDesc;
+import org.lastaflute.di.helper.beans.PropertyDesc;
+import org.lastaflute.di.helper.beans.factory.BeanDescFactory;
+import org.lastaflute.di.helper.log.LaLogger;
+import org.lastaflute.di.helper.misc.LdiExceptionMessageBuilder;
+
+/**
+ * The initializer of singleton components in parallel along their dependency graph. <br>
+ * Dependencies are estimated from constructor parameters, properties and fields (by type or name).
+ * The whole initialization has timeout so that mutual waiting in init methods is reported as failure.
+ * A component whose dependencies cannot be estimated (e.g. expression) waits for all previous components as serial way,
+ * and components in the same cycle are initialized by one thread in registration order,
+ * so cyclic reference detection works as well as serial way. <br>
+ * It is used only when lookup does not register definitions (e.g. cool deploy),
+ * because lazy registration of warm or hot deploy changes definitions of root container while other workers look them up.
+ * @author jflute
+ */
+public class ParallelComponentInitializer {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    private static final LaLogger logger = LaLogger.getLogger(ParallelComponentInitializer.class);
+    protected static final long DEFAULT_TIMEOUT_MILLIS = 10 * 60 * 1000L; // too long for normal init, means stuck
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final ClassLoader classLoader; // null allowed, context class loader of initialization
+    protected final int threadCount; // positive
+    protected final long timeoutMillis; // positive, for whole initialization
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    public ParallelComponentInitializer(ClassLoader classLoader, int threadCount) {
+        this(classLoader, threadCount, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    public ParallelComponentInitializer(ClassLoader classLoader, int threadCount, long timeoutMillis) {
+        this.classLoader = classLoader;
+        this.threadCount = threadCount;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    // ===================================================================================
+    //                                                                          Initialize
+    //                                                                          ==========
+    /**
+     * @param componentDefList The list of component definitions in registration order. (NotNull)
+     */
+    public void initialize(List<ComponentDef> componentDefList) {
+        final List<ComponentNode> nodeList = new ArrayList<ComponentNode>();
+        for (ComponentDef componentDef : componentDefList) {
+            if (isParallelTarget(componentDef)) {
+                componentDef.getConcreteClass(); // e.g. AOP weaving, serial way here
+                ((ComponentDefImpl) componentDef).getComponentDeployer(); // not to be created by several threads
+                nodeList.add(new ComponentNode(nodeList.size(), componentDef));
+            } else { // e.g. prototype, light-weight so immediately
+                componentDef.init();
+            }
+        }
+        if (nodeList.isEmpty()) {
+            return;
+        }
+        final long before = System.currentTimeMillis();
+        setupDependency(nodeList);
+        final List<List<ComponentNode>> groupList = extractCycleGroupList(nodeList);
+        executeInitialization(groupList);
+        if (logger.isDebugEnabled()) {
+            final long cost = System.currentTimeMillis() - before;
+            final String exp = nodeList.size() + " components (" + groupList.size() + " groups)";
+            logger.debug("...Initializing " + exp + " in parallel: " + cost + "ms");
+        }
+    }
+
+    protected boolean isParallelTarget(ComponentDef componentDef) {
+        return componentDef instanceof ComponentDefImpl // deployer is prepared here
+                && componentDef.getComponentClass() != null // e.g. expression only
+                && InstanceDef.SINGLETON_NAME.equals(componentDef.getInstanceDef().getName());
+    }
+
+    // ===================================================================================
+    //                                                                          Dependency
+    //                                                                          ==========
+    protected void setupDependency(List<ComponentNode> nodeList) {
+        final Map<Class<?>, List<ComponentNode>> typeMap = new HashMap<Class<?>, List<ComponentNode>>();
+        final Map<String, ComponentNode> nameMap = new HashMap<String, ComponentNode>();
+        for (ComponentNode node : nodeList) {
+            final ComponentDef componentDef = node.componentDef;
+            registerTypeIndex(typeMap, componentDef.getComponentClass(), node);
+            final String componentName = componentDef.getComponentName();
+            if (componentName != null && !nameMap.containsKey(componentName)) {
+                nameMap.put(componentName, node);
+            }
+        }
+        for (ComponentNode node : nodeList) {
+            if (isDependencyUnknown(node.componentDef)) {
+                node.dependencySet.addAll(nodeList.subList(0, node.index)); // as serial way
+                continue;
+            }
+            final Class<?> componentClass = node.componentDef.getComponentClass();
+            for (Constructor<?> constructor : componentClass.getConstructors()) {
+                for (Class<?> parameterType : constructor.getParameterTypes()) {
+                    addDependency(node, typeMap, parameterType);
+                }
+            }
+            final BeanDesc beanDesc = BeanDescFactory.getBeanDesc(componentClass);
+            final int propertySize = beanDesc.getPropertyDescSize();
+            for (int i = 0; i < propertySize; i++) {
+                final PropertyDesc propertyDesc = beanDesc.getPropertyDesc(i);
+                if (propertyDesc.hasWriteMethod()) {
+                    addDependency(node, typeMap, propertyDesc.getPropertyType());
+                    addDependency(node, nameMap.get(propertyDesc.getPropertyName()));
+                }
+            }
+            final int fieldSize = beanDesc.getFieldSize();
+            for (int i = 0; i < fieldSize; i++) {
+                final Field field = beanDesc.getField(i);
+                addDependency(node, typeMap, field.getType());
+                addDependency(node, nameMap.get(field.getName()));
+            }
+        }
+    }
+
+    protected void registerTypeIndex(Map<Class<?>, List<ComponentNode>> typeMap, Class<?> type, ComponentNode node) {
+        if (type == null || type == Object.class) {
+            return;
+        }
+        final List<ComponentNode> registeredList = typeMap.computeIfAbsent(type, key -> new ArrayList<ComponentNode>(2));
+        if (registeredList.contains(node)) { // e.g. interface implemented twice in hierarchy
+            return;
+        }
+        registeredList.add(node);
+        registerTypeIndex(typeMap, type.getSuperclass(), node);
+        for (Class<?> interfaceType : type.getInterfaces()) {
+            registerTypeIndex(typeMap, interfaceType, node);
+        }
+    }
+
+    protected boolean isDependencyUnknown(ComponentDef componentDef) { // expression can refer anything
+        if (componentDef.getExpression() != null) {
+            return true;
+        }
+        for (int i = 0; i < componentDef.getArgDefSize(); i++) {
+            final ArgDef argDef = componentDef.getArgDef(i);
+            if (argDef.getExpression() != null) {
+                return true;
+            }
+        }
+        for (int i = 0; i < componentDef.getPropertyDefSize(); i++) {
+            final PropertyDef propertyDef = componentDef.getPropertyDef(i);
+            if (propertyDef.getExpression() != null) {
+                return true;
+            }
+        }
+        for (int i = 0; i < componentDef.getInitMethodDefSize(); i++) {
+            final InitMethodDef initMethodDef = componentDef.getInitMethodDef(i);
+            if (initMethodDef.getExpression() != null) {
+                return true;
+            }
+            for (int j = 0; j < initMethodDef.getArgDefSize(); j++) { // evaluated when init method is called
+                if (initMethodDef.getArgDef(j).getExpression() != null) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    protected void addDependency(ComponentNode node, Map<Class<?>, List<ComponentNode>> typeMap, Class<?> type) {
+        final Class<?> dependencyType = type.isArray() ? type.getComponentType() : type; // array means all components
+        final List<ComponentNode> foundList = typeMap.get(dependencyType);
+        if (foundList != null) {
+            for (ComponentNode found : foundList) {
+                addDependency(node, found);
+            }
+        }
+    }
+
+    protected void addDependency(ComponentNode node, ComponentNode found) {
+        if (found != null && found != node) {
+            node.dependencySet.add(found);
+        }
+    }
+
+    // ===================================================================================
+    //                                                                         Cycle Group
+    //                                                                         ===========
+    /**
+     * Extract strongly-connected groups by Tarjan's algorithm (without recursion for deep graph). <br>
+     * Groups are returned in dependency order, so dependencies of a group always precede the group.
+     * @param nodeList The list of nodes that have dependencies. (NotNull)
+     * @return The list of groups, nodes in a group are in registration order. (NotNull)
+     */
+    protected List<List<ComponentNode>> extractCycleGroupList(List<ComponentNode> nodeList) {
+        final List<List<ComponentNode>> groupList = new ArrayList<List<ComponentNode>>();
+        final Deque<ComponentNode> stack = new ArrayDeque<ComponentNode>();
+        final Deque<ComponentVisit> visitStack = new ArrayDeque<ComponentVisit>();
+        int visitCount = 0;
+        for (ComponentNode root : nodeList) {
+            if (root.visitIndex >= 0) {
+                continue;
+            }
+            visitStack.push(new ComponentVisit(root));
+            while (!visitStack.isEmpty()) {
+                final ComponentVisit visit = visitStack.peek();
+                final ComponentNode node = visit.node;
+                if (node.visitIndex < 0) {
+                    node.visitIndex = visitCount;
+                    node.lowLink = visitCount;
+                    ++visitCount;
+                    stack.push(node);
+                    node.onStack = true;
+                }
+                if (visit.dependencyIte.hasNext()) {
+                    final ComponentNode dependency = visit.dependencyIte.next();
+                    if (dependency.visitIndex < 0) {
+                        visitStack.push(new ComponentVisit(dependency));
+                    } else if (dependency.onStack) {
+                        node.lowLink = Math.min(node.lowLink, dependency.visitIndex);
+                    }
+                    continue;
+                }
+                visitStack.pop();
+                final ComponentVisit caller = visitStack.peek();
+                if (caller != null) {
+                    caller.node.lowLink = Math.min(caller.node.lowLink, node.lowLink);
+                }
+                if (node.lowLink == node.visitIndex) {
+                    final List<ComponentNode> group = new ArrayList<ComponentNode>();
+                    ComponentNode member;
+                    do {
+                        member = stack.pop();
+                        member.onStack = false;
+                        member.group = group;
+                        group.add(member);
+                    } while (member != node);
+                    group.sort((o1, o2) -> Integer.compare(o1.index, o2.index));
+                    groupList.add(group);
+                }
+            }
+        }
+        return groupList;
+    }
+
+    // ===================================================================================
+    //                                                                             Execute
+    //                                                                             =======
+    protected void executeInitialization(List<List<ComponentNode>> groupList) {
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(threadCount, groupList.size()), createThreadFactory());
+        final Map<Integer, Throwable> failureMap = new ConcurrentSkipListMap<Integer, Throwable>(); // key is index
+        final Map<Integer, ComponentNode> runningMap = new ConcurrentSkipListMap<Integer, ComponentNode>(); // for timeout
+        final long deadline = System.currentTimeMillis() + timeoutMillis;
+        try {
+            final Map<List<ComponentNode>, CompletableFuture<Void>> futureMap = new IdentityHashMap<List<ComponentNode>, CompletableFuture<Void>>();
+            for (List<ComponentNode> group : groupList) { // dependencies first
+                final Set<CompletableFuture<Void>> dependencyFutureSet = new LinkedHashSet<CompletableFuture<Void>>();
+                for (ComponentNode node : group) {
+                    for (ComponentNode dependency : node.dependencySet) {
+                        if (dependency.group != group) {
+                            dependencyFutureSet.add(futureMap.get(dependency.group));
+                        }
+                    }
+                }
+                final CompletableFuture<Void> ready = CompletableFuture.allOf(dependencyFutureSet.toArray(new CompletableFuture<?>[0]));
+                futureMap.put(group, ready.thenRunAsync(() -> initializeGroup(group, failureMap, runningMap), executor));
+            }
+            for (CompletableFuture<Void> future : futureMap.values()) {
+                try {
+                    future.get(Math.max(deadline - System.currentTimeMillis(), 0L), TimeUnit.MILLISECONDS);
+                } catch (ExecutionException ignored) { // failure of dependency, original failure is in map
+                } catch (TimeoutException e) { // e.g. deadlock by init method, workers are interrupted by shutdown
+                    throwParallelInitTimeoutException(futureMap, runningMap, e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted the parallel component initialization: " + groupList.size(), e);
+        } finally {
+            executor.shutdownNow();
+        }
+        if (!failureMap.isEmpty()) {
+            final Throwable cause = failureMap.values().iterator().next(); // first in registration order
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("Failed to initialize the components in parallel.", cause);
+        }
+    }
+
+    protected void throwParallelInitTimeoutException(Map<List<ComponentNode>, CompletableFuture<Void>> futureMap,
+            Map<Integer, ComponentNode> runningMap, TimeoutException cause) {
+        final List<ComponentNode> runningList = new ArrayList<ComponentNode>(runningMap.values()); // snapshot
+        int waitingCount = 0;
+        for (Map.Entry<List<ComponentNode>, CompletableFuture<Void>> entry : futureMap.entrySet()) {
+            if (!entry.getValue().isDone()) {
+                waitingCount += entry.getKey().size();
+            }
+        }
+        waitingCount -= runningList.size();
+        final LdiExceptionMessageBuilder br = new LdiExceptionMessageBuilder();
+        br.addNotice("Timeout of the parallel component initialization.");
+        br.addItem("Advice");
+        br.addElement("The components below are still initializing, they might wait for each other.");
+        br.addElement("Confirm their init methods, or set container.parallel.component.init false.");
+        br.addItem("Timeout");
+        br.addElement(timeoutMillis + "ms");
+        br.addItem("Initializing Component");
+        for (ComponentNode node : runningList) {
+            final ComponentDef componentDef = node.componentDef;
+            br.addElement(componentDef.getComponentClass().getName() + " (" + componentDef.getComponentName() + ")");
+        }
+        br.addItem("Waiting Count");
+        br.addElement(Math.max(waitingCount, 0));
+        final String msg = br.buildExceptionMessage();
+        throw new IllegalStateException(msg, cause);
+    }
+
+    protected void initializeGroup(List<ComponentNode> group, Map<Integer, Throwable> failureMap, Map<Integer, ComponentNode> runningMap) {
+        final Thread currentThread = Thread.currentThread();
+        final ClassLoader currentLoader = currentThread.getContextClassLoader();
+        currentThread.setContextClassLoader(classLoader);
+        try {
+            for (ComponentNode node : group) {
+                if (!failureMap.isEmpty()) { // stop as serial way
+                    return;
+                }
+                runningMap.put(node.index, node);
+                try {
+                    node.componentDef.init();
+                } catch (RuntimeException | Error e) {
+                    failureMap.put(node.index, e);
+                    throw e; // to skip dependents
+                } finally {
+                    runningMap.remove(node.index);
+                }
+            }
+        } finally {
+            currentThread.setContextClassLoader(currentLoader);
+        }
+    }
+
+    protected ThreadFactory createThreadFactory() {
+        final AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, "lasta_di-init-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true); // not to block shutdown if something wrong
+            return thread;
+        };
+    }
+
+    // ===================================================================================
+    //                                                                          Graph Node
+    //                                                                          ==========
+    protected static class ComponentNode {
+
+        protected final int index; // registration order in parallel targets
+        protected final ComponentDef componentDef; // not null
+        protected final Set<ComponentNode> dependencySet = new LinkedHashSet<ComponentNode>();
+        protected int visitIndex = -1; // for cycle group extraction
+        protected int lowLink;
+        protected boolean onStack;
+        protected List<ComponentNode> group; // set by extraction
+
+        public ComponentNode(int index, ComponentDef componentDef) {
+            this.index = index;
+            this.componentDef = componentDef;
+        }
+
+        @Override
+        public String toString() {
+            return "node:{" + index + ", " + componentDef + "}";
+        }
+    }
+
+    protected static class ComponentVisit {
+
+        protected final ComponentNode node;
+        protected final Iterator<ComponentNode> dependencyIte;
+
+        public ComponentVisit(ComponentNode node) {
+            this.node = node;
+            this.dependencyIte = node.dependencySet.iterator();
+        }
+    }
+}
@@ -127,6 +127,14 @@ public class SimpleComponentDef implements ComponentDef {
         throw new UnsupportedOperationException("setExternalBinding");
     }
 
+    public boolean isLazyInit() {
+        return false;
+    }
+
+    public void setLazyInit(boolean lazyInit) {
+        throw new UnsupportedOperationException("setLazyInit");
+    }
+
     public Expression getExpression() {
         return null;
     }
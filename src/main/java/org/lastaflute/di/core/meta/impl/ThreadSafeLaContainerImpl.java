@@ -15,6 +15,9 @@
  */
 package org.lastaflute.di.core.meta.impl;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
 import org.lastaflute.di.core.ComponentDef;
 import org.lastaflute.di.core.ExternalContext;
 import org.lastaflute.di.core.LaContainer;
@@ -26,6 +29,19 @@ import org.lastaflute.di.core.meta.MetaDef;
  */
 public class ThreadSafeLaContainerImpl extends LaContainerImpl {
 
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    public ThreadSafeLaContainerImpl() {
+        // lookup structures are concurrent so that component lookup (internalGetComponentDef(),
+        // findLocalComponentDefs(), findAllComponentDefs()) and traversal of children/parents
+        // need no root lock, registration and include are still serialized by the root lock
+        componentDefMap = new ConcurrentHashMap<Object, ComponentDefHolder>(componentDefMap);
+        children = new CopyOnWriteArrayList<LaContainer>(children);
+        childPositions = new ConcurrentHashMap<LaContainer, Integer>(childPositions);
+        parents = new CopyOnWriteArrayList<LaContainer>(parents);
+    }
+
     public void addMetaDef(final MetaDef metaDef) {
         synchronized (getRoot()) {
             super.addMetaDef(metaDef);
@@ -44,30 +60,6 @@ public class ThreadSafeLaContainerImpl extends LaContainerImpl {
         }
     }
 
-    public ComponentDef[] findAllComponentDefs(final Object componentKey) {
-        synchronized (getRoot()) {
-            return super.findAllComponentDefs(componentKey);
-        }
-    }
-
-    public ComponentDef[] findLocalComponentDefs(final Object componentKey) {
-        synchronized (getRoot()) {
-            return super.findLocalComponentDefs(componentKey);
-        }
-    }
-
-    public LaContainer getChild(final int index) {
-        synchronized (getRoot()) {
-            return super.getChild(index);
-        }
-    }
-
-    public int getChildSize() {
-        synchronized (getRoot()) {
-            return super.getChildSize();
-        }
-    }
-
     public ClassLoader getClassLoader() {
         synchronized (getRoot()) {
             return super.getClassLoader();
@@ -147,20 +139,6 @@ public class ThreadSafeLaContainerImpl extends LaContainerImpl {
         }
     }
 
-    @Override
-    public LaContainer getParent(final int index) {
-        synchronized (getRoot()) {
-            return super.getParent(index);
-        }
-    }
-
-    @Override
-    public int getParentSize() {
-        synchronized (getRoot()) {
-            return super.getParentSize();
-        }
-    }
-
     @Override
     public boolean hasDescendant(final String path) {
         synchronized (getRoot()) {
@@ -183,10 +161,8 @@ public class ThreadSafeLaContainerImpl extends LaContainerImpl {
     }
 
     @Override
-    protected ComponentDef internalGetComponentDef(final Object key) {
-        synchronized (getRoot()) {
-            return super.internalGetComponentDef(key);
-        }
+    protected boolean isParallelComponentInit() { // init() holds root lock that worker threads may need
+        return false;
     }
 
     public void register(final ComponentDef componentDef) {
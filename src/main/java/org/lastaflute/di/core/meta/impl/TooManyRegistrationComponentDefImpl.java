@@ -29,7 +29,7 @@ import org.lastaflute.di.helper.misc.LdiExceptionMessageBuilder;
 public class TooManyRegistrationComponentDefImpl extends SimpleComponentDef implements TooManyRegistrationComponentDef {
 
     private final Object key;
-    private final List<ComponentDef> componentDefs = new ArrayList<ComponentDef>();
+    private final List<ComponentDef> componentDefs = new ArrayList<ComponentDef>(); // added only before published
 
     public TooManyRegistrationComponentDefImpl(Object key) {
         this.key = key;
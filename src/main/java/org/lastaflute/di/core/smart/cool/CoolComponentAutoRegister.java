@@ -15,15 +15,23 @@
  */
 package org.lastaflute.di.core.smart.cool;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
 
 import javax.annotation.Resource;
 
 import org.lastaflute.di.core.ComponentDef;
 import org.lastaflute.di.core.LaContainer;
+import org.lastaflute.di.core.LastaDiProperties;
 import org.lastaflute.di.core.creator.ComponentCreator;
 import org.lastaflute.di.core.util.ComponentUtil;
+import org.lastaflute.di.helper.log.LaLogger;
 import org.lastaflute.di.naming.NamingConvention;
 import org.lastaflute.di.util.ClassTraversal.ClassHandler;
 import org.lastaflute.di.util.LdiClassUtil;
@@ -39,6 +47,8 @@ public class CoolComponentAutoRegister implements ClassHandler {
     // ===================================================================================
     //                                                                          Definition
     //                                                                          ==========
+    private static final LaLogger logger = LaLogger.getLogger(CoolComponentAutoRegister.class);
+
     // see ConstantAnnotationHandler
     public static final String INIT_METHOD = "registerAll";
     public static final String container_BINDING = "bindingType=must";
@@ -61,18 +71,16 @@ public class CoolComponentAutoRegister implements ClassHandler {
     //                                                                          ==========
     public void registerAll() { // called as constant annotation
         try {
+            if (isUseComponentIndex()) { // generated at build time
+                registerAllByComponentIndex();
+                return;
+            }
             final String[] rootPackageNames = namingConvention.getRootPackageNames();
             if (rootPackageNames != null) {
-                for (int i = 0; i < rootPackageNames.length; ++i) {
-                    final Resources[] resourcesArray = LdiResourcesUtil.getResourcesTypes(rootPackageNames[i]);
-                    for (int j = 0; j < resourcesArray.length; ++j) {
-                        final Resources resources = resourcesArray[j];
-                        try {
-                            resources.forEach(this);
-                        } finally {
-                            resources.close();
-                        }
-                    }
+                if (isParallelClassLoading()) {
+                    registerAllWithParallelClassLoading(rootPackageNames);
+                } else {
+                    traverseRootPackages(rootPackageNames, this);
                 }
             }
         } finally {
@@ -80,18 +88,140 @@ public class CoolComponentAutoRegister implements ClassHandler {
         }
     }
 
+    protected void traverseRootPackages(String[] rootPackageNames, ClassHandler handler) {
+        for (int i = 0; i < rootPackageNames.length; ++i) {
+            final Resources[] resourcesArray = LdiResourcesUtil.getResourcesTypes(rootPackageNames[i]);
+            for (int j = 0; j < resourcesArray.length; ++j) {
+                final Resources resources = resourcesArray[j];
+                try {
+                    resources.forEach(handler);
+                } finally {
+                    resources.close();
+                }
+            }
+        }
+    }
+
+    // -----------------------------------------------------
+    //                                       Component Index
+    //                                       ---------------
+    protected boolean isUseComponentIndex() {
+        return LastaDiProperties.getInstance().isSmartCoolComponentIndex();
+    }
+
+    protected void registerAllByComponentIndex() {
+        final List<String> classNameList = new CoolComponentIndex().readClassNameList();
+        if (isParallelClassLoading()) {
+            preloadClassesInParallel(classNameList);
+        }
+        for (String className : classNameList) { // in generated order (same as scanning)
+            if (namingConvention.isTargetClassName(className)) { // just in case e.g. ignore package
+                registerClass(className);
+            }
+        }
+    }
+
+    // -----------------------------------------------------
+    //                                      Parallel Loading
+    //                                      ----------------
+    // class loading is the heaviest part of registration when many classes,
+    // so only loading runs in parallel and registration is the same as serial way (same order)
+    protected boolean isParallelClassLoading() {
+        return LastaDiProperties.getInstance().isSmartCoolParallelClassLoading();
+    }
+
+    protected void registerAllWithParallelClassLoading(String[] rootPackageNames) {
+        final List<String> classNameList = new ArrayList<String>();
+        traverseRootPackages(rootPackageNames, (packageName, shortClassName) -> {
+            final String className = extractTargetClassName(packageName, shortClassName);
+            if (className != null) {
+                classNameList.add(className);
+            }
+        });
+        preloadClassesInParallel(classNameList);
+        for (String className : classNameList) { // in traversal order
+            registerClass(className);
+        }
+    }
+
+    protected void preloadClassesInParallel(List<String> classNameList) {
+        final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        // keep the original failure because fork-join framework re-creates the exception for caller thread
+        final AtomicReference<Throwable> failureRef = new AtomicReference<Throwable>();
+        try {
+            final long before = System.currentTimeMillis();
+            pool.submit(() -> {
+                IntStream.range(0, classNameList.size()).parallel().forEach(index -> {
+                    if (failureRef.get() != null) { // already failed
+                        return;
+                    }
+                    try {
+                        preloadClass(classLoader, classNameList.get(index));
+                    } catch (RuntimeException | Error e) {
+                        failureRef.compareAndSet(null, e);
+                    }
+                });
+            }).get();
+            final Throwable failure = failureRef.get();
+            if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            } else if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+            if (logger.isDebugEnabled()) {
+                final long cost = System.currentTimeMillis() - before;
+                logger.debug("...Preloading " + classNameList.size() + " classes in parallel: " + cost + "ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted the parallel class loading: " + classNameList.size(), e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("Failed to load the classes in parallel.", cause);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    protected void preloadClass(ClassLoader classLoader, String className) {
+        try {
+            // without initialization to avoid dead lock of static initializers between threads,
+            // initialized later by registration as serial way
+            Class.forName(className, false, classLoader);
+        } catch (ClassNotFoundException e) { // basically no way because of traversed, thrown by registration
+        }
+    }
+
     // ===================================================================================
     //                                                                  Class Registration
     //                                                                  ==================
     // callback from resources structure
     public void processClass(final String packageName, final String shortClassName) {
-        if (shortClassName.indexOf('$') != -1) { // inner class
+        final String className = extractTargetClassName(packageName, shortClassName);
+        if (className == null) {
             return;
         }
+        registerClass(className);
+    }
+
+    protected String extractTargetClassName(final String packageName, final String shortClassName) { // null allowed
+        if (shortClassName.indexOf('$') != -1) { // inner class
+            return null;
+        }
         final String className = LdiClassUtil.concatName(packageName, shortClassName);
         if (!namingConvention.isTargetClassName(className)) { // non quick target
-            return;
+            return null;
         }
+        return className;
+    }
+
+    protected void registerClass(final String className) {
         final Class<?> clazz = LdiClassUtil.forName(className);
         if (namingConvention.isSkipClass(clazz)) { // special skip
             return;
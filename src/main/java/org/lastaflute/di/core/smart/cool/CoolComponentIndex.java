@@ -0,0 +1,157 @@
+/*
+ * Copyright 2015-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.di.core.smart.cool;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.lastaflute.di.exception.IORuntimeException;
+import org.lastaflute.di.helper.misc.LdiExceptionMessageBuilder;
+import org.lastaflute.di.naming.NamingConvention;
+import org.lastaflute.di.naming.StyledNamingConvention;
+import org.lastaflute.di.util.ClassTraversal.ClassHandler;
+import org.lastaflute.di.util.LdiClassLoaderUtil;
+import org.lastaflute.di.util.LdiClassUtil;
+import org.lastaflute.di.util.LdiResourcesUtil;
+import org.lastaflute.di.util.LdiResourcesUtil.Resources;
+import org.lastaflute.di.util.LdiURLUtil;
+
+/**
+ * The index of cool-deploy component classes generated at build time. <br>
+ * CoolComponentAutoRegister reads it instead of scanning classpath when the option is enabled.
+ * <pre>
+ * e.g. exec-maven-plugin at process-classes phase (with project classpath)
+ *  java org.lastaflute.di.core.smart.cool.CoolComponentIndex target/classes
+ * </pre>
+ * @author jflute
+ */
+public class CoolComponentIndex {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    public static final String INDEX_PATH = "META-INF/lastadi/components.idx";
+    protected static final String COMMENT_PREFIX = "#";
+
+    // ===================================================================================
+    //                                                                           Generator
+    //                                                                           =========
+    public static void main(String[] args) { // for build tool
+        if (args == null || args.length == 0) {
+            throw new IllegalArgumentException("The argument 'args' should have output directory e.g. target/classes");
+        }
+        final CoolComponentIndex index = new CoolComponentIndex();
+        final List<String> classNameList = index.scanClassNameList(new StyledNamingConvention()); // smart packages in lasta_di.properties
+        index.writeClassNameList(new File(args[0]), classNameList);
+    }
+
+    public List<String> scanClassNameList(NamingConvention namingConvention) { // same order as scanning
+        final List<String> classNameList = new ArrayList<String>();
+        final String[] rootPackageNames = namingConvention.getRootPackageNames();
+        for (int i = 0; i < rootPackageNames.length; ++i) {
+            final Resources[] resourcesArray = LdiResourcesUtil.getResourcesTypes(rootPackageNames[i]);
+            for (int j = 0; j < resourcesArray.length; ++j) {
+                final Resources resources = resourcesArray[j];
+                try {
+                    resources.forEach((ClassHandler) (packageName, shortClassName) -> {
+                        if (shortClassName.indexOf('$') != -1) { // inner class
+                            return;
+                        }
+                        final String className = LdiClassUtil.concatName(packageName, shortClassName);
+                        if (namingConvention.isTargetClassName(className)) {
+                            classNameList.add(className);
+                        }
+                    });
+                } finally {
+                    resources.close();
+                }
+            }
+        }
+        return classNameList;
+    }
+
+    public void writeClassNameList(File outputDir, List<String> classNameList) {
+        final File indexFile = new File(outputDir, INDEX_PATH);
+        final File parentDir = indexFile.getParentFile();
+        if (!parentDir.exists() && !parentDir.mkdirs()) {
+            throw new IllegalStateException("Failed to make the directory for component index: " + parentDir);
+        }
+        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(indexFile), StandardCharsets.UTF_8))) {
+            writer.write(COMMENT_PREFIX + " generated by " + CoolComponentIndex.class.getName() + ", don't edit");
+            writer.newLine();
+            for (String className : classNameList) {
+                writer.write(className);
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            throw new IORuntimeException(e);
+        }
+    }
+
+    // ===================================================================================
+    //                                                                              Reader
+    //                                                                              ======
+    public List<String> readClassNameList() { // merged if plural index files e.g. jar files
+        final Set<String> classNameSet = new LinkedHashSet<String>(); // keeping order
+        boolean found = false;
+        for (Iterator<URL> ite = LdiClassLoaderUtil.getResources(INDEX_PATH); ite.hasNext();) {
+            readIndexFile(ite.next(), classNameSet);
+            found = true;
+        }
+        if (!found) {
+            throwCoolComponentIndexNotFoundException();
+        }
+        return new ArrayList<String>(classNameSet);
+    }
+
+    protected void readIndexFile(URL indexUrl, Set<String> classNameSet) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(LdiURLUtil.openStream(indexUrl), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                final String className = line.trim();
+                if (!className.isEmpty() && !className.startsWith(COMMENT_PREFIX)) {
+                    classNameSet.add(className);
+                }
+            }
+        } catch (IOException e) {
+            throw new IORuntimeException(e);
+        }
+    }
+
+    protected void throwCoolComponentIndexNotFoundException() {
+        final LdiExceptionMessageBuilder br = new LdiExceptionMessageBuilder();
+        br.addNotice("Not found the component index for cool deploy.");
+        br.addItem("Advice");
+        br.addElement("Generate the index at build time by " + CoolComponentIndex.class.getSimpleName() + ",");
+        br.addElement("or disable the option in lasta_di.properties to scan classpath.");
+        br.addItem("Index Path");
+        br.addElement(INDEX_PATH);
+        final String msg = br.buildExceptionMessage();
+        throw new IllegalStateException(msg);
+    }
+}
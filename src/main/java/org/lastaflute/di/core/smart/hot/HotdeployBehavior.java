@@ -15,14 +15,17 @@
  */
 package org.lastaflute.di.core.smart.hot;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.lastaflute.di.DisposableUtil;
 import org.lastaflute.di.core.ComponentDef;
 import org.lastaflute.di.core.LaContainer;
 import org.lastaflute.di.core.creator.ComponentCreator;
 import org.lastaflute.di.core.factory.SingletonLaContainerFactory;
+import org.lastaflute.di.core.meta.TooManyRegistrationComponentDef;
 import org.lastaflute.di.core.meta.impl.LaContainerBehavior.DefaultProvider;
 import org.lastaflute.di.core.meta.impl.LaContainerImpl;
 import org.lastaflute.di.core.util.ComponentUtil;
@@ -38,13 +41,21 @@ public class HotdeployBehavior extends DefaultProvider {
     //                                                                          Definition
     //                                                                          ==========
     private static final LaLogger logger = LaLogger.getLogger(HotdeployBehavior.class);
+    protected static final int DEFAULT_NOT_FOUND_CACHE_LIMIT = 1024;
+    protected static final long WAIT_CHECK_MILLIS = 10L; // interval to check cross-thread cycle while waiting for creation
 
     // ===================================================================================
     //                                                                           Attribute
     //                                                                           =========
     private ClassLoader originalClassLoader;
     private HotdeployClassLoader hotdeployClassLoader;
-    private Map<Object, ComponentDef> componentDefCache = new HashMap<Object, ComponentDef>();
+    private final Map<Object, ComponentDef> componentDefCache = new ConcurrentHashMap<Object, ComponentDef>(); // registered, written by this
+    private final Map<Object, ComponentDef> initializedDefCache = new ConcurrentHashMap<Object, ComponentDef>(); // read without lock
+    private final Map<Object, DefCreation> creationMap = new ConcurrentHashMap<Object, DefCreation>(); // in-progress by key
+    private final Map<ComponentDef, DefCreation> initializingMap = new ConcurrentHashMap<ComponentDef, DefCreation>(); // registered
+    private final Map<Thread, DefCreation> waitingMap = new ConcurrentHashMap<Thread, DefCreation>(); // to detect cross-thread cycle
+    private final Map<Object, Boolean> notFoundKeyCache = new ConcurrentHashMap<Object, Boolean>(); // cleared when hot-deploy
+    private int notFoundCacheLimit = DEFAULT_NOT_FOUND_CACHE_LIMIT; // zero means no cache
     private NamingConvention namingConvention;
     private ComponentCreator[] creators = new ComponentCreator[0];
 
@@ -61,6 +72,11 @@ public class HotdeployBehavior extends DefaultProvider {
         }
     }
 
+    public void setNotFoundCacheLimit(int notFoundCacheLimit) { // zero to suppress the cache
+        this.notFoundCacheLimit = notFoundCacheLimit;
+        notFoundKeyCache.clear();
+    }
+
     // ===================================================================================
     //                                                                       Determination
     //                                                                       =============
@@ -79,6 +95,7 @@ public class HotdeployBehavior extends DefaultProvider {
         originalClassLoader = Thread.currentThread().getContextClassLoader();
         if (!keep || hotdeployClassLoader == null) {
             hotdeployClassLoader = new HotdeployClassLoader(originalClassLoader, namingConvention);
+            notFoundKeyCache.clear(); // classes may be changed
         }
         Thread.currentThread().setContextClassLoader(hotdeployClassLoader);
         LaContainer container = SingletonLaContainerFactory.getContainer();
@@ -96,7 +113,9 @@ public class HotdeployBehavior extends DefaultProvider {
     }
 
     public void finish() {
+        initializedDefCache.clear();
         componentDefCache.clear();
+        notFoundKeyCache.clear();
         hotdeployClassLoader = null;
         DisposableUtil.dispose();
     }
@@ -106,40 +125,223 @@ public class HotdeployBehavior extends DefaultProvider {
     //                                                                       =============
     @Override
     protected ComponentDef getComponentDef(LaContainer container, Object key) {
-        synchronized (this) { // to avoid too-many registration of async hot-deploy (basically job)
-            return doGetComponentDef(container, key);
-        }
-    }
-
-    protected ComponentDef doGetComponentDef(LaContainer container, Object key) {
-        ComponentDef cd = super.getComponentDef(container, key);
+        ComponentDef cd = super.getComponentDef(container, key); // registered in di.xml, read only here
         if (cd != null) {
             return cd;
         }
         if (container != container.getRoot()) {
             return null;
         }
-        cd = getComponentDefFromCache(key);
+        cd = initializedDefCache.get(key); // fast path without lock for already-initialized definition
         if (cd != null) {
             return cd;
         }
+        if (isNotFoundCached(key)) { // e.g. hasComponentDef() probe for the same key on every request
+            return null;
+        }
+        return doGetComponentDef(container, key);
+    }
+
+    // -----------------------------------------------------
+    //                                      Per-key Creation
+    //                                      ----------------
+    protected ComponentDef doGetComponentDef(LaContainer container, Object key) {
+        // only concurrent first-time creation of the same key waits, lookup of the key in initialization by the same thread
+        // (cyclic reference) gets the registered (initializing) definition as before
+        final Thread current = Thread.currentThread();
+        while (true) {
+            final ComponentDef initialized = initializedDefCache.get(key);
+            if (initialized != null) { // published while waiting
+                return initialized;
+            }
+            final DefCreation creation = new DefCreation(current);
+            final DefCreation existing = creationMap.putIfAbsent(key, creation);
+            if (existing == null) { // creator of the key
+                try {
+                    final ComponentDef created = createAndInitialize(key, creation);
+                    creation.complete(created);
+                    return created;
+                } finally {
+                    creationMap.remove(key, creation);
+                    creation.release();
+                }
+            }
+            if (existing.owner == current || awaitCreation(existing)) { // cyclic reference in this thread or over threads
+                return existing.registered; // null allowed: cyclic in creation (before registration)
+            }
+            if (existing.completed) { // includes not found
+                return existing.result;
+            }
+            // failed by exception so try it by myself
+        }
+    }
+
+    protected ComponentDef createAndInitialize(Object key, DefCreation creation) {
+        final ComponentDef cached = getComponentDefFromCache(key);
+        if (cached != null) { // created via other key e.g. interface and implementation
+            return awaitInitialized(cached);
+        }
+        final ComponentDef created = createComponentDef(key);
+        if (created == null) {
+            cacheNotFound(key);
+            return null;
+        }
+        final ComponentDef registered = registerIfNotExists(key, created, creation);
+        if (registered != created) { // me too
+            return awaitInitialized(registered);
+        }
+        try {
+            ComponentUtil.putRegisterLog(registered);
+            registered.init();
+            publishInitialized(registered);
+        } finally {
+            initializingMap.remove(registered);
+        }
+        return registered;
+    }
+
+    protected ComponentDef awaitInitialized(ComponentDef registered) { // registered by other creation
+        final DefCreation creation = initializingMap.get(registered);
+        if (creation != null && creation.owner != Thread.currentThread()) {
+            awaitCreation(creation); // returns in-progress definition if cycle, same as cyclic reference in one thread
+        }
+        return registered;
+    }
+
+    /**
+     * Wait for the creation by other thread.
+     * @param creation The in-progress creation by other thread. (NotNull)
+     * @return true if the waiting makes cycle over threads, then the registered (initializing) definition can be used.
+     */
+    protected boolean awaitCreation(DefCreation creation) {
+        final Thread current = Thread.currentThread();
+        waitingMap.put(current, creation);
+        try {
+            while (!creation.latch.await(WAIT_CHECK_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (isWaitingCycle(current, creation)) { // e.g. T1 initializes A and waits for B, T2 initializes B and waits for A
+                    return true;
+                }
+            }
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the creation of component definition.", e);
+        } finally {
+            waitingMap.remove(current);
+        }
+    }
+
+    protected boolean isWaitingCycle(Thread current, DefCreation creation) { // follows owner -> waiting creation -> owner...
+        DefCreation waited = creation;
+        final int limit = waitingMap.size() + 1; // not to loop forever by cycle of other threads
+        for (int i = 0; i < limit; i++) {
+            if (waited.owner == current) {
+                return true;
+            }
+            waited = waitingMap.get(waited.owner);
+            if (waited == null) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    protected static class DefCreation { // first-time creation of component definition by the key
+
+        protected final Thread owner; // not null, creating thread
+        protected final CountDownLatch latch = new CountDownLatch(1); // released when finished (also failure)
+        protected volatile ComponentDef registered; // null allowed: before registration, initializing definition
+        protected volatile ComponentDef result; // null allowed: not found or not completed
+        protected volatile boolean completed; // false if failure
+
+        public DefCreation(Thread owner) {
+            this.owner = owner;
+        }
+
+        public void complete(ComponentDef result) {
+            this.result = result;
+            this.completed = true;
+        }
+
+        public void release() {
+            latch.countDown();
+        }
+    }
+
+    protected void publishInitialized(ComponentDef componentDef) { // to fast path after initialization
+        final Class<?>[] classes = ComponentUtil.getAssignableClasses(componentDef.getComponentClass());
+        for (int i = 0; i < classes.length; ++i) {
+            publishKey(classes[i]);
+        }
+        final String componentName = componentDef.getComponentName();
+        if (componentName != null) {
+            publishKey(componentName);
+        }
+    }
+
+    protected void publishKey(Object key) { // the key may have too-many registration
+        final ComponentDef registered = getComponentDefFromCache(key);
+        if (registered != null) {
+            initializedDefCache.put(key, registered);
+        }
+    }
+
+    protected ComponentDef createComponentDef(Object key) {
         if (key instanceof Class<?>) {
-            cd = createComponentDef((Class<?>) key);
+            return createComponentDef((Class<?>) key);
         } else if (key instanceof String) {
-            cd = createComponentDef((String) key);
+            final ComponentDef cd = createComponentDef((String) key);
             if (cd != null && !key.equals(cd.getComponentName())) {
                 logger.log("WSSR0011", new Object[] { key, cd.getComponentClass().getName(), cd.getComponentName() });
-                cd = null;
+                return null;
             }
+            return cd;
         } else {
             throw new IllegalArgumentException("Illegal component key: " + key);
         }
-        if (cd != null) {
-            register(cd);
-            ComponentUtil.putRegisterLog(cd);
-            cd.init();
+    }
+
+    protected synchronized ComponentDef registerIfNotExists(Object key, ComponentDef componentDef, DefCreation creation) {
+        // only registration is serialized to avoid too-many registration by other keys of async hot-deploy (basically job)
+        final ComponentDef existing = findAlreadyRegistered(key, componentDef);
+        if (existing != null) {
+            return existing;
+        }
+        creation.registered = componentDef; // for cyclic reference while initializing
+        initializingMap.put(componentDef, creation);
+        register(componentDef);
+        return componentDef;
+    }
+
+    protected ComponentDef findAlreadyRegistered(Object key, ComponentDef componentDef) {
+        final ComponentDef byKey = getComponentDefFromCache(key);
+        if (byKey != null) {
+            return byKey;
+        }
+        final Class<?> componentClass = componentDef.getComponentClass();
+        final ComponentDef byClass = getComponentDefFromCache(componentClass);
+        if (byClass != null && !(byClass instanceof TooManyRegistrationComponentDef)
+                && componentClass.equals(byClass.getComponentClass())) {
+            return byClass;
+        }
+        return null;
+    }
+
+    // -----------------------------------------------------
+    //                                        NotFound Cache
+    //                                        --------------
+    protected boolean isNotFoundCached(Object key) {
+        return notFoundKeyCache.containsKey(key);
+    }
+
+    protected void cacheNotFound(Object key) {
+        if (notFoundCacheLimit <= 0) {
+            return;
+        }
+        if (notFoundKeyCache.size() >= notFoundCacheLimit) { // simply bounded, too many misses are unexpected
+            notFoundKeyCache.clear();
         }
-        return cd;
+        notFoundKeyCache.put(key, Boolean.TRUE);
     }
 
     protected ComponentDef getComponentDefFromCache(Object key) {
@@ -20,6 +20,7 @@ import org.lastaflute.di.core.LaContainer;
 import org.lastaflute.di.core.creator.ComponentCreator;
 import org.lastaflute.di.core.factory.SingletonLaContainerFactory;
 import org.lastaflute.di.core.meta.impl.LaContainerBehavior.DefaultProvider;
+import org.lastaflute.di.core.meta.impl.ThreadSafeLaContainerImpl;
 import org.lastaflute.di.core.util.ComponentUtil;
 import org.lastaflute.di.helper.log.LaLogger;
 import org.lastaflute.di.naming.NamingConvention;
@@ -44,9 +45,15 @@ public class WarmdeployBehavior extends DefaultProvider {
     //                                                                           Component
     //                                                                           =========
     protected ComponentDef getComponentDef(LaContainer container, Object key) {
+        if (container instanceof ThreadSafeLaContainerImpl) { // lookup is lock-free
+            final ComponentDef existing = super.getComponentDef(container, key);
+            if (existing != null) { // mainly here after warm-up
+                return existing;
+            }
+        }
         synchronized (container.getRoot()) {
             ComponentDef cd = super.getComponentDef(container, key);
-            if (cd != null) { // already exists
+            if (cd != null) { // already exists (registered by other thread)
                 return cd;
             }
             if (container != container.getRoot()) { // should argument be root?
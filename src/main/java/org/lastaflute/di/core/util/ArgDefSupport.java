@@ -15,8 +15,7 @@
  */
 package org.lastaflute.di.core.util;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 import org.lastaflute.di.core.LaContainer;
 import org.lastaflute.di.core.meta.ArgDef;
@@ -26,7 +25,10 @@ import org.lastaflute.di.core.meta.ArgDef;
  */
 public class ArgDefSupport {
 
-    private final List<ArgDef> argDefs = new ArrayList<ArgDef>();
+    private static final ArgDef[] EMPTY_DEFS = new ArgDef[0]; // shared for compact memory
+
+    // array-backed for compact memory, copied when added (basically only while building definitions)
+    private ArgDef[] argDefs = EMPTY_DEFS;
     private LaContainer container;
 
     public ArgDefSupport() {
@@ -36,15 +38,16 @@ public class ArgDefSupport {
         if (container != null) {
             argDef.setContainer(container);
         }
-        argDefs.add(argDef);
+        argDefs = Arrays.copyOf(argDefs, argDefs.length + 1);
+        argDefs[argDefs.length - 1] = argDef;
     }
 
     public int getArgDefSize() {
-        return argDefs.size();
+        return argDefs.length;
     }
 
     public ArgDef getArgDef(int index) {
-        return (ArgDef) argDefs.get(index);
+        return argDefs[index];
     }
 
     public void setContainer(LaContainer container) {
@@ -15,8 +15,7 @@
  */
 package org.lastaflute.di.core.util;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 import org.lastaflute.di.core.LaContainer;
 import org.lastaflute.di.core.meta.AspectDef;
@@ -26,7 +25,9 @@ import org.lastaflute.di.core.meta.AspectDef;
  */
 public class AspectDefSupport {
 
-    private List<AspectDef> aspectDefs = new ArrayList<AspectDef>();
+    private static final AspectDef[] EMPTY_DEFS = new AspectDef[0];
+
+    private AspectDef[] aspectDefs = EMPTY_DEFS;
 
     private LaContainer container;
 
@@ -37,22 +38,27 @@ public class AspectDefSupport {
         if (container != null) {
             aspectDef.setContainer(container);
         }
-        aspectDefs.add(aspectDef);
+        aspectDefs = Arrays.copyOf(aspectDefs, aspectDefs.length + 1);
+        aspectDefs[aspectDefs.length - 1] = aspectDef;
     }
 
     public void addAspectDef(int index, AspectDef aspectDef) {
         if (container != null) {
             aspectDef.setContainer(container);
         }
-        aspectDefs.add(index, aspectDef);
+        final AspectDef[] newDefs = new AspectDef[aspectDefs.length + 1];
+        System.arraycopy(aspectDefs, 0, newDefs, 0, index); // index out of bounds if illegal index
+        newDefs[index] = aspectDef;
+        System.arraycopy(aspectDefs, index, newDefs, index + 1, aspectDefs.length - index);
+        aspectDefs = newDefs;
     }
 
     public int getAspectDefSize() {
-        return aspectDefs.size();
+        return aspectDefs.length;
     }
 
     public AspectDef getAspectDef(int index) {
-        return aspectDefs.get(index);
+        return aspectDefs[index];
     }
 
     public void setContainer(LaContainer container) {
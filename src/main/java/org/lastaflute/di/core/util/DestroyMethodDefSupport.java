@@ -15,8 +15,7 @@
  */
 package org.lastaflute.di.core.util;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 import org.lastaflute.di.core.LaContainer;
 import org.lastaflute.di.core.meta.DestroyMethodDef;
@@ -26,7 +25,9 @@ import org.lastaflute.di.core.meta.DestroyMethodDef;
  */
 public class DestroyMethodDefSupport {
 
-    private List<DestroyMethodDef> methodDefs = new ArrayList<DestroyMethodDef>();
+    private static final DestroyMethodDef[] EMPTY_DEFS = new DestroyMethodDef[0];
+
+    private DestroyMethodDef[] methodDefs = EMPTY_DEFS;
     private LaContainer container;
 
     public DestroyMethodDefSupport() {
@@ -36,15 +37,16 @@ public class DestroyMethodDefSupport {
         if (container != null) {
             methodDef.setContainer(container);
         }
-        methodDefs.add(methodDef);
+        methodDefs = Arrays.copyOf(methodDefs, methodDefs.length + 1);
+        methodDefs[methodDefs.length - 1] = methodDef;
     }
 
     public int getDestroyMethodDefSize() {
-        return methodDefs.size();
+        return methodDefs.length;
     }
 
     public DestroyMethodDef getDestroyMethodDef(int index) {
-        return (DestroyMethodDef) methodDefs.get(index);
+        return methodDefs[index];
     }
 
     public void setContainer(LaContainer container) {
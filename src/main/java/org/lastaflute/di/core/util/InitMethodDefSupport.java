@@ -15,8 +15,7 @@
  */
 package org.lastaflute.di.core.util;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 import org.lastaflute.di.core.LaContainer;
 import org.lastaflute.di.core.meta.InitMethodDef;
@@ -26,7 +25,9 @@ import org.lastaflute.di.core.meta.InitMethodDef;
  */
 public class InitMethodDefSupport {
 
-    private final List<InitMethodDef> methodDefs = new ArrayList<InitMethodDef>();
+    private static final InitMethodDef[] EMPTY_DEFS = new InitMethodDef[0];
+
+    private InitMethodDef[] methodDefs = EMPTY_DEFS;
     private LaContainer container;
 
     public InitMethodDefSupport() {
@@ -36,15 +37,16 @@ public class InitMethodDefSupport {
         if (container != null) {
             methodDef.setContainer(container);
         }
-        methodDefs.add(methodDef);
+        methodDefs = Arrays.copyOf(methodDefs, methodDefs.length + 1);
+        methodDefs[methodDefs.length - 1] = methodDef;
     }
 
     public int getInitMethodDefSize() {
-        return methodDefs.size();
+        return methodDefs.length;
     }
 
     public InitMethodDef getInitMethodDef(int index) {
-        return (InitMethodDef) methodDefs.get(index);
+        return methodDefs[index];
     }
 
     public void setContainer(LaContainer container) {
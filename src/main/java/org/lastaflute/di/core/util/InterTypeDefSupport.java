@@ -15,8 +15,7 @@
  */
 package org.lastaflute.di.core.util;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 import org.lastaflute.di.core.LaContainer;
 import org.lastaflute.di.core.meta.InterTypeDef;
@@ -26,7 +25,9 @@ import org.lastaflute.di.core.meta.InterTypeDef;
  */
 public class InterTypeDefSupport {
 
-    private final List<InterTypeDef> interTypeDefs = new ArrayList<InterTypeDef>();
+    private static final InterTypeDef[] EMPTY_DEFS = new InterTypeDef[0];
+
+    private InterTypeDef[] interTypeDefs = EMPTY_DEFS;
     private LaContainer container;
 
     public InterTypeDefSupport() {
@@ -36,15 +37,16 @@ public class InterTypeDefSupport {
         if (container != null) {
             interTypeDef.setContainer(container);
         }
-        interTypeDefs.add(interTypeDef);
+        interTypeDefs = Arrays.copyOf(interTypeDefs, interTypeDefs.length + 1);
+        interTypeDefs[interTypeDefs.length - 1] = interTypeDef;
     }
 
     public int getInterTypeDefSize() {
-        return interTypeDefs.size();
+        return interTypeDefs.length;
     }
 
     public InterTypeDef getInterTypeDef(int index) {
-        return (InterTypeDef) interTypeDefs.get(index);
+        return interTypeDefs[index];
     }
 
     public void setContainer(LaContainer container) {
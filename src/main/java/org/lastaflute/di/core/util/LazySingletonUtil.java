@@ -0,0 +1,79 @@
+/*
+ * Copyright 2015-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.di.core.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.lastaflute.di.core.ComponentDef;
+import org.lastaflute.di.core.LaContainer;
+import org.lastaflute.di.core.deployer.ComponentDeployer;
+import org.lastaflute.di.core.deployer.SingletonComponentDeployer;
+import org.lastaflute.di.core.meta.impl.ComponentDefImpl;
+
+/**
+ * @author jflute
+ */
+public class LazySingletonUtil {
+
+    /**
+     * Find lazy singletons that have never been used (assembled) in the container and its descendants.
+     * @param container The container to be searched, e.g. root. (NotNull)
+     * @return The list of component definitions in container order. (NotNull, EmptyAllowed)
+     */
+    public static List<ComponentDef> findNeverMaterializedList(LaContainer container) {
+        final List<ComponentDef> neverList = new ArrayList<ComponentDef>();
+        Traversal.forEachComponent(container, componentDef -> {
+            final SingletonComponentDeployer deployer = findLazySingletonDeployer(componentDef);
+            if (deployer != null && !deployer.isMaterialized()) {
+                neverList.add(componentDef);
+            }
+            return null; // to continue
+        });
+        return neverList;
+    }
+
+    protected static SingletonComponentDeployer findLazySingletonDeployer(ComponentDef componentDef) {
+        if (!(componentDef instanceof ComponentDefImpl)) {
+            return null;
+        }
+        final ComponentDeployer deployer = ((ComponentDefImpl) componentDef).getComponentDeployer();
+        if (!(deployer instanceof SingletonComponentDeployer)) {
+            return null;
+        }
+        final SingletonComponentDeployer singletonDeployer = (SingletonComponentDeployer) deployer;
+        return singletonDeployer.isLazyInit() ? singletonDeployer : null;
+    }
+
+    /**
+     * @param container The container to be searched, e.g. root. (NotNull)
+     * @return The display string of never-materialized lazy singletons, for logging. (NullAllowed: when nothing)
+     */
+    public static String buildNeverMaterializedReport(LaContainer container) {
+        final List<ComponentDef> neverList = findNeverMaterializedList(container);
+        if (neverList.isEmpty()) {
+            return null;
+        }
+        final StringBuilder sb = new StringBuilder();
+        sb.append("Never-materialized lazy singletons: ").append(neverList.size());
+        for (ComponentDef componentDef : neverList) {
+            sb.append("\n  ").append(componentDef.getComponentName()).append(" (");
+            final Class<?> componentClass = componentDef.getComponentClass();
+            sb.append(componentClass != null ? componentClass.getName() : null).append(")");
+        }
+        return sb.toString();
+    }
+}
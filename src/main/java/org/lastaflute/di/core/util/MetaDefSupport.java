@@ -16,6 +16,7 @@
 package org.lastaflute.di.core.util;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.lastaflute.di.core.LaContainer;
@@ -26,7 +27,9 @@ import org.lastaflute.di.core.meta.MetaDef;
  */
 public class MetaDefSupport {
 
-    private List<MetaDef> metaDefs = new ArrayList<MetaDef>();
+    private static final MetaDef[] EMPTY_DEFS = new MetaDef[0];
+
+    private MetaDef[] metaDefs = EMPTY_DEFS;
 
     private LaContainer container;
 
@@ -41,15 +44,16 @@ public class MetaDefSupport {
         if (container != null) {
             metaDef.setContainer(container);
         }
-        metaDefs.add(metaDef);
+        metaDefs = Arrays.copyOf(metaDefs, metaDefs.length + 1);
+        metaDefs[metaDefs.length - 1] = metaDef;
     }
 
     public int getMetaDefSize() {
-        return metaDefs.size();
+        return metaDefs.length;
     }
 
     public MetaDef getMetaDef(int index) {
-        return metaDefs.get(index);
+        return metaDefs[index];
     }
 
     public MetaDef getMetaDef(String name) {
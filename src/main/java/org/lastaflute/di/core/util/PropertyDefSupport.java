@@ -24,7 +24,7 @@ import org.lastaflute.di.util.CaseInsensitiveMap;
  */
 public class PropertyDefSupport {
 
-    private CaseInsensitiveMap propertyDefs = new CaseInsensitiveMap();
+    private CaseInsensitiveMap propertyDefs; // lazy-loaded for compact memory, null means empty
 
     private LaContainer container;
 
@@ -35,23 +35,29 @@ public class PropertyDefSupport {
         if (container != null) {
             propertyDef.setContainer(container);
         }
+        if (propertyDefs == null) {
+            propertyDefs = new CaseInsensitiveMap();
+        }
         propertyDefs.put(propertyDef.getPropertyName(), propertyDef);
     }
 
     public int getPropertyDefSize() {
-        return propertyDefs.size();
+        return propertyDefs != null ? propertyDefs.size() : 0;
     }
 
     public PropertyDef getPropertyDef(int index) {
+        if (propertyDefs == null) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: 0");
+        }
         return (PropertyDef) propertyDefs.get(index);
     }
 
     public PropertyDef getPropertyDef(String propertyName) {
-        return (PropertyDef) propertyDefs.get(propertyName);
+        return propertyDefs != null ? (PropertyDef) propertyDefs.get(propertyName) : null;
     }
 
     public boolean hasPropertyDef(String propertyName) {
-        return propertyDefs.containsKey(propertyName);
+        return propertyDefs != null && propertyDefs.containsKey(propertyName);
     }
 
     public void setContainer(LaContainer container) {
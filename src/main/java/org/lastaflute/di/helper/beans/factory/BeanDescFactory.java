@@ -15,42 +15,116 @@
  */
 package org.lastaflute.di.helper.beans.factory;
 
-import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.lastaflute.di.Disposable;
 import org.lastaflute.di.DisposableUtil;
+import org.lastaflute.di.core.LastaDiProperties;
 import org.lastaflute.di.helper.beans.BeanDesc;
 import org.lastaflute.di.helper.beans.impl.BeanDescImpl;
-import org.lastaflute.di.util.LdiMapUtil;
 
 /**
  * @author modified by jflute (originated in Seasar)
  */
 public class BeanDescFactory {
 
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
     private static volatile boolean initialized;
 
-    private static Map<Class<?>, BeanDesc> beanDescCache = LdiMapUtil.createHashMap(1024);
+    // weak for classes (values are stored in the class) so hot deploy class loaders can be collected,
+    // and replaced when clear() so that old entries are released together with the class value
+    private static volatile ClassValue<BeanDescHolder> beanDescCache = newBeanDescCache();
+
+    private static final LongAdder cacheHitCount = new LongAdder();
+    private static final LongAdder cacheMissCount = new LongAdder();
 
     static {
         initialize();
     }
 
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
     protected BeanDescFactory() {
     }
 
+    // ===================================================================================
+    //                                                                           Bean Desc
+    //                                                                           =========
     public static BeanDesc getBeanDesc(Class<?> clazz) {
         if (!initialized) {
             initialize();
         }
-        BeanDesc beanDesc = beanDescCache.get(clazz);
-        if (beanDesc == null) {
-            beanDesc = new BeanDescImpl(clazz);
-            beanDescCache.put(clazz, beanDesc);
+        return beanDescCache.get(clazz).getBeanDesc();
+    }
+
+    protected static ClassValue<BeanDescHolder> newBeanDescCache() {
+        return new ClassValue<BeanDescHolder>() {
+            @Override
+            protected BeanDescHolder computeValue(Class<?> type) {
+                return new BeanDescHolder(type); // may be called concurrently but only one holder is used
+            }
+        };
+    }
+
+    /**
+     * The holder to create bean description exactly once per class.
+     */
+    protected static class BeanDescHolder {
+
+        protected final Class<?> beanClass; // not null
+        protected volatile BeanDesc beanDesc; // lazy-loaded
+
+        public BeanDescHolder(Class<?> beanClass) {
+            this.beanClass = beanClass;
+        }
+
+        public BeanDesc getBeanDesc() {
+            BeanDesc desc = beanDesc;
+            if (desc != null) {
+                cacheHitCount.increment();
+                return desc;
+            }
+            synchronized (this) {
+                desc = beanDesc;
+                if (desc != null) {
+                    cacheHitCount.increment();
+                    return desc;
+                }
+                desc = new BeanDescImpl(beanClass, isLazyIntrospection()); // not cached if exception
+                beanDesc = desc;
+                cacheMissCount.increment();
+                return desc;
+            }
         }
-        return beanDesc;
     }
 
+    protected static boolean isLazyIntrospection() {
+        return LastaDiProperties.getInstance().isBeanDescLazyIntrospection();
+    }
+
+    // ===================================================================================
+    //                                                                          Statistics
+    //                                                                          ==========
+    /**
+     * @return The count of cached bean description returned since initialization.
+     */
+    public static long getCacheHitCount() {
+        return cacheHitCount.sum();
+    }
+
+    /**
+     * @return The count of bean description created since initialization.
+     */
+    public static long getCacheMissCount() {
+        return cacheMissCount.sum();
+    }
+
+    // ===================================================================================
+    //                                                                          Initialize
+    //                                                                          ==========
     public static void initialize() {
         DisposableUtil.add(new Disposable() {
             public void dispose() {
@@ -61,7 +135,9 @@ public class BeanDescFactory {
     }
 
     public static void clear() {
-        beanDescCache.clear();
+        beanDescCache = newBeanDescCache();
+        cacheHitCount.reset();
+        cacheMissCount.reset();
         initialized = false;
     }
 }
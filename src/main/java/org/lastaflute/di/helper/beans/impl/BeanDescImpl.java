@@ -29,6 +29,9 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import org.lastaflute.di.core.util.ClassPoolUtil;
 import org.lastaflute.di.exception.EmptyRuntimeException;
@@ -55,6 +58,7 @@ import org.lastaflute.di.util.LdiFieldUtil;
 import org.lastaflute.di.util.LdiFloatConversionUtil;
 import org.lastaflute.di.util.LdiIntegerConversionUtil;
 import org.lastaflute.di.util.LdiLongConversionUtil;
+import org.lastaflute.di.util.LdiMethodHandleUtil;
 import org.lastaflute.di.util.LdiMethodUtil;
 import org.lastaflute.di.util.LdiShortConversionUtil;
 import org.lastaflute.di.util.LdiStringUtil;
@@ -86,30 +90,129 @@ public class BeanDescImpl implements BeanDesc {
     //                                                                           Attribute
     //                                                                           =========
     private Class<?> beanClass;
-    private Constructor<?>[] constructors;
-    private Map<TypeVariable<?>, Type> typeVariables;
+    private final boolean lazyIntrospection; // true: each part is introspected on first request
+
+    // each part is prepared under the instance lock and published by volatile flag or field
+    private volatile Constructor<?>[] constructors; // lazy loaded if lazy introspection
+    private volatile Map<TypeVariable<?>, Type> typeVariables; // me too
+    private volatile boolean propertyPrepared; // for property descs and fields (they are related)
+    private volatile boolean methodPrepared; // for methods cache
     private CaseInsensitiveMap propertyDescCache = new CaseInsensitiveMap();
     private Map<String, Method[]> methodsCache = new HashMap<String, Method[]>();
     private ArrayMap<String, Field> fieldCache = new ArrayMap<String, Field>();
     private ArrayMap<String, List<Field>> hiddenFieldCache; // lazy loaded
     private transient Set<String> invalidPropertyNames = new HashSet<String>();
-    private Map<Constructor<?>, String[]> constructorParameterNamesCache;
-    private Map<Method, String[]> methodParameterNamesCache;
+    private volatile Map<Constructor<?>, String[]> constructorParameterNamesCache;
+    private volatile Map<Method, String[]> methodParameterNamesCache;
+    // key is argument types (null element allowed), only for constructors found without number adjustment
+    private final Map<List<Class<?>>, Function<Object[], Object>> instantiatorCache =
+            new ConcurrentHashMap<List<Class<?>>, Function<Object[], Object>>();
 
     // ===================================================================================
     //                                                                         Constructor
     //                                                                         ===========
     public BeanDescImpl(Class<?> beanClass) throws EmptyRuntimeException {
+        this(beanClass, false);
+    }
+
+    /**
+     * @param beanClass The class of bean to be described. (NotNull)
+     * @param lazyIntrospection Does it introspect properties, methods, fields... on first request?
+     */
+    public BeanDescImpl(Class<?> beanClass, boolean lazyIntrospection) throws EmptyRuntimeException {
         if (beanClass == null) {
             throw new EmptyRuntimeException("beanClass");
         }
+        this.beanClass = beanClass;
+        this.lazyIntrospection = lazyIntrospection;
+        if (!lazyIntrospection) {
+            prepareConstructors();
+            prepareTypeVariables();
+            prepareProperties();
+            prepareMethods();
+        }
+    }
+
+    // ===================================================================================
+    //                                                                       Introspection
+    //                                                                       =============
+    private Constructor<?>[] prepareConstructors() {
+        Constructor<?>[] prepared = constructors;
+        if (prepared == null) {
+            synchronized (this) {
+                prepared = constructors;
+                if (prepared == null) {
+                    prepared = introspect(() -> beanClass.getConstructors());
+                    constructors = prepared;
+                }
+            }
+        }
+        return prepared;
+    }
+
+    private Map<TypeVariable<?>, Type> prepareTypeVariables() {
+        Map<TypeVariable<?>, Type> prepared = typeVariables;
+        if (prepared == null) {
+            synchronized (this) {
+                prepared = typeVariables;
+                if (prepared == null) {
+                    prepared = introspect(() -> ParameterizedClassDescFactory.getTypeVariables(beanClass));
+                    typeVariables = prepared;
+                }
+            }
+        }
+        return prepared;
+    }
+
+    private void prepareProperties() { // with fields because public fields are also properties
+        if (propertyPrepared) {
+            return;
+        }
+        synchronized (this) {
+            if (propertyPrepared) {
+                return;
+            }
+            try {
+                introspect(() -> {
+                    setupPropertyDescs();
+                    setupFields();
+                    return null;
+                });
+            } catch (RuntimeException | Error e) { // clean half-way caches for next request (lazy only)
+                propertyDescCache = new CaseInsensitiveMap();
+                fieldCache = new ArrayMap<String, Field>();
+                hiddenFieldCache = null;
+                invalidPropertyNames.clear();
+                throw e;
+            }
+            propertyPrepared = true;
+        }
+    }
+
+    private void prepareMethods() {
+        if (methodPrepared) {
+            return;
+        }
+        synchronized (this) {
+            if (methodPrepared) {
+                return;
+            }
+            try {
+                introspect(() -> {
+                    setupMethods();
+                    return null;
+                });
+            } catch (RuntimeException | Error e) { // me too
+                methodsCache = new HashMap<String, Method[]>();
+                throw e;
+            }
+            methodPrepared = true;
+        }
+    }
+
+    private <RESULT> RESULT introspect(Supplier<RESULT> introspector) {
         try {
-            this.beanClass = beanClass;
-            constructors = beanClass.getConstructors();
-            typeVariables = ParameterizedClassDescFactory.getTypeVariables(beanClass);
-            setupPropertyDescs();
-            setupMethods();
-            setupFields();
+            return introspector.get();
         } catch (NoClassDefFoundError e) { // these catches are for e.g. nested class error
             throw new BeanNoClassDefFoundError("Failed to analyze the bean class: " + beanClass.getName(), e);
         } catch (NoSuchMethodError e) {
@@ -119,6 +222,10 @@ public class BeanDescImpl implements BeanDesc {
         }
     }
 
+    public boolean isLazyIntrospection() {
+        return lazyIntrospection;
+    }
+
     // ===================================================================================
     //                                                                                Bean
     //                                                                                ====
@@ -130,10 +237,12 @@ public class BeanDescImpl implements BeanDesc {
     //                                                                   Property Handling
     //                                                                   =================
     public boolean hasPropertyDesc(String propertyName) {
+        prepareProperties();
         return propertyDescCache.get(propertyName) != null;
     }
 
     public PropertyDesc getPropertyDesc(String propertyName) throws BeanPropertyNotFoundException {
+        prepareProperties();
         final PropertyDesc pd = (PropertyDesc) propertyDescCache.get(propertyName);
         if (pd == null) {
             String msg = "Not found the bean property: " + beanClass.getName() + "@" + propertyName;
@@ -142,15 +251,17 @@ public class BeanDescImpl implements BeanDesc {
         return pd;
     }
 
-    private PropertyDesc getPropertyDesc0(String propertyName) {
+    private PropertyDesc getPropertyDesc0(String propertyName) { // for setup so no prepare
         return (PropertyDesc) propertyDescCache.get(propertyName);
     }
 
     public PropertyDesc getPropertyDesc(int index) {
+        prepareProperties();
         return (PropertyDesc) propertyDescCache.get(index);
     }
 
     public int getPropertyDescSize() {
+        prepareProperties();
         return propertyDescCache.size();
     }
 
@@ -158,11 +269,13 @@ public class BeanDescImpl implements BeanDesc {
     //                                                                      Field Handling
     //                                                                      ==============
     public boolean hasField(String fieldName) {
+        prepareProperties();
         return fieldCache.get(fieldName) != null;
     }
 
     @Override
     public Field getField(String fieldName) {
+        prepareProperties();
         final Field field = fieldCache.get(fieldName);
         if (field == null) {
             throw new BeanFieldNotFoundException(beanClass, fieldName);
@@ -172,6 +285,7 @@ public class BeanDescImpl implements BeanDesc {
 
     @Override
     public int getFieldSize() {
+        prepareProperties();
         return fieldCache.size();
     }
 
@@ -180,8 +294,26 @@ public class BeanDescImpl implements BeanDesc {
     //                                                                ====================
     @Override
     public Object newInstance(Object[] args) throws BeanConstructorNotFoundException {
-        Constructor<?> constructor = getSuitableConstructor(args);
-        return LdiConstructorUtil.newInstance(constructor, args);
+        final Object[] actualArgs = args != null ? args : EMPTY_ARGS;
+        final List<Class<?>> argTypeKey = toArgTypeKey(actualArgs);
+        Function<Object[], Object> instantiator = instantiatorCache.get(argTypeKey);
+        if (instantiator == null) {
+            final Constructor<?> constructor = findSuitableConstructor(actualArgs);
+            if (constructor == null) { // needs number adjustment (changes arguments) or not found
+                return LdiConstructorUtil.newInstance(getSuitableConstructor(args), args);
+            }
+            instantiator = LdiMethodHandleUtil.toInstantiator(constructor);
+            instantiatorCache.put(argTypeKey, instantiator);
+        }
+        return instantiator.apply(actualArgs);
+    }
+
+    private List<Class<?>> toArgTypeKey(Object[] args) {
+        final Class<?>[] argTypes = new Class<?>[args.length];
+        for (int i = 0; i < args.length; i++) {
+            argTypes[i] = args[i] != null ? args[i].getClass() : null; // null matches any type
+        }
+        return Arrays.asList(argTypes);
     }
 
     public Constructor<?> getSuitableConstructor(Object[] args) throws BeanConstructorNotFoundException {
@@ -200,6 +332,7 @@ public class BeanDescImpl implements BeanDesc {
     }
 
     private Constructor<?> findSuitableConstructor(Object[] args) {
+        final Constructor<?>[] constructors = prepareConstructors();
         outerLoop: for (int i = 0; i < constructors.length; ++i) {
             Class<?>[] paramTypes = constructors[i].getParameterTypes();
             if (paramTypes.length != args.length) {
@@ -217,6 +350,7 @@ public class BeanDescImpl implements BeanDesc {
     }
 
     private Constructor<?> findSuitableConstructorAdjustNumber(Object[] args) {
+        final Constructor<?>[] constructors = prepareConstructors();
         outerLoop: for (int i = 0; i < constructors.length; ++i) {
             Class<?>[] paramTypes = constructors[i].getParameterTypes();
             if (paramTypes.length != args.length) {
@@ -235,6 +369,7 @@ public class BeanDescImpl implements BeanDesc {
     }
 
     public Constructor<?> getConstructor(final Class<?>[] paramTypes) {
+        final Constructor<?>[] constructors = prepareConstructors();
         for (int i = 0; i < constructors.length; ++i) {
             if (Arrays.equals(paramTypes, constructors[i].getParameterTypes())) {
                 return constructors[i];
@@ -248,18 +383,26 @@ public class BeanDescImpl implements BeanDesc {
     }
 
     public String[] getConstructorParameterNames(final Constructor<?> constructor) {
-        if (constructorParameterNamesCache == null) {
-            constructorParameterNamesCache = createConstructorParameterNamesCache();
+        Map<Constructor<?>, String[]> namesCache = constructorParameterNamesCache;
+        if (namesCache == null) {
+            synchronized (this) {
+                namesCache = constructorParameterNamesCache;
+                if (namesCache == null) {
+                    namesCache = createConstructorParameterNamesCache();
+                    constructorParameterNamesCache = namesCache;
+                }
+            }
         }
-        if (!constructorParameterNamesCache.containsKey(constructor)) {
+        if (!namesCache.containsKey(constructor)) {
             throw new BeanConstructorNotFoundException(beanClass, constructor.getParameterTypes());
         }
-        return (String[]) constructorParameterNamesCache.get(constructor);
+        return (String[]) namesCache.get(constructor);
     }
 
     private Map<Constructor<?>, String[]> createConstructorParameterNamesCache() {
         final Map<Constructor<?>, String[]> map = new HashMap<Constructor<?>, String[]>();
         final ClassPool pool = ClassPoolUtil.getClassPool(beanClass);
+        final Constructor<?>[] constructors = prepareConstructors();
         for (int i = 0; i < constructors.length; ++i) {
             final Constructor<?> constructor = constructors[i];
             if (constructor.getParameterTypes().length == 0) {
@@ -303,6 +446,7 @@ public class BeanDescImpl implements BeanDesc {
     }
 
     public Method getMethodNoException(final String methodName, final Class<?>[] paramTypes) {
+        prepareMethods();
         final Method[] methods = (Method[]) methodsCache.get(methodName);
         if (methods == null) {
             return null;
@@ -316,6 +460,7 @@ public class BeanDescImpl implements BeanDesc {
     }
 
     public Method[] getMethods(String methodName) throws BeanMethodNotFoundException {
+        prepareMethods();
         Method[] methods = (Method[]) methodsCache.get(methodName);
         if (methods == null) {
             throw new BeanMethodNotFoundException(beanClass, methodName, null);
@@ -324,10 +469,12 @@ public class BeanDescImpl implements BeanDesc {
     }
 
     public boolean hasMethod(String methodName) {
+        prepareMethods();
         return methodsCache.get(methodName) != null;
     }
 
     public String[] getMethodNames() {
+        prepareMethods();
         return (String[]) methodsCache.keySet().toArray(new String[methodsCache.size()]);
     }
 
@@ -348,18 +495,26 @@ public class BeanDescImpl implements BeanDesc {
     }
 
     public String[] getMethodParameterNamesNoException(final Method method) {
-        if (methodParameterNamesCache == null) {
-            methodParameterNamesCache = createMethodParameterNamesCache();
+        Map<Method, String[]> namesCache = methodParameterNamesCache;
+        if (namesCache == null) {
+            synchronized (this) {
+                namesCache = methodParameterNamesCache;
+                if (namesCache == null) {
+                    namesCache = createMethodParameterNamesCache();
+                    methodParameterNamesCache = namesCache;
+                }
+            }
         }
-        if (!methodParameterNamesCache.containsKey(method)) {
+        if (!namesCache.containsKey(method)) {
             throw new BeanMethodNotFoundException(beanClass, method.getName(), method.getParameterTypes());
         }
-        return (String[]) methodParameterNamesCache.get(method);
+        return (String[]) namesCache.get(method);
     }
 
     private Map<Method, String[]> createMethodParameterNamesCache() {
         final Map<Method, String[]> map = new HashMap<Method, String[]>();
         final ClassPool pool = ClassPoolUtil.getClassPool(beanClass);
+        prepareMethods();
         for (final Iterator<Method[]> it = methodsCache.values().iterator(); it.hasNext();) {
             final Method[] methods = (Method[]) it.next();
             for (int i = 0; i < methods.length; ++i) {
@@ -624,12 +779,12 @@ public class BeanDescImpl implements BeanDesc {
                 beAccessible(field);
                 fieldCache.put(fname, field);
                 if (LdiFieldUtil.isInstanceField(field)) {
-                    if (hasPropertyDesc(fname)) {
-                        final PropertyDesc pd = getPropertyDesc(field.getName());
+                    final PropertyDesc pd = getPropertyDesc0(fname);
+                    if (pd != null) {
                         pd.setField(field);
                     } else if (LdiFieldUtil.isPublicField(field)) {
-                        final PropertyDesc pd = new PropertyDescImpl(field.getName(), field.getType(), null, null, field, this);
-                        propertyDescCache.put(fname, pd);
+                        final PropertyDesc fieldPd = new PropertyDescImpl(field.getName(), field.getType(), null, null, field, this);
+                        propertyDescCache.put(fname, fieldPd);
                     }
                 }
             } else { // hidden field (to inject them)
@@ -676,10 +831,12 @@ public class BeanDescImpl implements BeanDesc {
 
     @Override
     public Field getField(int index) {
+        prepareProperties();
         return fieldCache.get(index);
     }
 
     public List<Field> getHiddenFieldList(String fieldName) {
+        prepareProperties();
         if (hiddenFieldCache != null) {
             final List<Field> fieldList = hiddenFieldCache.get(fieldName);
             if (fieldList != null) {
@@ -735,6 +892,6 @@ public class BeanDescImpl implements BeanDesc {
     //                                                                            Accessor
     //                                                                            ========
     Map<TypeVariable<?>, Type> getTypeVariables() {
-        return typeVariables;
+        return prepareTypeVariables();
     }
 }
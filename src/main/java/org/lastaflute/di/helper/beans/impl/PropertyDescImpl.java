@@ -15,6 +15,7 @@
  */
 package org.lastaflute.di.helper.beans.impl;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
@@ -38,6 +39,7 @@ import org.lastaflute.di.util.LdiCalendarConversionUtil;
 import org.lastaflute.di.util.LdiConstructorUtil;
 import org.lastaflute.di.util.LdiDateConversionUtil;
 import org.lastaflute.di.util.LdiFieldUtil;
+import org.lastaflute.di.util.LdiMethodHandleUtil;
 import org.lastaflute.di.util.LdiMethodUtil;
 import org.lastaflute.di.util.LdiModifierUtil;
 import org.lastaflute.di.util.LdiNumberConversionUtil;
@@ -54,6 +56,7 @@ public class PropertyDescImpl implements PropertyDesc {
     //                                                                          Definition
     //                                                                          ==========
     private static final Object[] EMPTY_ARGS = new Object[0];
+    private static final Object NO_HANDLE = new Object(); // as resolved null
 
     // ===================================================================================
     //                                                                           Attribute
@@ -63,6 +66,9 @@ public class PropertyDescImpl implements PropertyDesc {
     private final Class<?> propertyType; // not null
     private Method readMethod;
     private Method writeMethod;
+    private Object writeMethodHandle; // lazy-loaded, benign race (same handle), NO_HANDLE if cannot access
+    private Class<?> writeParameterType; // null allowed if no write method, not to clone parameter types per call
+    private Class<?> writeArgumentType; // null allowed if no write method, wrapper type of primitive parameter
     private Field field;
     private Constructor<?> stringConstructor;
     private Method valueOfMethod;
@@ -169,7 +175,15 @@ public class PropertyDescImpl implements PropertyDesc {
 
     public final void setWriteMethod(Method writeMethod) {
         this.writeMethod = writeMethod;
+        this.writeMethodHandle = null; // re-resolved when used
+        this.writeParameterType = null;
+        this.writeArgumentType = null;
         if (writeMethod != null) {
+            final Class<?>[] parameterTypes = writeMethod.getParameterTypes();
+            if (parameterTypes.length == 1) { // basically setter
+                writeParameterType = parameterTypes[0];
+                writeArgumentType = LdiMethodHandleUtil.toWrapperType(writeParameterType);
+            }
             writable = true;
             beAccessible(writeMethod);
         }
@@ -223,7 +237,12 @@ public class PropertyDescImpl implements PropertyDesc {
                 throw new IllegalStateException(propertyName + " is not writable.");
             } else if (hasWriteMethod()) {
                 try {
-                    LdiMethodUtil.invoke(writeMethod, target, new Object[] { value });
+                    final MethodHandle handle = findWriteMethodHandle(target, value);
+                    if (handle != null) {
+                        handle.invokeExact(target, value);
+                    } else { // e.g. illegal value type, to throw the same exception as before
+                        LdiMethodUtil.invoke(writeMethod, target, new Object[] { value });
+                    }
                 } catch (Throwable t) {
                     Class<?> clazz = writeMethod.getDeclaringClass();
                     Class<?> valueClass = value == null ? null : value.getClass();
@@ -236,7 +255,7 @@ public class PropertyDescImpl implements PropertyDesc {
                                     targetClass == null ? null : targetClass.getClassLoader() }).initCause(t);
                 }
             } else {
-                LdiFieldUtil.set(field, target, value);
+                LdiMethodHandleUtil.setFieldValue(field, target, value);
             }
         } catch (Throwable t) {
             // TODO jflute lastaflute: [E] fitting DI :: property desc exception message from DBFlute
@@ -244,6 +263,30 @@ public class PropertyDescImpl implements PropertyDesc {
         }
     }
 
+    protected MethodHandle findWriteMethodHandle(Object target, Object value) { // null allowed
+        if (!writeMethod.getDeclaringClass().isInstance(target) || !isHandleArgument(value)) {
+            return null; // reflection handles it (exception) because the handle cannot cast them
+        }
+        Object handle = writeMethodHandle;
+        if (handle == null) {
+            final MethodHandle created = LdiMethodHandleUtil.toWriteMethodHandle(writeMethod);
+            handle = created != null ? created : NO_HANDLE;
+            writeMethodHandle = handle;
+        }
+        return handle != NO_HANDLE ? (MethodHandle) handle : null;
+    }
+
+    protected boolean isHandleArgument(Object value) {
+        final Class<?> parameterType = writeParameterType;
+        if (parameterType == null) { // e.g. not setter, reflection handles it
+            return false;
+        }
+        if (value == null) {
+            return !parameterType.isPrimitive();
+        }
+        return writeArgumentType.isInstance(value);
+    }
+
     // ===================================================================================
     //                                                                           Bean Desc
     //                                                                           =========
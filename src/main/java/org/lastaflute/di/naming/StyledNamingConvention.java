@@ -21,6 +21,7 @@ import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.lastaflute.di.Disposable;
 import org.lastaflute.di.DisposableUtil;
@@ -28,6 +29,7 @@ import org.lastaflute.di.core.LastaDiProperties;
 import org.lastaflute.di.exception.EmptyRuntimeException;
 import org.lastaflute.di.naming.styling.StylingFreedomInterfaceMapper;
 import org.lastaflute.di.naming.styling.StylingOptionFactory;
+import org.lastaflute.di.util.ClassTraversal.ClassHandler;
 import org.lastaflute.di.util.LdiArrayUtil;
 import org.lastaflute.di.util.LdiClassUtil;
 import org.lastaflute.di.util.LdiMapUtil;
@@ -88,6 +90,8 @@ public class StyledNamingConvention implements NamingConvention, Disposable {
     protected String[] ignorePackageNames = new String[0]; // not smart even if in root package, not null but substituted as array
     protected final Set<String> hotdeployRootPackageNames = new HashSet<String>(4); // basically synchronized with root packages
     protected final Map<String, Resources[]> existenceCheckerArrays = LdiMapUtil.createHashMap();
+    protected boolean existenceClassIndex; // scans root packages once instead of checking resources each time
+    protected final Map<String, Set<String>> existenceClassIndexMap = new ConcurrentHashMap<String, Set<String>>(); // lazy loaded
 
     // -----------------------------------------------------
     //                            Interface & Implementation
@@ -113,6 +117,7 @@ public class StyledNamingConvention implements NamingConvention, Disposable {
         // _/_/_/_/_/_/_/_/_/_/
         setupPropertiesSmartPackage();
         setupFreedomInterfaceMapper();
+        setupExistenceClassIndex();
     }
 
     // -----------------------------------------------------
@@ -145,6 +150,12 @@ public class StyledNamingConvention implements NamingConvention, Disposable {
         }
     }
 
+    protected void setupExistenceClassIndex() {
+        if (LastaDiProperties.getInstance().isNamingStylingExistenceClassIndex()) {
+            useExistenceClassIndex();
+        }
+    }
+
     // ===================================================================================
     //                                                               Resource Registration
     //                                                               =====================
@@ -178,6 +189,11 @@ public class StyledNamingConvention implements NamingConvention, Disposable {
         this.freedomInterfaceMapper = freedomInterfaceMapper;
     }
 
+    // #since_lasta_di
+    public void useExistenceClassIndex() { // index is built at first check and rebuilt after dispose (e.g. hot-deploy)
+        existenceClassIndex = true;
+    }
+
     // ===================================================================================
     //                                                                 Class Determination
     //                                                                 ===================
@@ -337,7 +353,7 @@ public class StyledNamingConvention implements NamingConvention, Disposable {
             return clazz;
         }
         final String className = toImplementationClassName(clazz.getName()); // interface here
-        if (LdiResourceUtil.isExist(LdiClassUtil.getResourcePath(className))) {
+        if (isExistClassName(className)) {
             return LdiClassUtil.forName(className);
         }
         return clazz; // the interface if implementation not found
@@ -582,6 +598,9 @@ public class StyledNamingConvention implements NamingConvention, Disposable {
     //                                     -----------------
     // #for_now jflute want to change it to e.g. existsClassInRoot() but keep compatible (2021/10/03)
     protected boolean isExist(String rootPackageName, String lastClassName) {
+        if (existenceClassIndex) {
+            return getExistenceClassIndex(rootPackageName).contains(lastClassName);
+        }
         final Resources[] checkerArray = getExistCheckerArray(rootPackageName);
         for (int i = 0; i < checkerArray.length; ++i) {
             if (checkerArray[i].isExistClass(lastClassName)) {
@@ -600,6 +619,49 @@ public class StyledNamingConvention implements NamingConvention, Disposable {
         existenceCheckerArrays.put(rootPackageName, checkerArray);
     }
 
+    protected boolean isExistClassName(String className) { // for e.g. implementation class of interface
+        if (existenceClassIndex) {
+            for (int i = 0; i < rootPackageNames.length; ++i) {
+                final String rootPackagePrefix = rootPackageNames[i] + ".";
+                if (className.startsWith(rootPackagePrefix)) {
+                    return isExist(rootPackageNames[i], className.substring(rootPackagePrefix.length()));
+                }
+            }
+        }
+        return LdiResourceUtil.isExist(LdiClassUtil.getResourcePath(className)); // e.g. out of root packages
+    }
+
+    // -----------------------------------------------------
+    //                                 Existence Class Index
+    //                                 ---------------------
+    protected Set<String> getExistenceClassIndex(final String rootPackageName) {
+        Set<String> classNameSet = existenceClassIndexMap.get(rootPackageName);
+        if (classNameSet == null) { // may be built twice by other thread but no problem
+            initialize(); // for after dispose
+            classNameSet = buildExistenceClassIndex(rootPackageName);
+            existenceClassIndexMap.put(rootPackageName, classNameSet);
+        }
+        return classNameSet;
+    }
+
+    protected Set<String> buildExistenceClassIndex(final String rootPackageName) {
+        final Set<String> classNameSet = new HashSet<String>();
+        final Resources[] checkerArray = getExistCheckerArray(rootPackageName);
+        if (checkerArray == null) { // basically no way, just in case
+            return classNameSet;
+        }
+        final String rootPackagePrefix = rootPackageName + ".";
+        for (int i = 0; i < checkerArray.length; ++i) {
+            checkerArray[i].forEach((ClassHandler) (packageName, shortClassName) -> {
+                final String className = LdiClassUtil.concatName(packageName, shortClassName);
+                if (className.startsWith(rootPackagePrefix)) { // e.g. logic.SeaLogic (same as existence check)
+                    classNameSet.add(className.substring(rootPackagePrefix.length()));
+                }
+            });
+        }
+        return classNameSet;
+    }
+
     // -----------------------------------------------------
     //                         SubApplication Package Prefix
     //                         -----------------------------
@@ -627,6 +689,7 @@ public class StyledNamingConvention implements NamingConvention, Disposable {
             }
         }
         existenceCheckerArrays.clear();
+        existenceClassIndexMap.clear();
         initialized = false;
     }
 
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2015-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.di.util;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.lastaflute.di.exception.InvocationTargetRuntimeException;
+
+/**
+ * The utility of method handles for injection, faster than reflection on every call. <br>
+ * Handles are unreflected from (accessible) reflection objects,
+ * and reflection is used as fallback if the handle cannot be created. 
+ * @author jflute
+ */
+public class LdiMethodHandleUtil {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    protected static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    protected static final Object NO_HANDLE = new Object(); // as cached null
+    protected static final Object[] EMPTY_ARGS = new Object[0];
+
+    // cached per declaring class, released with the class (e.g. hot deploy class loader)
+    protected static final ClassValue<Map<String, Object>> fieldSetterCache = new ClassValue<Map<String, Object>>() {
+        @Override
+        protected Map<String, Object> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<String, Object>(); // key is field name (unique in declaring class)
+        }
+    };
+
+    protected LdiMethodHandleUtil() {
+    }
+
+    // ===================================================================================
+    //                                                                        Field Setter
+    //                                                                        ============
+    /**
+     * Set the value to the field by cached setter handle. <br>
+     * The exception is same as LdiFieldUtil.set() if illegal value.
+     * @param field The field to be set, should be accessible if private. (NotNull)
+     * @param target The target instance that has the field. (NotNull)
+     * @param value The set value. (NullAllowed)
+     */
+    public static void setFieldValue(Field field, Object target, Object value) {
+        final MethodHandle setter = findFieldSetter(field);
+        if (setter == null) {
+            LdiFieldUtil.set(field, target, value);
+            return;
+        }
+        try {
+            setter.invokeExact(target, value);
+        } catch (ClassCastException | NullPointerException e) { // e.g. illegal value type, null for primitive
+            LdiFieldUtil.set(field, target, value); // to throw the same exception as reflection
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) { // basically no way for field
+            throw new IllegalStateException("Failed to set the field value: " + field, e);
+        }
+    }
+
+    /**
+     * @param field The field to find setter, should be accessible if private. (NotNull)
+     * @return The setter handle typed as (Object, Object)void. (NullAllowed: when cannot access)
+     */
+    public static MethodHandle findFieldSetter(Field field) {
+        final Map<String, Object> setterMap = fieldSetterCache.get(field.getDeclaringClass());
+        Object setter = setterMap.get(field.getName());
+        if (setter == null) {
+            setter = createFieldSetter(field);
+            setterMap.put(field.getName(), setter);
+        }
+        return setter != NO_HANDLE ? (MethodHandle) setter : null;
+    }
+
+    protected static Object createFieldSetter(Field field) { // NO_HANDLE if cannot access
+        try {
+            return MethodHandles.lookup().unreflectSetter(field).asType(SETTER_TYPE);
+        } catch (IllegalAccessException e) { // e.g. final field, not accessible field
+            return NO_HANDLE;
+        }
+    }
+
+    // ===================================================================================
+    //                                                                        Write Method
+    //                                                                        ============
+    /**
+     * @param writeMethod The write method (one argument) to unreflect, should be accessible if private. (NotNull)
+     * @return The handle typed as (Object, Object)void, return value is ignored. (NullAllowed: when cannot access)
+     */
+    public static MethodHandle toWriteMethodHandle(Method writeMethod) {
+        try {
+            return MethodHandles.lookup().unreflect(writeMethod).asType(SETTER_TYPE);
+        } catch (IllegalAccessException e) { // e.g. not accessible method
+            return null;
+        }
+    }
+
+    // ===================================================================================
+    //                                                                        Instantiator
+    //                                                                        ============
+    /**
+     * Compile the constructor to instantiator function, which should be cached by caller. <br>
+     * No-argument constructor is compiled by LambdaMetafactory (as Supplier) if the class is visible here,
+     * others are invoked by method handle, and reflection is used if inaccessible. <br>
+     * The exceptions are same as LdiConstructorUtil.newInstance().
+     * @param constructor The constructor to be compiled, should be accessible if private. (NotNull)
+     * @return The function that makes new instance by the arguments (NullAllowed: if no argument). (NotNull)
+     */
+    public static Function<Object[], Object> toInstantiator(Constructor<?> constructor) {
+        final Class<?> declaringClass = constructor.getDeclaringClass();
+        final Function<Object[], Object> reflective = args -> LdiConstructorUtil.newInstance(constructor, args);
+        if (Modifier.isAbstract(declaringClass.getModifiers())) { // reflection throws instantiation exception
+            return reflective;
+        }
+        final MethodHandle handle;
+        try {
+            handle = MethodHandles.lookup().unreflectConstructor(constructor);
+        } catch (IllegalAccessException e) { // e.g. not public class, reflection throws the same
+            return reflective;
+        }
+        final Class<?>[] parameterTypes = constructor.getParameterTypes();
+        if (parameterTypes.length == 0) {
+            final Supplier<Object> supplier = createLambdaSupplier(constructor, handle);
+            if (supplier != null) {
+                return args -> {
+                    if (args != null && args.length > 0) {
+                        return reflective.apply(args); // illegal argument
+                    }
+                    try {
+                        return supplier.get();
+                    } catch (Throwable e) { // from constructor body
+                        throw new InvocationTargetRuntimeException(declaringClass, new InvocationTargetException(e));
+                    }
+                };
+            }
+        }
+        final MethodHandle spreader = handle.asType(handle.type().changeReturnType(Object.class))
+                .asSpreader(Object[].class, parameterTypes.length);
+        return args -> {
+            if (!isInvocableArguments(parameterTypes, args)) { // handle cannot cast them
+                return reflective.apply(args); // to throw the same exception as reflection
+            }
+            try {
+                return spreader.invoke(args != null ? args : EMPTY_ARGS);
+            } catch (Throwable e) { // from constructor body
+                throw new InvocationTargetRuntimeException(declaringClass, new InvocationTargetException(e));
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    protected static Supplier<Object> createLambdaSupplier(Constructor<?> constructor, MethodHandle handle) { // null allowed
+        final Class<?> declaringClass = constructor.getDeclaringClass();
+        if (!Modifier.isPublic(declaringClass.getModifiers()) || !Modifier.isPublic(constructor.getModifiers())) {
+            return null; // lambda class cannot access it
+        }
+        if (!isVisibleClass(declaringClass)) { // e.g. hot deploy class, lambda class is linked by this class loader
+            return null;
+        }
+        try {
+            final MethodHandles.Lookup lookup = MethodHandles.lookup();
+            final MethodType invokedType = MethodType.methodType(Supplier.class);
+            final CallSite site = LambdaMetafactory.metafactory(lookup, "get", invokedType, MethodType.methodType(Object.class), handle,
+                    MethodType.methodType(declaringClass));
+            return (Supplier<Object>) site.getTarget().invoke();
+        } catch (Throwable e) { // e.g. not public constructor, handle is used instead
+            return null;
+        }
+    }
+
+    protected static boolean isVisibleClass(Class<?> clazz) {
+        try {
+            return Class.forName(clazz.getName(), false, LdiMethodHandleUtil.class.getClassLoader()) == clazz;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    protected static boolean isInvocableArguments(Class<?>[] parameterTypes, Object[] args) {
+        final int argLength = args != null ? args.length : 0;
+        if (parameterTypes.length != argLength) {
+            return false;
+        }
+        for (int i = 0; i < argLength; i++) {
+            final Object arg = args[i];
+            if (arg == null ? parameterTypes[i].isPrimitive() : !toWrapperType(parameterTypes[i]).isInstance(arg)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ===================================================================================
+    //                                                                        Small Helper
+    //                                                                        ============
+    /**
+     * @param type The type that may be primitive. (NotNull)
+     * @return The wrapper type if primitive, or the type itself. (NotNull)
+     */
+    public static Class<?> toWrapperType(Class<?> type) {
+        return MethodType.methodType(type).wrap().returnType();
+    }
+}
@@ -0,0 +1,538 @@
+/*
+ * Copyright 2015-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.jta.dbcp;
+
+import java.lang.ref.WeakReference;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PreDestroy;
+import javax.transaction.Transaction;
+
+import org.lastaflute.jta.exception.LjtIllegalStateException;
+import org.lastaflute.jta.exception.LjtRuntimeException;
+import org.lastaflute.jta.exception.LjtSQLException;
+import org.lastaflute.jta.helper.misc.LjtExceptionMessageBuilder;
+import org.lastaflute.jta.helper.timer.LjtTimeoutManager;
+import org.lastaflute.jta.helper.timer.LjtTimeoutTask;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The connection pool without pool-wide monitor, options are the same as simple connection pool. <br>
+ * Checked-out connections are limited by a fair semaphore of maxPoolSize,
+ * free connections are in a lock-free bag and each thread tries its last checked-in connection first.
+ * Free connections are closed by one idle sweeper instead of timeout task per connection.
+ * @author jflute
+ */
+public class ConcurrentConnectionPool extends SimpleConnectionPool {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrentConnectionPool.class);
+
+    protected static final int IDLE_SWEEP_INTERVAL = 1; // seconds
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final ConcurrentLinkedDeque<PooledConnection> freeBag = new ConcurrentLinkedDeque<PooledConnection>();
+    protected final AtomicInteger freeSize = new AtomicInteger(); // because size() of deque is not constant time
+    protected final ThreadLocal<WeakReference<PooledConnection>> affinityHolder = new ThreadLocal<WeakReference<PooledConnection>>();
+    protected volatile Semaphore checkOutPermits; // lazy-loaded for maxPoolSize setting, null if unlimited
+    protected final LjtTimeoutTask idleSweepTask;
+
+    @Override
+    protected Set<ConnectionWrapper> createActivePoolSet() {
+        return ConcurrentHashMap.newKeySet();
+    }
+
+    @Override
+    protected Map<Transaction, ConnectionWrapper> createTxActivePoolMap() {
+        return new ConcurrentHashMap<Transaction, ConnectionWrapper>();
+    }
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    public ConcurrentConnectionPool() {
+        idleSweepTask = LjtTimeoutManager.getInstance().addTimeoutTarget(() -> sweepIdleConnection(), IDLE_SWEEP_INTERVAL, true);
+    }
+
+    // ===================================================================================
+    //                                                                           Check Out
+    //                                                                           =========
+    @Override
+    public ConnectionWrapper checkOut() throws SQLException {
+        final Transaction tx = getTransaction();
+        if (tx == null && isSuppressLocalTx()) { // rare case
+            throw new LjtIllegalStateException("Not begun transaction. (not allowed local transaction)");
+        }
+        ConnectionWrapper wrapper = getConnectionTxActivePool(tx);
+        if (wrapper != null) {
+            if (isInternalDebug()) {
+                logger.debug("#fw_debug ...Checking out logical connection from pool: {}", tx);
+            }
+            wrapper.saveCheckOutHistory();
+            return wrapper;
+        }
+        final long beginTime = metrics != null ? System.nanoTime() : 0L;
+        acquireCheckOutPermit();
+        if (metrics != null) {
+            metrics.recordCheckOutWait(System.nanoTime() - beginTime);
+        }
+        boolean completed = false;
+        try {
+            wrapper = checkOutFreePool(tx);
+            if (wrapper == null) {
+                wrapper = createConnection(tx);
+            }
+            final ConnectionWrapper prepared = prepareCheckedOutConnection(tx, wrapper);
+            completed = true;
+            return prepared;
+        } finally {
+            if (!completed) {
+                if (wrapper != null) { // e.g. failed to enlist, broken connection
+                    discardIncompleteConnection(tx, wrapper);
+                }
+                releaseCheckOutPermit();
+            }
+        }
+    }
+
+    protected void discardIncompleteConnection(Transaction tx, ConnectionWrapper wrapper) {
+        activePool.remove(wrapper);
+        if (tx != null) {
+            txActivePool.remove(tx, wrapper);
+        }
+        closeIncompleteConnection(wrapper);
+    }
+
+    @Override
+    protected ConnectionWrapper getConnectionTxActivePool(Transaction tx) {
+        return tx != null ? txActivePool.get(tx) : null; // concurrent map does not allow null key
+    }
+
+    @Override
+    protected void setConnectionActivePool(ConnectionWrapper connection) { // concurrent set, no monitor
+        activePool.add(connection);
+    }
+
+    @Override
+    protected void setConnectionTxActivePool(Transaction tx, ConnectionWrapper wrapper) {
+        txActivePool.put(tx, wrapper);
+    }
+
+    // -----------------------------------------------------
+    //                                               Permits
+    //                                               -------
+    protected void acquireCheckOutPermit() throws SQLException {
+        final Semaphore permits = prepareCheckOutPermits();
+        if (permits == null) { // unlimited
+            return;
+        }
+        if (permits.tryAcquire()) { // mainly here
+            return;
+        }
+        final boolean acquired;
+        try {
+            if (maxWait == -1L) {
+                permits.acquire();
+                acquired = true;
+            } else if (maxWait == 0L) {
+                acquired = false;
+            } else {
+                acquired = permits.tryAcquire(maxWait, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) { // rare case
+            throw new LjtSQLException("Cannot wait the connection back to pool", e);
+        }
+        if (!acquired) {
+            throwConnectionPoolShortFreeException(); // *extension
+        }
+    }
+
+    protected void releaseCheckOutPermit() {
+        final Semaphore permits = checkOutPermits;
+        if (permits != null) {
+            permits.release();
+        }
+    }
+
+    protected Semaphore prepareCheckOutPermits() {
+        Semaphore permits = checkOutPermits;
+        if (permits != null || getMaxPoolSize() <= 0) {
+            return permits;
+        }
+        synchronized (this) { // only once, maxPoolSize is fixed after here
+            permits = checkOutPermits;
+            if (permits == null) {
+                permits = new Semaphore(getMaxPoolSize(), true); // fair not to starve waiting threads
+                checkOutPermits = permits;
+            }
+            return permits;
+        }
+    }
+
+    // -----------------------------------------------------
+    //                                             Free Pool
+    //                                             ---------
+    protected ConnectionWrapper checkOutFreePool(Transaction tx) {
+        PooledConnection pooled;
+        while ((pooled = claimFreeConnection()) != null) {
+            final ConnectionWrapper wrapper = pooled.getConnection();
+            wrapper.init(tx);
+            if (!isCheckOutValidation()) {
+                return wrapper;
+            }
+            if (validateConnection(wrapper, pooled.getValidatedTime())) {
+                return wrapper;
+            }
+            // only the broken one is closed, next free connection is validated by itself
+        }
+        return null;
+    }
+
+    protected PooledConnection claimFreeConnection() {
+        final PooledConnection affinity = findAffinityConnection();
+        if (affinity != null && affinity.claim()) { // fast path, same connection as last time on this thread
+            freeBag.removeLastOccurrence(affinity); // recently added so near the last
+            freeSize.decrementAndGet();
+            return affinity;
+        }
+        PooledConnection pooled;
+        while ((pooled = freeBag.pollLast()) != null) { // LIFO to keep warm connections
+            if (pooled.claim()) {
+                freeSize.decrementAndGet();
+                return pooled;
+            }
+            // claimed by others (affinity or sweeper) who removes it
+        }
+        return null;
+    }
+
+    protected PooledConnection findAffinityConnection() {
+        final WeakReference<PooledConnection> ref = affinityHolder.get();
+        return ref != null ? ref.get() : null;
+    }
+
+    @Override
+    protected boolean validateConnection(ConnectionWrapper wrapper, long pooledTime) {
+        if (System.currentTimeMillis() - pooledTime < validationInterval) {
+            return true;
+        }
+        try {
+            validationCount.incrementAndGet();
+            final long beginTime = System.nanoTime();
+            boolean success = false;
+            try {
+                executeValidationQuery(wrapper);
+                success = true;
+            } finally {
+                recordValidation(beginTime, success);
+            }
+            return true;
+        } catch (Exception continued) { // database may close the connection
+            validationFailureCount.incrementAndGet();
+            try {
+                wrapper.closeReally();
+            } catch (Exception ignored) {}
+            logger.info("*Closed the free connection because of validation error: " + pooledTime, continued);
+            return false;
+        }
+    }
+
+    // ===================================================================================
+    //                                                                            Check In
+    //                                                                            ========
+    @Override
+    public void checkIn(ConnectionWrapper wrapper) {
+        final boolean removed = activePool.remove(wrapper);
+        recordHold(wrapper);
+        try {
+            checkInFreePool(wrapper);
+        } finally {
+            if (removed) { // after returning to free pool for waiting thread
+                releaseCheckOutPermit();
+            }
+        }
+    }
+
+    @Override
+    public void checkInTx(Transaction tx) {
+        if (tx == null) { // other threads might clean up!? just in case
+            return;
+        }
+        if (getTransaction() != null) { // something wrong but just in case
+            return;
+        }
+        final ConnectionWrapper wrapper = txActivePool.remove(tx);
+        if (wrapper == null) { // basically no way, just in case
+            return;
+        }
+        recordHold(wrapper);
+        try {
+            checkInFreePool(wrapper);
+        } finally {
+            releaseCheckOutPermit();
+        }
+    }
+
+    @Override
+    protected void checkInFreePool(ConnectionWrapper wrapper) {
+        wrapper.saveCheckInHistory();
+        if (getMaxPoolSize() > 0) {
+            try {
+                final Connection physicalConn = wrapper.getPhysicalConnection();
+                physicalConn.setAutoCommit(true);
+                final ConnectionWrapper inheriting = createInheritingConnectionWrapper(wrapper, physicalConn);
+                wrapper.cleanup(); // good bye, instance
+                final PooledConnection pooled = new PooledConnection(inheriting);
+                freeSize.incrementAndGet(); // before adding not to be negative by claiming thread
+                freeBag.addLast(pooled);
+                affinityHolder.set(new WeakReference<PooledConnection>(pooled));
+            } catch (SQLException e) {
+                throw new LjtRuntimeException("Failed to check in the free pool: " + wrapper, e);
+            }
+        } else {
+            wrapper.closeReally();
+        }
+    }
+
+    // ===================================================================================
+    //                                                                             Release
+    //                                                                             =======
+    @Override
+    public void release(ConnectionWrapper wrapper) {
+        boolean removed = activePool.remove(wrapper);
+        final Transaction tx = getTransaction();
+        if (tx != null && txActivePool.remove(tx) != null) {
+            removed = true;
+        }
+        recordHold(wrapper);
+        try {
+            wrapper.closeReally();
+        } finally {
+            if (removed) { // not checked-out e.g. validation of free connection
+                releaseCheckOutPermit();
+            }
+        }
+    }
+
+    // ===================================================================================
+    //                                                                          Idle Sweep
+    //                                                                          ==========
+    protected void sweepIdleConnection() {
+        final long limitTime = System.currentTimeMillis() - timeout * 1000L;
+        for (Iterator<PooledConnection> ite = freeBag.iterator(); ite.hasNext();) {
+            if (freeSize.get() <= minPoolSize) {
+                return;
+            }
+            final PooledConnection pooled = ite.next();
+            if (pooled.getPooledTime() <= limitTime && pooled.claim()) {
+                freeBag.removeFirstOccurrence(pooled); // older connections are near the first
+                freeSize.decrementAndGet();
+                closeQuietly(pooled.getConnection());
+                requestMaintenance(); // may be less than ramp-up size
+            }
+        }
+    }
+
+    protected void closeQuietly(ConnectionWrapper wrapper) {
+        try {
+            wrapper.closeReally();
+        } catch (RuntimeException continued) {
+            logger.info("Failed to close the connection: " + wrapper, continued);
+        }
+    }
+
+    // ===================================================================================
+    //                                                                         Maintenance
+    //                                                                         ===========
+    @Override
+    protected boolean reserveFillingSlot() { // no monitor, permit is held while connecting instead
+        if (maintainer == null || getMaxPoolSize() <= 0) { // closed or no pooling
+            return false;
+        }
+        final int checkedOutSize = activePool.size() + txActivePool.size();
+        if (checkedOutSize + freeSize.get() >= getMaxPoolSize()) {
+            return false;
+        }
+        if (freeSize.get() >= determineTargetFreeSize(checkedOutSize)) {
+            return false;
+        }
+        final Semaphore permits = prepareCheckOutPermits();
+        return permits == null || permits.tryAcquire(); // don't wait, check-out is prior
+    }
+
+    @Override
+    protected void completeFillingSlot(ConnectionWrapper wrapper) {
+        try {
+            if (wrapper != null) {
+                addFreeConnection(new PooledConnection(wrapper), true);
+            }
+        } finally {
+            releaseCheckOutPermit();
+        }
+    }
+
+    @Override
+    protected void validateFreePool() {
+        final long limitTime = System.currentTimeMillis() - validationInterval;
+        for (PooledConnection pooled : freeBag) { // weakly consistent, revalidated ones are added to the first
+            if (Thread.currentThread().isInterrupted() || maintainer == null) {
+                return;
+            }
+            if (pooled.getValidatedTime() > limitTime) {
+                continue;
+            }
+            final Semaphore permits = prepareCheckOutPermits();
+            if (permits != null && !permits.tryAcquire()) { // check-out is prior, next time
+                return;
+            }
+            try {
+                if (!pooled.claim()) { // checked out now
+                    continue;
+                }
+                freeBag.removeFirstOccurrence(pooled);
+                freeSize.decrementAndGet();
+                final ConnectionWrapper wrapper = pooled.getConnection();
+                if (validateInBackground(wrapper)) { // cold side because not recently used, keeping idle timeout
+                    addFreeConnection(new PooledConnection(wrapper, pooled.getPooledTime(), System.currentTimeMillis()), false);
+                }
+            } finally {
+                releaseCheckOutPermit();
+            }
+        }
+    }
+
+    protected void addFreeConnection(PooledConnection pooled, boolean recent) { // from maintainer
+        freeSize.incrementAndGet();
+        if (recent) {
+            freeBag.addLast(pooled);
+        } else {
+            freeBag.addFirst(pooled);
+        }
+        if (maintainer == null && pooled.claim()) { // closed while connecting, close() sets null before draining
+            freeBag.removeFirstOccurrence(pooled);
+            freeSize.decrementAndGet();
+            closeQuietly(pooled.getConnection());
+        }
+    }
+
+    // ===================================================================================
+    //                                                                               Close
+    //                                                                               =====
+    @PreDestroy
+    @Override
+    public void close() {
+        stopMaintainer();
+        PooledConnection pooled;
+        while ((pooled = freeBag.pollFirst()) != null) {
+            if (pooled.claim()) {
+                freeSize.decrementAndGet();
+                closeQuietly(pooled.getConnection());
+            }
+        }
+        for (Iterator<ConnectionWrapper> ite = txActivePool.values().iterator(); ite.hasNext();) {
+            ite.next().closeReally();
+        }
+        txActivePool.clear();
+        for (Iterator<ConnectionWrapper> ite = activePool.iterator(); ite.hasNext();) {
+            ite.next().closeReally();
+        }
+        activePool.clear();
+        idleSweepTask.cancel();
+        timeoutTask.cancel();
+    }
+
+    // ===================================================================================
+    //                                                                      Internal Class
+    //                                                                      ==============
+    protected static class PooledConnection {
+
+        protected final ConnectionWrapper connectionWrapper; // not null
+        protected final long pooledTime; // millisecond
+        protected final long validatedTime; // millisecond, same as pooled time until background validation
+        protected final AtomicInteger claimed = new AtomicInteger(); // 0: free, 1: claimed (by checkout, sweeper or close)
+
+        public PooledConnection(ConnectionWrapper connectionWrapper) {
+            this.connectionWrapper = connectionWrapper;
+            this.pooledTime = System.currentTimeMillis();
+            this.validatedTime = pooledTime;
+        }
+
+        public PooledConnection(ConnectionWrapper connectionWrapper, long pooledTime, long validatedTime) { // for revalidated
+            this.connectionWrapper = connectionWrapper;
+            this.pooledTime = pooledTime;
+            this.validatedTime = validatedTime;
+        }
+
+        public boolean claim() { // only one thread can own it
+            return claimed.compareAndSet(0, 1);
+        }
+
+        public ConnectionWrapper getConnection() {
+            return connectionWrapper;
+        }
+
+        public long getPooledTime() {
+            return pooledTime;
+        }
+
+        public long getValidatedTime() {
+            return validatedTime;
+        }
+
+        @Override
+        public String toString() {
+            return "pooled:{" + connectionWrapper + ", " + pooledTime + "}";
+        }
+    }
+
+    // ===================================================================================
+    //                                                                 Traceable Extension
+    //                                                                 ===================
+    @Override
+    protected void setupPendingElement(LjtExceptionMessageBuilder br) {
+        final Semaphore permits = checkOutPermits;
+        br.addItem("CheckOut Permits");
+        br.addElement("available: " + (permits != null ? permits.availablePermits() : "unlimited"));
+        br.addElement("waiting: " + (permits != null ? permits.getQueueLength() : 0));
+    }
+
+    @Override
+    protected void setupFreePoolElement(LjtExceptionMessageBuilder br) {
+        br.addElement("size: " + freeSize.get());
+        for (PooledConnection pooled : freeBag) {
+            br.addElement(pooled);
+        }
+    }
+
+    @Override
+    public int getFreePoolSize() {
+        return freeSize.get();
+    }
+}
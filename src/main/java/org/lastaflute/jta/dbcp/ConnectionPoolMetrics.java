@@ -0,0 +1,56 @@
+/*
+ * Copyright 2015-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.jta.dbcp;
+
+/**
+ * The receiver of connection pool events for monitoring. <br>
+ * Called in check-out/check-in threads so implementation should be thread-safe and cheap.
+ * Times are nanoseconds measured by System.nanoTime().
+ * @author jflute
+ */
+public interface ConnectionPoolMetrics {
+
+    /**
+     * Record waiting time for check-out slot (including lock contention), not called for reused transaction connection.
+     * @param waitNanos The nanoseconds until getting the slot, zero or small if no waiting.
+     */
+    void recordCheckOutWait(long waitNanos);
+
+    /**
+     * Record failure of check-out because of no free connection (maxWait expired).
+     */
+    void recordCheckOutTimeout();
+
+    /**
+     * Record holding time of checked-out connection, per transaction if transactional.
+     * @param holdNanos The nanoseconds from check-out to check-in (or release).
+     */
+    void recordHold(long holdNanos);
+
+    /**
+     * Record creation of physical connection, by check-out or background maintainer.
+     * @param creationNanos The nanoseconds of connecting.
+     * @param success Is the connection created?
+     */
+    void recordCreation(long creationNanos, boolean success);
+
+    /**
+     * Record validation of free connection, by check-out or background validator.
+     * @param validationNanos The nanoseconds of the validation.
+     * @param success Is the connection alive?
+     */
+    void recordValidation(long validationNanos, boolean success);
+}
@@ -54,4 +54,20 @@ public interface ConnectionWrapper extends Connection {
     String toTraceableView();
 
     void inheritHistory(ConnectionWrapper wrapper);
-}
\ No newline at end of file
+
+    // ===================================================================================
+    //                                                                             Metrics
+    //                                                                             =======
+    /**
+     * Begin holding of this connection, called at check-out only when the pool has metrics.
+     * @param beginTime The time by System.nanoTime() at check-out.
+     */
+    void beginHold(long beginTime);
+
+    /**
+     * End holding of this connection, called at check-in or release.
+     * @param endTime The time by System.nanoTime() at check-in.
+     * @return The hold duration as nanoseconds, or minus value if not holding (e.g. free connection, already ended).
+     */
+    long endHold(long endTime);
+}
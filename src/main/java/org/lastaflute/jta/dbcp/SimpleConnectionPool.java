@@ -26,7 +26,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
+import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import javax.sql.XAConnection;
 import javax.sql.XADataSource;
@@ -90,6 +96,13 @@ public class SimpleConnectionPool implements ConnectionPool {
 
     protected String validationQuery; // SQL to check connection life when checking out e.g. select 1 from dual
     protected long validationInterval; // milliseconds as validation query interval
+    protected boolean backgroundValidation; // validate free connections by maintainer instead of check-out? (needs maintenanceInterval)
+    protected int validationTimeout = 5; // seconds for Connection.isValid() when background validation without query
+
+    protected ConnectionPoolMetrics metrics; // null allowed: no recording
+
+    protected long maintenanceInterval; // milliseconds of background maintenance (0: no maintainer, created lazily by check-out)
+    protected int rampUpAheadSize; // count of free connections prepared ahead of demand while checked-out (within maxPoolSize)
 
     // -----------------------------------------------------
     //                                       Internal Helper
@@ -98,6 +111,11 @@ public class SimpleConnectionPool implements ConnectionPool {
     protected final Map<Transaction, ConnectionWrapper> txActivePool = createTxActivePoolMap();
     protected final LjtLinkedList freePool = createFreePoolList();
     protected final LjtTimeoutTask timeoutTask;
+    protected int pendingCount; // reserved slots whose connection is being opened or validated (guarded by monitor)
+    protected volatile ScheduledExecutorService maintainer; // null if no maintenance
+    protected final AtomicBoolean maintenanceRequested = new AtomicBoolean(); // to avoid duplicate request
+    protected final AtomicLong validationCount = new AtomicLong(); // executed validation (check-out and background)
+    protected final AtomicLong validationFailureCount = new AtomicLong(); // broken connections found by validation
 
     protected Set<ConnectionWrapper> createActivePoolSet() {
         return new HashSet<ConnectionWrapper>();
@@ -128,21 +146,63 @@ public class SimpleConnectionPool implements ConnectionPool {
     // ===================================================================================
     //                                                                           Check Out
     //                                                                           =========
-    public synchronized ConnectionWrapper checkOut() throws SQLException {
+    public ConnectionWrapper checkOut() throws SQLException {
         final Transaction tx = getTransaction();
         if (tx == null && isSuppressLocalTx()) { // rare case
             throw new LjtIllegalStateException("Not begun transaction. (not allowed local transaction)");
         }
-        ConnectionWrapper wrapper = getConnectionTxActivePool(tx);
-        if (wrapper != null) {
-            if (isInternalDebug()) {
-                logger.debug("#fw_debug ...Checking out logical connection from pool: {}", tx);
+        final long beginTime = metrics != null ? System.nanoTime() : 0L;
+        final FreeItem reservedItem;
+        synchronized (this) { // only slot reservation here, physical connect/validate are outside
+            final ConnectionWrapper existing = getConnectionTxActivePool(tx);
+            if (existing != null) {
+                if (isInternalDebug()) {
+                    logger.debug("#fw_debug ...Checking out logical connection from pool: {}", tx);
+                }
+                existing.saveCheckOutHistory();
+                return existing;
+            }
+            waitForCheckOutSlot();
+            if (metrics != null) { // including monitor contention
+                metrics.recordCheckOutWait(System.nanoTime() - beginTime);
+            }
+            reservedItem = reserveFreeItem();
+            ++pendingCount; // counted as checked-out until registered to active pool
+        }
+        ConnectionWrapper wrapper = null;
+        boolean completed = false;
+        try {
+            if (reservedItem != null) {
+                wrapper = checkOutFreeItem(tx, reservedItem);
+            }
+            if (wrapper == null) {
+                wrapper = createConnection(tx);
+            }
+            final ConnectionWrapper prepared = prepareCheckedOutConnection(tx, wrapper);
+            completed = true;
+            return prepared;
+        } finally {
+            synchronized (this) {
+                --pendingCount; // after registration to active pool so the count never exceeds maximum
+                if (!completed) {
+                    if (wrapper != null) { // e.g. failed to enlist, broken connection
+                        activePool.remove(wrapper);
+                        if (tx != null && txActivePool.get(tx) == wrapper) {
+                            txActivePool.remove(tx);
+                        }
+                    }
+                    notify(); // the slot is free for waiting thread
+                }
+            }
+            if (!completed && wrapper != null) {
+                closeIncompleteConnection(wrapper);
             }
-            wrapper.saveCheckOutHistory();
-            return wrapper;
         }
+    }
+
+    protected void waitForCheckOutSlot() throws SQLException { // in monitor
         long wait = maxWait;
-        while (getMaxPoolSize() > 0 && getActivePoolSize() + getTxActivePoolSize() >= getMaxPoolSize()) {
+        while (getMaxPoolSize() > 0 && getActivePoolSize() + getTxActivePoolSize() + pendingCount >= getMaxPoolSize()) {
             if (wait == 0L) {
                 throwConnectionPoolShortFreeException(); // *extension
             }
@@ -157,9 +217,19 @@ public class SimpleConnectionPool implements ConnectionPool {
                 wait -= Math.min(wait, elapseTime);
             }
         }
-        wrapper = checkOutFreePool(tx);
-        if (wrapper == null) {
-            wrapper = createConnection(tx);
+    }
+
+    protected void closeIncompleteConnection(ConnectionWrapper wrapper) {
+        try {
+            wrapper.closeReally();
+        } catch (RuntimeException continued) {
+            logger.info("Failed to close the incomplete connection: " + wrapper, continued);
+        }
+    }
+
+    protected ConnectionWrapper prepareCheckedOutConnection(Transaction tx, ConnectionWrapper wrapper) throws SQLException {
+        if (metrics != null) { // before registration to pools so check-in thread can see it
+            wrapper.beginHold(System.nanoTime());
         }
         if (tx == null) {
             setConnectionActivePool(wrapper);
@@ -197,34 +267,46 @@ public class SimpleConnectionPool implements ConnectionPool {
         return (ConnectionWrapper) txActivePool.get(tx);
     }
 
-    protected void setConnectionActivePool(ConnectionWrapper connection) {
+    protected synchronized void setConnectionActivePool(ConnectionWrapper connection) { // called out of check-out monitor
         activePool.add(connection);
     }
 
-    protected void setConnectionTxActivePool(Transaction tx, ConnectionWrapper wrapper) {
+    protected synchronized void setConnectionTxActivePool(Transaction tx, ConnectionWrapper wrapper) {
         txActivePool.put(tx, wrapper);
     }
 
     // -----------------------------------------------------
     //                                             Free Pool
     //                                             ---------
-    protected ConnectionWrapper checkOutFreePool(Transaction tx) {
+    protected FreeItem reserveFreeItem() { // in monitor
         if (freePool.isEmpty()) {
             return null;
         }
-        final FreeItem item = (FreeItem) freePool.removeLast();
-        final ConnectionWrapper wrapper = item.getConnection();
+        return (FreeItem) freePool.removeLast();
+    }
+
+    protected ConnectionWrapper checkOutFreeItem(Transaction tx, FreeItem item) { // out of monitor
+        final ConnectionWrapper wrapper = item.reserve();
+        if (wrapper == null) { // already closed by expiration, basically no way
+            return null;
+        }
         wrapper.init(tx);
-        item.destroy();
-        if (validationQuery == null || validationQuery.isEmpty()) {
+        if (!isCheckOutValidation()) {
             return wrapper;
         }
-        if (validateConnection(wrapper, item.getPooledTime())) {
+        if (validateConnection(wrapper, item.getValidatedTime())) {
             return wrapper;
         }
         return null;
     }
 
+    protected boolean isCheckOutValidation() {
+        if (isBackgroundValidationActive()) { // no database round trip in check-out
+            return false;
+        }
+        return validationQuery != null && !validationQuery.isEmpty();
+    }
+
     protected boolean validateConnection(ConnectionWrapper wrapper, long pooledTime) {
         final long currentTime = System.currentTimeMillis();
         if (currentTime - pooledTime < validationInterval) {
@@ -235,10 +317,19 @@ public class SimpleConnectionPool implements ConnectionPool {
                 logger.debug("#fw_debug ...Executing validation query: conn={}, current={}, pooled={}, interval={}", wrapper, currentTime,
                         pooledTime, validationInterval);
             }
-            executeValidationQuery(wrapper);
+            validationCount.incrementAndGet();
+            final long beginTime = System.nanoTime();
+            boolean success = false;
+            try {
+                executeValidationQuery(wrapper);
+                success = true;
+            } finally {
+                recordValidation(beginTime, success);
+            }
         } catch (Exception continued) { // database may close the connection
+            validationFailureCount.incrementAndGet();
             try {
-                wrapper.close(); // contains check-in process (the connection moves to free pool here)
+                wrapper.closeReally(); // reserved connection so not returned to free pool
             } catch (Exception ignored) {}
             destroyFreePoolConnection(); // others also are broken (of course, don't close active)
             logger.info("*Destroyed the all free connections because of one validation error: " + pooledTime, continued);
@@ -256,7 +347,7 @@ public class SimpleConnectionPool implements ConnectionPool {
         }
     }
 
-    protected void destroyFreePoolConnection() {
+    protected synchronized void destroyFreePoolConnection() {
         for (LjtLinkedList.Entry entry = freePool.getFirstEntry(); entry != null; entry = entry.getNext()) {
             final FreeItem item = (FreeItem) entry.getElement();
             try {
@@ -264,14 +355,26 @@ public class SimpleConnectionPool implements ConnectionPool {
             } catch (Exception ignored) {}
         }
         freePool.clear();
+        requestMaintenance(); // refill in background
     }
 
     // -----------------------------------------------------
     //                                     Create Connection
     //                                     -----------------
     protected ConnectionWrapper createConnection(Transaction tx) throws SQLException {
-        final XAConnection xaConn = xaDataSource.getXAConnection();
-        final Connection conn = xaConn.getConnection();
+        final long beginTime = metrics != null ? System.nanoTime() : 0L;
+        boolean success = false;
+        final XAConnection xaConn;
+        final Connection conn;
+        try {
+            xaConn = xaDataSource.getXAConnection();
+            conn = xaConn.getConnection();
+            success = true;
+        } finally {
+            if (metrics != null) {
+                metrics.recordCreation(System.nanoTime() - beginTime, success);
+            }
+        }
         final ConnectionWrapper wrapper = createTransactionalConnectionWrapper(xaConn, conn, tx);
         if (logger.isDebugEnabled()) {
             logger.debug("Created physical connection: tx={}, conn={}", tx, conn);
@@ -289,6 +392,7 @@ public class SimpleConnectionPool implements ConnectionPool {
     //                                                                            ========
     public synchronized void checkIn(ConnectionWrapper wrapper) {
         activePool.remove(wrapper);
+        recordHold(wrapper);
         checkInFreePool(wrapper);
     }
 
@@ -303,6 +407,7 @@ public class SimpleConnectionPool implements ConnectionPool {
         if (wrapper == null) { // basically no way, just in case
             return;
         }
+        recordHold(wrapper);
         checkInFreePool(wrapper);
     }
 
@@ -339,15 +444,201 @@ public class SimpleConnectionPool implements ConnectionPool {
         if (tx != null) {
             txActivePool.remove(tx);
         }
+        recordHold(wrapper); // nothing if not checked-out e.g. validation of free connection
         wrapper.closeReally();
         notify();
     }
 
+    // ===================================================================================
+    //                                                                         Maintenance
+    //                                                                         ===========
+    /**
+     * Start background maintainer that fills free pool to minPoolSize (and ramp-up size) ahead of check-out. <br>
+     * Nothing if maintenanceInterval is zero, physical connections are created lazily by check-out then.
+     */
+    @PostConstruct
+    public synchronized void startMaintainer() {
+        if (maintenanceInterval <= 0L || maintainer != null) {
+            return;
+        }
+        final ScheduledExecutorService service = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "LastaDi-JTA-PoolMaintainer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // not timeout manager thread because connecting may block transaction timeout there
+        service.scheduleWithFixedDelay(() -> maintain(), 0L, maintenanceInterval, TimeUnit.MILLISECONDS);
+        maintainer = service;
+    }
+
+    protected void stopMaintainer() {
+        final ScheduledExecutorService service = maintainer;
+        if (service != null) {
+            maintainer = null;
+            service.shutdownNow();
+        }
+    }
+
+    protected void requestMaintenance() { // e.g. after eviction
+        final ScheduledExecutorService service = maintainer;
+        if (service != null && maintenanceRequested.compareAndSet(false, true)) {
+            try {
+                service.execute(() -> maintain());
+            } catch (RuntimeException ignored) { // e.g. rejected after closing
+                maintenanceRequested.set(false);
+            }
+        }
+    }
+
+    protected void maintain() { // in maintainer thread
+        maintenanceRequested.set(false);
+        try {
+            if (isBackgroundValidationActive()) {
+                validateFreePool(); // before filling to refill evicted connections
+            }
+            fillFreePool();
+        } catch (RuntimeException continued) { // to keep scheduling
+            logger.info("Failed to maintain the connection pool: " + this, continued);
+        }
+    }
+
+    protected void fillFreePool() {
+        while (!Thread.currentThread().isInterrupted() && reserveFillingSlot()) {
+            ConnectionWrapper wrapper = null;
+            try {
+                wrapper = createConnection(null);
+            } catch (SQLException continued) { // e.g. database is down, retry next time
+                logger.info("Failed to create the connection for free pool: " + continued.getMessage());
+            } finally {
+                completeFillingSlot(wrapper);
+            }
+            if (wrapper == null) {
+                return;
+            }
+        }
+    }
+
+    protected synchronized boolean reserveFillingSlot() { // counted as pending so check-out limit covers it
+        if (maintainer == null || getMaxPoolSize() <= 0) { // closed or no pooling
+            return false;
+        }
+        final int checkedOutSize = getActivePoolSize() + getTxActivePoolSize() + pendingCount;
+        final int currentSize = checkedOutSize + freePool.size();
+        if (currentSize >= getMaxPoolSize()) {
+            return false;
+        }
+        if (freePool.size() >= determineTargetFreeSize(checkedOutSize)) {
+            return false;
+        }
+        ++pendingCount;
+        return true;
+    }
+
+    protected int determineTargetFreeSize(int checkedOutSize) {
+        // spare connections only while busy, otherwise idle timeout closes them and filled again repeatedly
+        return Math.max(minPoolSize, checkedOutSize > 0 ? rampUpAheadSize : 0);
+    }
+
+    protected synchronized void completeFillingSlot(ConnectionWrapper wrapper) { // null allowed when failure
+        --pendingCount;
+        if (wrapper != null) {
+            if (maintainer != null) {
+                freePool.addLast(new FreeItem(wrapper));
+            } else { // closed while connecting
+                wrapper.closeReally();
+            }
+        }
+        notify(); // for waiting check-out
+    }
+
+    // -----------------------------------------------------
+    //                                 Background Validation
+    //                                 ---------------------
+    protected boolean isBackgroundValidationActive() {
+        return backgroundValidation && maintainer != null;
+    }
+
+    protected void validateFreePool() { // one by one to keep other free connections available
+        final long limitTime = System.currentTimeMillis() - validationInterval;
+        int remaining = getFreePoolSize(); // each connection once at most
+        FreeItem item;
+        while (remaining-- > 0 && !Thread.currentThread().isInterrupted() && (item = reserveValidationTarget(limitTime)) != null) {
+            final ConnectionWrapper wrapper = item.reserve();
+            final boolean alive = wrapper != null && validateInBackground(wrapper);
+            completeValidationTarget(item, alive ? wrapper : null);
+        }
+    }
+
+    protected synchronized FreeItem reserveValidationTarget(long limitTime) { // counted as pending while validating
+        if (maintainer == null) { // closed
+            return null;
+        }
+        for (LjtLinkedList.Entry entry = freePool.getFirstEntry(); entry != null; entry = entry.getNext()) { // older first
+            final FreeItem item = (FreeItem) entry.getElement();
+            if (item.getValidatedTime() <= limitTime) {
+                entry.remove();
+                ++pendingCount;
+                return item;
+            }
+        }
+        return null;
+    }
+
+    protected synchronized void completeValidationTarget(FreeItem item, ConnectionWrapper aliveWrapper) { // null allowed when broken
+        --pendingCount;
+        if (aliveWrapper != null) {
+            if (maintainer != null) { // cold side because not recently used, keeping idle timeout
+                freePool.addFirst(new FreeItem(aliveWrapper, item.getPooledTime(), System.currentTimeMillis()));
+            } else { // closed while validating
+                aliveWrapper.closeReally();
+            }
+        }
+        notify(); // for waiting check-out
+    }
+
+    protected boolean validateInBackground(ConnectionWrapper wrapper) { // closes only the broken connection
+        validationCount.incrementAndGet();
+        final long beginTime = System.nanoTime();
+        boolean success = false;
+        try {
+            try {
+                executeBackgroundValidation(wrapper.getPhysicalConnection());
+                success = true;
+            } finally {
+                recordValidation(beginTime, success);
+            }
+            return true;
+        } catch (Exception continued) { // e.g. closed by database, network trouble
+            validationFailureCount.incrementAndGet();
+            try {
+                wrapper.closeReally();
+            } catch (Exception ignored) {}
+            logger.info("*Evicted the broken free connection by background validation: " + wrapper, continued);
+            return false;
+        }
+    }
+
+    protected void executeBackgroundValidation(Connection physicalConn) throws SQLException {
+        if (validationQuery != null && !validationQuery.isEmpty()) {
+            final PreparedStatement ps = physicalConn.prepareStatement(validationQuery);
+            try {
+                ps.executeQuery();
+            } finally {
+                ps.close();
+            }
+        } else {
+            if (!physicalConn.isValid(validationTimeout)) {
+                throw new SQLException("The connection is not valid: " + physicalConn);
+            }
+        }
+    }
+
     // ===================================================================================
     //                                                                               Close
     //                                                                               =====
     @PreDestroy
     public synchronized void close() {
+        stopMaintainer();
         for (LjtLinkedList.Entry entry = freePool.getFirstEntry(); entry != null; entry = entry.getNext()) {
             final FreeItem item = (FreeItem) entry.getElement();
             item.getConnection().closeReally();
@@ -375,11 +666,21 @@ public class SimpleConnectionPool implements ConnectionPool {
         protected ConnectionWrapper connectionWrapper_;
         protected LjtTimeoutTask timeoutTask_;
         protected long pooledTime; // millisecond
+        protected long validatedTime; // millisecond, same as pooled time until background validation
 
         protected FreeItem(ConnectionWrapper connectionWrapper) {
             connectionWrapper_ = connectionWrapper;
             timeoutTask_ = LjtTimeoutManager.getInstance().addTimeoutTarget(this, timeout, false);
             pooledTime = System.currentTimeMillis();
+            validatedTime = pooledTime;
+        }
+
+        protected FreeItem(ConnectionWrapper connectionWrapper, long pooledTime, long validatedTime) { // for revalidated
+            connectionWrapper_ = connectionWrapper;
+            final int elapsedSec = (int) ((System.currentTimeMillis() - pooledTime) / 1000L);
+            timeoutTask_ = LjtTimeoutManager.getInstance().addTimeoutTarget(this, Math.max(timeout - elapsedSec, 0), false);
+            this.pooledTime = pooledTime;
+            this.validatedTime = validatedTime;
         }
 
         public ConnectionWrapper getConnection() {
@@ -390,12 +691,18 @@ public class SimpleConnectionPool implements ConnectionPool {
             return pooledTime;
         }
 
+        public long getValidatedTime() {
+            return validatedTime;
+        }
+
         public void expired() {
             synchronized (SimpleConnectionPool.this) {
                 if (freePool.size() <= minPoolSize) {
                     return;
                 }
-                freePool.remove(this);
+                if (!freePool.remove(this)) { // already reserved by check-out or validation
+                    return;
+                }
             }
             synchronized (this) {
                 if (connectionWrapper_ != null) {
@@ -403,6 +710,13 @@ public class SimpleConnectionPool implements ConnectionPool {
                     connectionWrapper_ = null;
                 }
             }
+            requestMaintenance(); // may be less than ramp-up size
+        }
+
+        public synchronized ConnectionWrapper reserve() { // the connection is owned by caller after this
+            final ConnectionWrapper reserved = connectionWrapper_;
+            destroy();
+            return reserved;
         }
 
         public synchronized void destroy() {
@@ -438,6 +752,24 @@ public class SimpleConnectionPool implements ConnectionPool {
         }
     }
 
+    // ===================================================================================
+    //                                                                             Metrics
+    //                                                                             =======
+    protected void recordHold(ConnectionWrapper wrapper) {
+        if (metrics != null) {
+            final long holdNanos = wrapper.endHold(System.nanoTime());
+            if (holdNanos >= 0L) { // minus if not checked-out
+                metrics.recordHold(holdNanos);
+            }
+        }
+    }
+
+    protected void recordValidation(long beginTime, boolean success) {
+        if (metrics != null) {
+            metrics.recordValidation(System.nanoTime() - beginTime, success);
+        }
+    }
+
     // ===================================================================================
     //                                                                     Wrapper Creator
     //                                                                     ===============
@@ -457,6 +789,9 @@ public class SimpleConnectionPool implements ConnectionPool {
     //                                                                 Traceable Extension
     //                                                                 ===================
     protected void throwConnectionPoolShortFreeException() throws SQLException {
+        if (metrics != null) {
+            metrics.recordCheckOutTimeout();
+        }
         final LjtExceptionMessageBuilder br = new LjtExceptionMessageBuilder();
         br.addNotice("Connection pool did not have a free connection.");
         br.addItem("Pool Settings");
@@ -464,6 +799,8 @@ public class SimpleConnectionPool implements ConnectionPool {
         br.addElement("minPoolSize: " + minPoolSize);
         br.addElement("maxWait: " + maxWait);
         br.addElement("timeout: " + timeout);
+        br.addElement("maintenanceInterval: " + maintenanceInterval);
+        setupPendingElement(br);
         br.addItem("Plain ActivePool");
         br.addElement("size: " + activePool.size());
         for (ConnectionWrapper wrapper : activePool) {
@@ -479,12 +816,21 @@ public class SimpleConnectionPool implements ConnectionPool {
             br.addElement(exp);
         }
         br.addItem("FreePool");
+        setupFreePoolElement(br);
+        final String msg = br.buildExceptionMessage();
+        throw new ConnectionPoolShortFreeSQLException(msg);
+    }
+
+    protected void setupPendingElement(LjtExceptionMessageBuilder br) {
+        br.addItem("Pending CheckOut");
+        br.addElement("size: " + pendingCount);
+    }
+
+    protected void setupFreePoolElement(LjtExceptionMessageBuilder br) {
         br.addElement("size: " + freePool.size());
         for (int i = 0; i < freePool.size(); i++) {
             br.addElement(freePool.get(i));
         }
-        final String msg = br.buildExceptionMessage();
-        throw new ConnectionPoolShortFreeSQLException(msg);
     }
 
     public synchronized List<String> extractActiveTransactionExpList() {
@@ -599,6 +945,46 @@ public class SimpleConnectionPool implements ConnectionPool {
         this.validationInterval = validationInterval;
     }
 
+    public long getMaintenanceInterval() {
+        return maintenanceInterval;
+    }
+
+    public void setMaintenanceInterval(long maintenanceInterval) {
+        this.maintenanceInterval = maintenanceInterval;
+    }
+
+    public int getRampUpAheadSize() {
+        return rampUpAheadSize;
+    }
+
+    public void setRampUpAheadSize(int rampUpAheadSize) {
+        this.rampUpAheadSize = rampUpAheadSize;
+    }
+
+    public boolean isBackgroundValidation() {
+        return backgroundValidation;
+    }
+
+    public void setBackgroundValidation(boolean backgroundValidation) {
+        this.backgroundValidation = backgroundValidation;
+    }
+
+    public int getValidationTimeout() {
+        return validationTimeout;
+    }
+
+    public void setValidationTimeout(int validationTimeout) {
+        this.validationTimeout = validationTimeout;
+    }
+
+    public ConnectionPoolMetrics getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(ConnectionPoolMetrics metrics) {
+        this.metrics = metrics;
+    }
+
     // -----------------------------------------------------
     //                                             Pool Size
     //                                             ---------
@@ -613,4 +999,15 @@ public class SimpleConnectionPool implements ConnectionPool {
     public int getFreePoolSize() {
         return freePool.size();
     }
+
+    // -----------------------------------------------------
+    //                                            Validation
+    //                                            ----------
+    public long getValidationCount() {
+        return validationCount.get();
+    }
+
+    public long getValidationFailureCount() {
+        return validationFailureCount.get();
+    }
 }
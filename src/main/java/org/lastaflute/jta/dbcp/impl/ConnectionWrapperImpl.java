@@ -66,6 +66,8 @@ public class ConnectionWrapperImpl implements ConnectionWrapper, ConnectionEvent
     protected ConnectionPool connectionPool;
     protected boolean closed = false;
     protected Transaction tx;
+    protected boolean holding; // only when metrics, published to check-in thread by pool registration
+    protected long holdBeginTime; // by System.nanoTime(), valid only when holding
 
     // ===================================================================================
     //                                                                         Constructor
@@ -189,6 +191,24 @@ public class ConnectionWrapperImpl implements ConnectionWrapper, ConnectionEvent
         return toString();
     }
 
+    // -----------------------------------------------------
+    //                                               Metrics
+    //                                               -------
+    @Override
+    public void beginHold(long beginTime) {
+        holdBeginTime = beginTime;
+        holding = true;
+    }
+
+    @Override
+    public long endHold(long endTime) {
+        if (!holding) {
+            return -1L;
+        }
+        holding = false;
+        return endTime - holdBeginTime;
+    }
+
     // ===================================================================================
     //                                                           Connection Implementation
     //                                                           =========================
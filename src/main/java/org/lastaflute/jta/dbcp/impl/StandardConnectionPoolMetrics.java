@@ -0,0 +1,256 @@
+/*
+ * Copyright 2015-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.jta.dbcp.impl;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.lastaflute.jta.dbcp.ConnectionPoolMetrics;
+import org.lastaflute.jta.exception.LjtRuntimeException;
+import org.lastaflute.jta.helper.metrics.LjtLatencyHistogram;
+
+/**
+ * The standard metrics of connection pool by counters and latency histograms. <br>
+ * You can poll the histograms directly or export them as MBean by registerMBean().
+ * <pre>
+ * &lt;component name="connectionPool" class="org.lastaflute.jta.dbcp.SimpleConnectionPool"&gt;
+ *     &lt;property name="metrics"&gt;
+ *         new org.lastaflute.jta.dbcp.impl.StandardConnectionPoolMetrics()
+ *     &lt;/property&gt;
+ *     ...
+ * </pre>
+ * @author jflute
+ */
+public class StandardConnectionPoolMetrics implements ConnectionPoolMetrics, StandardConnectionPoolMetricsMBean {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    public static final String DEFAULT_OBJECT_NAME_PREFIX = "org.lastaflute.jta:type=ConnectionPoolMetrics,name=";
+
+    protected static final double NANOS_PER_MILLI = 1000000.0;
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final LjtLatencyHistogram checkOutWaitHistogram = new LjtLatencyHistogram();
+    protected final LjtLatencyHistogram holdHistogram = new LjtLatencyHistogram();
+    protected final LjtLatencyHistogram creationHistogram = new LjtLatencyHistogram();
+    protected final LjtLatencyHistogram validationHistogram = new LjtLatencyHistogram();
+    protected final LongAdder checkOutTimeoutCount = new LongAdder();
+    protected final LongAdder creationFailureCount = new LongAdder();
+    protected final LongAdder validationFailureCount = new LongAdder();
+
+    // ===================================================================================
+    //                                                                              Record
+    //                                                                              ======
+    @Override
+    public void recordCheckOutWait(long waitNanos) {
+        checkOutWaitHistogram.record(waitNanos);
+    }
+
+    @Override
+    public void recordCheckOutTimeout() {
+        checkOutTimeoutCount.increment();
+    }
+
+    @Override
+    public void recordHold(long holdNanos) {
+        holdHistogram.record(holdNanos);
+    }
+
+    @Override
+    public void recordCreation(long creationNanos, boolean success) {
+        creationHistogram.record(creationNanos);
+        if (!success) {
+            creationFailureCount.increment();
+        }
+    }
+
+    @Override
+    public void recordValidation(long validationNanos, boolean success) {
+        validationHistogram.record(validationNanos);
+        if (!success) {
+            validationFailureCount.increment();
+        }
+    }
+
+    // ===================================================================================
+    //                                                                                 JMX
+    //                                                                                 ===
+    /**
+     * Register this metrics to platform MBean server.
+     * @param poolName The name to identify the pool in object name e.g. main, replica. (NotNull)
+     * @return The registered object name to unregister. (NotNull)
+     */
+    public ObjectName registerMBean(String poolName) {
+        if (poolName == null) {
+            throw new IllegalArgumentException("The argument 'poolName' should not be null.");
+        }
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            final ObjectName objectName = new ObjectName(DEFAULT_OBJECT_NAME_PREFIX + ObjectName.quote(poolName));
+            server.registerMBean(this, objectName);
+            return objectName;
+        } catch (JMException e) {
+            throw new LjtRuntimeException("Failed to register the connection pool metrics: " + poolName, e);
+        }
+    }
+
+    public void unregisterMBean(ObjectName objectName) {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            throw new LjtRuntimeException("Failed to unregister the connection pool metrics: " + objectName, e);
+        }
+    }
+
+    // ===================================================================================
+    //                                                                           Check Out
+    //                                                                           =========
+    @Override
+    public long getCheckOutCount() {
+        return checkOutWaitHistogram.getCount();
+    }
+
+    @Override
+    public double getCheckOutWaitMeanMillis() {
+        return toMillis(checkOutWaitHistogram.getMean());
+    }
+
+    @Override
+    public double getCheckOutWaitP99Millis() {
+        return toMillis(checkOutWaitHistogram.getPercentile(99.0));
+    }
+
+    @Override
+    public double getCheckOutWaitMaxMillis() {
+        return toMillis(checkOutWaitHistogram.getMax());
+    }
+
+    @Override
+    public long getCheckOutTimeoutCount() {
+        return checkOutTimeoutCount.sum();
+    }
+
+    // ===================================================================================
+    //                                                                                Hold
+    //                                                                                ====
+    @Override
+    public long getHoldCount() {
+        return holdHistogram.getCount();
+    }
+
+    @Override
+    public double getHoldMeanMillis() {
+        return toMillis(holdHistogram.getMean());
+    }
+
+    @Override
+    public double getHoldP99Millis() {
+        return toMillis(holdHistogram.getPercentile(99.0));
+    }
+
+    @Override
+    public double getHoldMaxMillis() {
+        return toMillis(holdHistogram.getMax());
+    }
+
+    // ===================================================================================
+    //                                                                            Creation
+    //                                                                            ========
+    @Override
+    public long getCreationCount() {
+        return creationHistogram.getCount();
+    }
+
+    @Override
+    public long getCreationFailureCount() {
+        return creationFailureCount.sum();
+    }
+
+    @Override
+    public double getCreationP99Millis() {
+        return toMillis(creationHistogram.getPercentile(99.0));
+    }
+
+    @Override
+    public double getCreationMaxMillis() {
+        return toMillis(creationHistogram.getMax());
+    }
+
+    // ===================================================================================
+    //                                                                          Validation
+    //                                                                          ==========
+    @Override
+    public long getValidationCount() {
+        return validationHistogram.getCount();
+    }
+
+    @Override
+    public long getValidationFailureCount() {
+        return validationFailureCount.sum();
+    }
+
+    @Override
+    public double getValidationP99Millis() {
+        return toMillis(validationHistogram.getPercentile(99.0));
+    }
+
+    @Override
+    public double getValidationMaxMillis() {
+        return toMillis(validationHistogram.getMax());
+    }
+
+    // ===================================================================================
+    //                                                                        Assist Logic
+    //                                                                        ============
+    protected double toMillis(long nanos) {
+        return nanos / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public String toString() {
+        return "metrics:{checkOutWait=" + checkOutWaitHistogram + ", timeout=" + getCheckOutTimeoutCount() + ", hold=" + holdHistogram
+                + ", creation=" + creationHistogram + ", validation=" + validationHistogram + "}";
+    }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    public LjtLatencyHistogram getCheckOutWaitHistogram() {
+        return checkOutWaitHistogram;
+    }
+
+    public LjtLatencyHistogram getHoldHistogram() {
+        return holdHistogram;
+    }
+
+    public LjtLatencyHistogram getCreationHistogram() {
+        return creationHistogram;
+    }
+
+    public LjtLatencyHistogram getValidationHistogram() {
+        return validationHistogram;
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2015-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.jta.dbcp.impl;
+
+/**
+ * The JMX interface of standard connection pool metrics, times are milliseconds.
+ * @author jflute
+ */
+public interface StandardConnectionPoolMetricsMBean {
+
+    // ===================================================================================
+    //                                                                           Check Out
+    //                                                                           =========
+    long getCheckOutCount();
+
+    double getCheckOutWaitMeanMillis();
+
+    double getCheckOutWaitP99Millis();
+
+    double getCheckOutWaitMaxMillis();
+
+    long getCheckOutTimeoutCount();
+
+    // ===================================================================================
+    //                                                                                Hold
+    //                                                                                ====
+    long getHoldCount();
+
+    double getHoldMeanMillis();
+
+    double getHoldP99Millis();
+
+    double getHoldMaxMillis();
+
+    // ===================================================================================
+    //                                                                            Creation
+    //                                                                            ========
+    long getCreationCount();
+
+    long getCreationFailureCount();
+
+    double getCreationP99Millis();
+
+    double getCreationMaxMillis();
+
+    // ===================================================================================
+    //                                                                          Validation
+    //                                                                          ==========
+    long getValidationCount();
+
+    long getValidationFailureCount();
+
+    double getValidationP99Millis();
+
+    double getValidationMaxMillis();
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2015-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.jta.helper.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The lock-free histogram of latency in nanoseconds. <br>
+ * Buckets are log-linear (four buckets per power of two) so percentiles are upper bounds within 25% error,
+ * fixed memory and no dependency, enough to watch connection pool waiting.
+ * @author jflute
+ */
+public class LjtLatencyHistogram {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    protected static final int SUB_BUCKET_BITS = 2;
+    protected static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    protected static final int BUCKET_SIZE = 64 * SUB_BUCKET_COUNT;
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final AtomicLongArray buckets = new AtomicLongArray(BUCKET_SIZE);
+    protected final LongAdder count = new LongAdder();
+    protected final LongAdder total = new LongAdder();
+    protected final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+    // ===================================================================================
+    //                                                                              Record
+    //                                                                              ======
+    public void record(long nanos) {
+        final long value = Math.max(nanos, 0L); // nanoTime() difference may be negative on some platforms
+        buckets.incrementAndGet(indexOf(value));
+        count.increment();
+        total.add(value);
+        max.accumulate(value);
+    }
+
+    protected static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) { // exact for small values
+            return (int) value;
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int sub = (int) ((value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1));
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + sub;
+    }
+
+    protected static long upperBoundOf(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        final int exponent = index / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+        final long unit = 1L << (exponent - SUB_BUCKET_BITS);
+        final long lower = (1L << exponent) + (index % SUB_BUCKET_COUNT) * unit;
+        return lower + unit - 1L;
+    }
+
+    // ===================================================================================
+    //                                                                           Statistic
+    //                                                                           =========
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getTotal() { // nanoseconds
+        return total.sum();
+    }
+
+    public long getMax() { // nanoseconds
+        return max.get();
+    }
+
+    public long getMean() { // nanoseconds
+        final long currentCount = getCount();
+        return currentCount > 0 ? getTotal() / currentCount : 0L;
+    }
+
+    /**
+     * Get the percentile of recorded values.
+     * @param percent The percent of the percentile e.g. 50.0, 99.0, 99.9 (0 to 100)
+     * @return The upper bound of bucket that contains the percentile, not over max. (nanoseconds, zero if no record)
+     */
+    public long getPercentile(double percent) {
+        if (percent < 0.0 || percent > 100.0) {
+            throw new IllegalArgumentException("The argument 'percent' should be 0 to 100: " + percent);
+        }
+        final long[] snapshot = new long[BUCKET_SIZE]; // buckets may be updated while calculating
+        long recorded = 0L;
+        for (int i = 0; i < BUCKET_SIZE; i++) {
+            snapshot[i] = buckets.get(i);
+            recorded += snapshot[i];
+        }
+        if (recorded == 0L) {
+            return 0L;
+        }
+        final long rank = Math.max((long) Math.ceil(recorded * percent / 100.0), 1L);
+        long cumulative = 0L;
+        for (int i = 0; i < BUCKET_SIZE; i++) {
+            cumulative += snapshot[i];
+            if (cumulative >= rank) {
+                return Math.min(upperBoundOf(i), getMax());
+            }
+        }
+        return getMax(); // basically no way
+    }
+
+    @Override
+    public String toString() {
+        return "histogram:{count=" + getCount() + ", mean=" + getMean() + ", p99=" + getPercentile(99.0) + ", max=" + getMax() + "}";
+    }
+}
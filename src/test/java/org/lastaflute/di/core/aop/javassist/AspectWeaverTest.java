@@ -0,0 +1,137 @@
+/*
+ * Copyright 2015-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.di.core.aop.javassist;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.lastaflute.di.core.aop.frame.MethodInterceptor;
+import org.lastaflute.di.core.aop.proxy.AopProxyTest.EnhancedSea;
+import org.lastaflute.di.core.aop.proxy.AopProxyTest.HangarInterceptor;
+import org.lastaflute.di.unit.UnitLastaDiTestCase;
+
+/**
+ * @author jflute
+ */
+public class AspectWeaverTest extends UnitLastaDiTestCase {
+
+    // ===================================================================================
+    //                                                                               Cache
+    //                                                                               =====
+    public void test_generateClass_enhancedClassCache() throws Exception {
+        // ## Arrange ##
+        File cacheDir = Files.createTempDirectory("lastadi-aop-cache").toFile();
+        EnhancedClassCache cache = new EnhancedClassCache(cacheDir);
+        Set<String> markSet = new HashSet<>();
+
+        // ## Act ##
+        AspectWeaver generated = weaveHangar(cache, markSet);
+        AspectWeaver.enhancedClassNames.remove(generated.getEnhancedClassName()); // same name at next boot
+        AspectWeaver loaded = weaveHangar(cache, markSet);
+
+        // ## Assert ##
+        log(generated.getEnhancedClassName(), loaded.getEnhancedClassName(), cacheDir.list());
+        assertEquals(generated.getEnhancedClassName(), loaded.getEnhancedClassName());
+        assertEquals(1, cacheDir.listFiles((dir, name) -> name.endsWith(EnhancedClassCache.CACHE_FILE_EXT)).length);
+        assertNotNull(generated.getEnhancedClassGenerator());
+        assertNull(loaded.getEnhancedClassGenerator()); // no Javassist compilation
+        assertNotSame(generated.generateClass(), loaded.generateClass()); // each class loader
+        assertEquals(1, markSet.size()); // both intercepted
+    }
+
+    public void test_load_brokenLength_cacheMiss() throws Exception {
+        // ## Arrange ##
+        File cacheDir = Files.createTempDirectory("lastadi-aop-cache").toFile();
+        EnhancedClassCache cache = new EnhancedClassCache(cacheDir);
+        Map<String, byte[]> bytecodeMap = new LinkedHashMap<String, byte[]>();
+        bytecodeMap.put("org.docksidestage.Sea", new byte[] { 1, 2, 3 });
+        cache.store("sea", bytecodeMap);
+        File cacheFile = new File(cacheDir, "sea" + EnhancedClassCache.CACHE_FILE_EXT);
+        byte[] stored = Files.readAllBytes(cacheFile.toPath());
+        assertEquals(3, cache.load("sea").get("org.docksidestage.Sea").length);
+
+        // ## Act ##
+        byte[] hugeLength = stored.clone();
+        int lengthIndex = stored.length - 3 - 4; // before bytecode
+        hugeLength[lengthIndex] = (byte) 0x7F; // e.g. two billion bytes
+        Files.write(new File(cacheDir, "huge" + EnhancedClassCache.CACHE_FILE_EXT).toPath(), hugeLength);
+        byte[] minusCount = stored.clone();
+        minusCount[4] = (byte) 0xFF; // class count after version
+        Files.write(new File(cacheDir, "minus" + EnhancedClassCache.CACHE_FILE_EXT).toPath(), minusCount);
+        byte[] truncated = Arrays.copyOf(stored, stored.length - 1);
+        Files.write(new File(cacheDir, "truncated" + EnhancedClassCache.CACHE_FILE_EXT).toPath(), truncated);
+
+        // ## Assert ##
+        assertNull(cache.load("huge"));
+        assertNull(cache.load("minus"));
+        assertNull(cache.load("truncated"));
+    }
+
+    public void test_getEnhancedClassGenerator_noSideEffect() throws Exception {
+        // ## Arrange ##
+        File cacheDir = Files.createTempDirectory("lastadi-aop-cache").toFile();
+        EnhancedClassCache cache = new EnhancedClassCache(cacheDir);
+        AspectWeaver weaver = new AspectWeaver(EnhancedSea.class, null) {
+            @Override
+            protected EnhancedClassCache prepareEnhancedClassCache(Class<?> targetClass) {
+                return cache;
+            }
+        };
+
+        // ## Act ##
+        EnhancedClassGenerator beforeAbandon = weaver.getEnhancedClassGenerator();
+        boolean activeAfterGetter = weaver.isCacheActive();
+        weaver.abandonCache();
+
+        // ## Assert ##
+        assertNull(beforeAbandon); // generation is deferred for the cache
+        assertTrue(activeAfterGetter); // getter does not abandon the cache
+        assertFalse(weaver.isCacheActive());
+        assertNotNull(weaver.getEnhancedClassGenerator());
+        AspectWeaver.enhancedClassNames.remove(weaver.getEnhancedClassName());
+    }
+
+    protected AspectWeaver weaveHangar(EnhancedClassCache cache, Set<String> markSet) throws Exception {
+        Thread currentThread = Thread.currentThread();
+        ClassLoader originalLoader = currentThread.getContextClassLoader();
+        currentThread.setContextClassLoader(new URLClassLoader(new URL[0], originalLoader)); // as new boot
+        try {
+            AspectWeaver weaver = new AspectWeaver(EnhancedSea.class, null) {
+                @Override
+                protected EnhancedClassCache prepareEnhancedClassCache(Class<?> targetClass) {
+                    return cache;
+                }
+            };
+            Method method = EnhancedSea.class.getMethod("hangar");
+            weaver.setInterceptors(method, new MethodInterceptor[] { new HangarInterceptor(markSet) });
+            EnhancedSea sea = (EnhancedSea) weaver.generateClass().newInstance();
+            markSet.clear();
+            assertEquals("mystic", sea.hangar());
+            assertTrue(markSet.contains("invocation hangar"));
+            return weaver;
+        } finally {
+            currentThread.setContextClassLoader(originalLoader);
+        }
+    }
+}
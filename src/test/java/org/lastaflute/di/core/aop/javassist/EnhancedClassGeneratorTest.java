@@ -0,0 +1,93 @@
+/*
+ * Copyright 2015-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.di.core.aop.javassist;
+
+import java.lang.reflect.Method;
+
+import org.lastaflute.di.core.aop.proxy.AopProxyTest.EnhancedSea;
+import org.lastaflute.di.unit.UnitLastaDiTestCase;
+
+/**
+ * @author jflute
+ */
+public class EnhancedClassGeneratorTest extends UnitLastaDiTestCase {
+
+    public void test_createTargetMethodSource_noParameter() throws Exception {
+        // ## Arrange ##
+        Method method = EnhancedSea.class.getMethod("countMystic");
+
+        // ## Act ##
+        String source = EnhancedClassGenerator.createTargetMethodSource(method, "Sea$$MethodInvocation$$countMystic$$0");
+
+        // ## Assert ##
+        log(source);
+        assertFalse(source.contains("$args")); // no allocation of empty array per call
+        assertTrue(source.contains("(this, " + EnhancedClassGenerator.class.getName() + ".EMPTY_ARGUMENTS)"));
+    }
+
+    public void test_createTargetMethodSource_hasParameter() throws Exception {
+        // ## Arrange ##
+        Method method = EnhancedSea.class.getMethod("countBonvo", int.class);
+
+        // ## Act ##
+        String source = EnhancedClassGenerator.createTargetMethodSource(method, "Sea$$MethodInvocation$$countBonvo$$0");
+
+        // ## Assert ##
+        log(source);
+        assertFalse(source.contains("$args")); // arguments array is materialized lazily
+        assertTrue(source.contains("(this, $1)"));
+    }
+
+    public void test_createProceedMethodSource_primitiveReturn() throws Exception {
+        // ## Arrange ##
+        Method method = EnhancedSea.class.getMethod("countMystic");
+
+        // ## Act ##
+        String source = MethodInvocationClassGenerator.createProceedMethodSource(method, "Sea", "$$countMystic$$invokeSuperMethod$$");
+
+        // ## Assert ##
+        log(source);
+        assertTrue(source.contains("java.lang.Integer.valueOf(")); // boxing cache
+        assertFalse(source.contains("new java.lang.Integer("));
+    }
+
+    public void test_createProceedMethodSource_hasParameter() throws Exception {
+        // ## Arrange ##
+        Method method = EnhancedSea.class.getMethod("countBonvo", int.class);
+
+        // ## Act ##
+        String source = MethodInvocationClassGenerator.createProceedMethodSource(method, "Sea", "$$countBonvo$$invokeSuperMethod$$");
+
+        // ## Assert ##
+        log(source);
+        assertTrue(source.contains("if (arguments == null) {return java.lang.Integer.valueOf(((Sea) target).$$countBonvo$$invokeSuperMethod$$(argument0));}"));
+        assertTrue(source.contains("((java.lang.Number) arguments[0]).intValue()")); // after getArguments()
+    }
+
+    public void test_createGetArgumentsMethodSource_primitive() throws Exception {
+        // ## Arrange ##
+        Class<?>[] argTypes = new Class<?>[] { int.class, String.class };
+
+        // ## Act ##
+        String source = MethodInvocationClassGenerator.createGetArgumentsMethodSource(argTypes);
+
+        // ## Assert ##
+        log(source);
+        assertTrue(source.contains("if (arguments == null) {Object[] materialized = new Object[2];"));
+        assertTrue(source.contains("materialized[0] = java.lang.Integer.valueOf(argument0);"));
+        assertTrue(source.contains("materialized[1] = argument1;"));
+    }
+}
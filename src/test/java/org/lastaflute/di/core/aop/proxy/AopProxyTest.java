@@ -63,6 +63,53 @@ public class AopProxyTest extends UnitLastaDiTestCase {
         assertEquals("invocation magiclamp", iterator.next());
     }
 
+    public void test_create_interceptor_primitive() throws Exception {
+        // ## Arrange ##
+        Set<String> markSet = new HashSet<>();
+        Aspect aspect = new AspectImpl(new HangarInterceptor(markSet), new PointcutImpl(new String[] { "count.*", "is.*" }));
+        AopProxy aopProxy = new AopProxy(EnhancedSea.class, new Aspect[] { aspect });
+
+        // ## Act ##
+        EnhancedSea sea = (EnhancedSea) aopProxy.create();
+
+        // ## Assert ##
+        assertEquals(3, sea.countMystic());
+        assertEquals(1000, sea.countBonvo(999)); // out of Integer cache
+        assertTrue(sea.isDstore());
+        assertEquals(1, markSet.size());
+    }
+
+    public void test_create_interceptor_arguments_rewritten() throws Exception {
+        // ## Arrange ##
+        Aspect aspect = new AspectImpl(new DockInterceptor(), new PointcutImpl(new String[] { "countBonvo", "greetLand", "touchLand" }));
+        AopProxy aopProxy = new AopProxy(EnhancedSea.class, new Aspect[] { aspect });
+
+        // ## Act ##
+        EnhancedSea sea = (EnhancedSea) aopProxy.create();
+
+        // ## Assert ##
+        assertEquals(1999, sea.countBonvo(999)); // doubled by interceptor
+        assertEquals("oneman@dock#3", sea.greetLand("oneman", 3));
+        sea.touchLand("oneman");
+        assertEquals("oneman@dock", sea.touchedLand);
+    }
+
+    public void test_create_interceptor_arguments_notRead() throws Exception {
+        // ## Arrange ##
+        Set<String> markSet = new HashSet<>();
+        Aspect aspect = new AspectImpl(new HangarInterceptor(markSet), new PointcutImpl(new String[] { "greetLand", "touchLand" }));
+        AopProxy aopProxy = new AopProxy(EnhancedSea.class, new Aspect[] { aspect });
+
+        // ## Act ##
+        EnhancedSea sea = (EnhancedSea) aopProxy.create();
+
+        // ## Assert ##
+        assertEquals("oneman#3", sea.greetLand("oneman", 3));
+        sea.touchLand("oneman");
+        assertEquals("oneman", sea.touchedLand);
+        assertEquals(1, markSet.size());
+    }
+
     // ===================================================================================
     //                                                                         Test Helper
     //                                                                         ===========
@@ -71,6 +118,28 @@ public class AopProxyTest extends UnitLastaDiTestCase {
         public String hangar() {
             return "mystic";
         }
+
+        public int countMystic() {
+            return 3;
+        }
+
+        public int countBonvo(int base) {
+            return base + 1;
+        }
+
+        public boolean isDstore() {
+            return true;
+        }
+
+        public String greetLand(String name, long count) {
+            return name + "#" + count;
+        }
+
+        protected String touchedLand;
+
+        public void touchLand(String name) {
+            touchedLand = name;
+        }
     }
 
     public static class HangarInterceptor implements MethodInterceptor {
@@ -88,6 +157,21 @@ public class AopProxyTest extends UnitLastaDiTestCase {
         }
     }
 
+    public static class DockInterceptor implements MethodInterceptor {
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            Object[] arguments = invocation.getArguments();
+            assertSame(arguments, invocation.getArguments()); // materialized once
+            if (arguments[0] instanceof Integer) {
+                arguments[0] = ((Integer) arguments[0]) * 2;
+            } else {
+                arguments[0] = arguments[0] + "@dock";
+            }
+            return invocation.proceed(); // with rewritten arguments
+        }
+    }
+
     public static class MagiclampInterceptor implements MethodInterceptor {
 
         protected final Set<String> markSet;
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2015-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.di.core.assembler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Resource;
+
+import org.lastaflute.di.core.ComponentDef;
+import org.lastaflute.di.core.deployer.PrototypeComponentDeployer;
+import org.lastaflute.di.core.factory.annohandler.AnnotationHandler;
+import org.lastaflute.di.core.factory.annohandler.AnnotationHandlerFactory;
+import org.lastaflute.di.core.meta.impl.ComponentDefImpl;
+import org.lastaflute.di.core.meta.impl.InstanceDefFactory;
+import org.lastaflute.di.core.meta.impl.LaContainerImpl;
+import org.lastaflute.di.unit.UnitLastaDiTestCase;
+
+/**
+ * @author jflute
+ */
+public class AutoPropertyAssemblerTest extends UnitLastaDiTestCase {
+
+    // ===================================================================================
+    //                                                                      Injection Plan
+    //                                                                      ==============
+    public void test_assemble_injectionPlan_replayed() {
+        // ## Arrange ##
+        LaContainerImpl container = new LaContainerImpl();
+        container.register(PlanLandLogic.class, "planLandLogic");
+        ComponentDefImpl prototypeDef = new ComponentDefImpl(PlanSeaAction.class, "planSeaAction");
+        prototypeDef.setInstanceDef(InstanceDefFactory.PROTOTYPE);
+        container.register(prototypeDef);
+        container.init();
+        AutoPropertyAssembler assembler = new AutoPropertyAssembler(prototypeDef);
+
+        // ## Act ##
+        PlanSeaAction first = new PlanSeaAction();
+        assembler.assemble(first);
+        AutoPropertyAssembler.InjectionPlan plan = assembler.injectionPlan;
+        PlanSeaAction second = new PlanSeaAction();
+        assembler.assemble(second);
+
+        // ## Assert ##
+        assertNotNull(plan);
+        assertSame(plan, assembler.injectionPlan); // replayed
+        assertEquals(2, plan.getPlainDescs().length); // planLandLogic, planBonvoLogic
+        ComponentDef landDef = container.getComponentDef(PlanLandLogic.class);
+        for (int i = 0; i < plan.getPlainDescs().length; i++) {
+            String propertyName = plan.getPlainDescs()[i].getPropertyName();
+            log(propertyName, plan.getResolvedDefs()[i]);
+            if (propertyName.equals("planLandLogic")) {
+                assertSame(landDef, plan.getResolvedDefs()[i]);
+            } else {
+                assertNull(plan.getResolvedDefs()[i]); // not found so normal binding
+            }
+        }
+        assertSame(container.getComponent(PlanLandLogic.class), first.getPlanLandLogic());
+        assertSame(first.getPlanLandLogic(), second.getPlanLandLogic());
+        assertNull(second.getPlanBonvoLogic());
+    }
+
+    public void test_assemble_injectionPlan_registrationAfterPlan() {
+        // ## Arrange ##
+        LaContainerImpl container = new LaContainerImpl();
+        LaContainerImpl child = new LaContainerImpl();
+        container.include(child);
+        child.register(PlanLandLogic.class, "planLandLogic"); // found via child first
+        ComponentDefImpl prototypeDef = new ComponentDefImpl(PlanSeaAction.class, "planSeaAction");
+        prototypeDef.setInstanceDef(InstanceDefFactory.PROTOTYPE);
+        container.register(prototypeDef);
+        container.init();
+        AutoPropertyAssembler assembler = new AutoPropertyAssembler(prototypeDef);
+        PlanSeaAction first = new PlanSeaAction();
+        assembler.assemble(first);
+        AutoPropertyAssembler.InjectionPlan plan = assembler.injectionPlan;
+        assertSame(child.getComponent(PlanLandLogic.class), first.getPlanLandLogic());
+
+        // ## Act ##
+        container.register(PlanLandLogic.class, "planLandLogic"); // overrides child's by local registration
+        PlanSeaAction second = new PlanSeaAction();
+        assembler.assemble(second);
+
+        // ## Assert ##
+        assertNotSame(plan, assembler.injectionPlan); // resolved again
+        assertTrue(plan.getRegistrationVersion() < assembler.injectionPlan.getRegistrationVersion());
+        Object overridden = container.getComponent(PlanLandLogic.class);
+        assertNotSame(first.getPlanLandLogic(), overridden);
+        assertSame(overridden, second.getPlanLandLogic());
+    }
+
+    public void test_deploy_injectionPlan_resourceField_noLookup() {
+        // ## Arrange ##
+        LookupCountLaContainerImpl container = new LookupCountLaContainerImpl();
+        container.register(PlanLandLogic.class, "planLandLogic");
+        AnnotationHandler handler = AnnotationHandlerFactory.getAnnotationHandler();
+        ComponentDef prototypeDef = handler.createComponentDef(ResourceSeaAction.class, InstanceDefFactory.PROTOTYPE);
+        handler.appendDI(prototypeDef); // @Resource field as property definition
+        container.register(prototypeDef);
+        container.init();
+        PrototypeComponentDeployer deployer = new PrototypeComponentDeployer(prototypeDef);
+        ResourceSeaAction first = (ResourceSeaAction) deployer.deploy(); // resolved here
+        int firstLookupCount = container.lookupCount;
+        assertTrue(firstLookupCount > 0);
+
+        // ## Act ##
+        List<ResourceSeaAction> actionList = new ArrayList<ResourceSeaAction>();
+        for (int i = 0; i < 5; i++) {
+            actionList.add((ResourceSeaAction) deployer.deploy());
+        }
+
+        // ## Assert ##
+        log("firstLookupCount=" + firstLookupCount + ", afterCount=" + container.lookupCount);
+        assertEquals(firstLookupCount, container.lookupCount); // replayed without lookup
+        Object landLogic = container.getComponent(PlanLandLogic.class);
+        assertSame(landLogic, first.planLandLogic);
+        for (ResourceSeaAction action : actionList) {
+            assertNotSame(first, action);
+            assertSame(landLogic, action.planLandLogic);
+        }
+    }
+
+    public void test_deploy_prototype_injected() {
+        // ## Arrange ##
+        LaContainerImpl container = new LaContainerImpl();
+        container.register(PlanLandLogic.class, "planLandLogic");
+        ComponentDefImpl prototypeDef = new ComponentDefImpl(PlanSeaAction.class, "planSeaAction");
+        prototypeDef.setInstanceDef(InstanceDefFactory.PROTOTYPE);
+        container.register(prototypeDef);
+        container.init();
+        PrototypeComponentDeployer deployer = new PrototypeComponentDeployer(prototypeDef);
+
+        // ## Act ##
+        PlanSeaAction first = (PlanSeaAction) deployer.deploy();
+        PlanSeaAction second = (PlanSeaAction) deployer.deploy();
+
+        // ## Assert ##
+        assertNotSame(first, second);
+        assertNotNull(first.getPlanLandLogic());
+        assertSame(first.getPlanLandLogic(), second.getPlanLandLogic());
+    }
+
+    public static class PlanSeaAction {
+
+        private PlanLandLogic planLandLogic;
+        private PlanBonvoLogic planBonvoLogic;
+
+        public PlanLandLogic getPlanLandLogic() {
+            return planLandLogic;
+        }
+
+        public void setPlanLandLogic(PlanLandLogic planLandLogic) {
+            this.planLandLogic = planLandLogic;
+        }
+
+        public PlanBonvoLogic getPlanBonvoLogic() {
+            return planBonvoLogic;
+        }
+
+        public void setPlanBonvoLogic(PlanBonvoLogic planBonvoLogic) {
+            this.planBonvoLogic = planBonvoLogic;
+        }
+    }
+
+    public static class ResourceSeaAction { // no setter for plain property
+
+        @Resource
+        private PlanLandLogic planLandLogic;
+    }
+
+    public static class LookupCountLaContainerImpl extends LaContainerImpl {
+
+        protected int lookupCount;
+
+        @Override
+        public boolean hasComponentDef(Object componentKey) {
+            ++lookupCount;
+            return super.hasComponentDef(componentKey);
+        }
+
+        @Override
+        public ComponentDef getComponentDef(Object key) {
+            ++lookupCount;
+            return super.getComponentDef(key);
+        }
+
+        @Override
+        public <COMPONENT> COMPONENT getComponent(Object componentKey) {
+            ++lookupCount;
+            return super.getComponent(componentKey);
+        }
+    }
+
+    public static class PlanLandLogic {
+    }
+
+    public static class PlanBonvoLogic {
+    }
+}
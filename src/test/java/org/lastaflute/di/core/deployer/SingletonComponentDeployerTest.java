@@ -0,0 +1,367 @@
+/*
+ * Copyright 2015-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.di.core.deployer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.lastaflute.di.core.ComponentDef;
+import org.lastaflute.di.core.meta.impl.ComponentDefImpl;
+import org.lastaflute.di.core.meta.impl.InitMethodDefImpl;
+import org.lastaflute.di.core.meta.impl.LaContainerImpl;
+import org.lastaflute.di.core.util.LazySingletonUtil;
+import org.lastaflute.di.unit.UnitLastaDiTestCase;
+
+/**
+ * @author jflute
+ */
+public class SingletonComponentDeployerTest extends UnitLastaDiTestCase {
+
+    // ===================================================================================
+    //                                                                           Lazy Init
+    //                                                                           =========
+    public void test_lazyInit_assembledAtFirstUse() {
+        // ## Arrange ##
+        LaContainerImpl container = new LaContainerImpl();
+        ComponentDefImpl lazyDef = createInitComponentDef(LazySeaBean.class);
+        lazyDef.setLazyInit(true);
+        container.register(lazyDef);
+        container.register(createInitComponentDef(EagerLandBean.class));
+        LazySeaBean.initCount = 0;
+        EagerLandBean.initCount = 0;
+
+        // ## Act ##
+        container.init();
+
+        // ## Assert ##
+        assertEquals(0, LazySeaBean.initCount);
+        assertEquals(1, EagerLandBean.initCount);
+        SingletonComponentDeployer deployer = (SingletonComponentDeployer) lazyDef.getComponentDeployer();
+        assertTrue(deployer.isLazyInit());
+        assertFalse(deployer.isMaterialized());
+
+        LazySeaBean first = (LazySeaBean) container.getComponent(LazySeaBean.class);
+        LazySeaBean second = (LazySeaBean) container.getComponent(LazySeaBean.class);
+        assertSame(first, second);
+        assertEquals(1, LazySeaBean.initCount);
+        assertTrue(deployer.isMaterialized());
+    }
+
+    public void test_lazyInit_neverMaterializedReport() {
+        // ## Arrange ##
+        LaContainerImpl container = new LaContainerImpl();
+        ComponentDefImpl lazyDef = createInitComponentDef(LazySeaBean.class);
+        lazyDef.setLazyInit(true);
+        container.register(lazyDef);
+        container.register(createInitComponentDef(EagerLandBean.class));
+        container.init();
+
+        // ## Act ##
+        List<ComponentDef> neverList = LazySingletonUtil.findNeverMaterializedList(container);
+        String report = LazySingletonUtil.buildNeverMaterializedReport(container);
+
+        // ## Assert ##
+        log(report);
+        assertEquals(1, neverList.size());
+        assertSame(lazyDef, neverList.get(0));
+        assertTrue(report.contains(LazySeaBean.class.getName()));
+        container.getComponent(LazySeaBean.class);
+        assertTrue(LazySingletonUtil.findNeverMaterializedList(container).isEmpty());
+        assertNull(LazySingletonUtil.buildNeverMaterializedReport(container));
+    }
+
+    // ===================================================================================
+    //                                                                         Concurrency
+    //                                                                         ===========
+    public void test_deploy_concurrentFirstAccess_assembledOnce() throws Exception {
+        int threadCount = 16;
+        int roundCount = 30;
+        ExecutorService service = Executors.newFixedThreadPool(threadCount);
+        try {
+            for (int round = 0; round < roundCount; round++) {
+                // ## Arrange ##
+                LaContainerImpl container = new LaContainerImpl();
+                ComponentDefImpl lazyDef = createInitComponentDef(StressSeaBean.class);
+                lazyDef.setLazyInit(true);
+                container.register(lazyDef);
+                container.register(StressLandBean.class);
+                container.init();
+                StressSeaBean.createdCount.set(0);
+                CountDownLatch latch = new CountDownLatch(1);
+                Set<Object> componentSet = ConcurrentHashMap.newKeySet();
+                List<Future<?>> futureList = new ArrayList<Future<?>>();
+                for (int i = 0; i < threadCount; i++) {
+                    futureList.add(service.submit(() -> {
+                        latch.await();
+                        StressSeaBean sea = (StressSeaBean) container.getComponent(StressSeaBean.class);
+                        assertTrue(sea.initialized); // not partially assembled
+                        assertNotNull(sea.stressLandBean);
+                        componentSet.add(sea);
+                        return null;
+                    }));
+                }
+
+                // ## Act ##
+                latch.countDown();
+                for (Future<?> future : futureList) {
+                    future.get(10, TimeUnit.SECONDS);
+                }
+
+                // ## Assert ##
+                assertEquals(1, componentSet.size());
+                assertEquals(1, StressSeaBean.createdCount.get());
+                container.destroy();
+            }
+        } finally {
+            service.shutdownNow();
+        }
+    }
+
+    public void test_deploy_crossThreadPropertyCycle_noDeadlock() throws Exception {
+        int roundCount = 20;
+        ExecutorService service = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < roundCount; round++) {
+                // ## Arrange ##
+                LaContainerImpl container = new LaContainerImpl();
+                ComponentDefImpl ambaDef = new ComponentDefImpl(CyclicLazyAmbaBean.class);
+                ambaDef.setLazyInit(true);
+                ComponentDefImpl miracoDef = new ComponentDefImpl(CyclicLazyMiracoBean.class);
+                miracoDef.setLazyInit(true);
+                container.register(ambaDef);
+                container.register(miracoDef);
+                container.init();
+                constructedBarrier = new CyclicBarrier(2); // both constructed before injection, each holds own lock
+
+                // ## Act ##
+                Future<Object> ambaFuture = service.submit(() -> container.getComponent(CyclicLazyAmbaBean.class));
+                Future<Object> miracoFuture = service.submit(() -> container.getComponent(CyclicLazyMiracoBean.class));
+                CyclicLazyAmbaBean amba = (CyclicLazyAmbaBean) ambaFuture.get(10, TimeUnit.SECONDS); // deadlock if timeout
+                CyclicLazyMiracoBean miraco = (CyclicLazyMiracoBean) miracoFuture.get(10, TimeUnit.SECONDS);
+
+                // ## Assert ##
+                assertSame(miraco, amba.cyclicLazyMiracoBean);
+                assertSame(amba, miraco.cyclicLazyAmbaBean);
+                assertSame(amba, container.getComponent(CyclicLazyAmbaBean.class));
+                assertSame(miraco, container.getComponent(CyclicLazyMiracoBean.class));
+                container.destroy();
+            }
+            for (int round = 0; round < roundCount; round++) { // constructor and property
+                // ## Arrange ##
+                LaContainerImpl container = new LaContainerImpl();
+                ComponentDefImpl ambaDef = new ComponentDefImpl(MixedLazyAmbaBean.class); // property to miraco
+                ambaDef.setLazyInit(true);
+                ComponentDefImpl miracoDef = new ComponentDefImpl(MixedLazyMiracoBean.class); // constructor to amba
+                miracoDef.setLazyInit(true);
+                ComponentDefImpl markDef = new ComponentDefImpl(MixedLazyMarkBean.class);
+                markDef.setLazyInit(true);
+                container.register(ambaDef);
+                container.register(miracoDef);
+                container.register(markDef);
+                container.init();
+                ambaStartedLatch = new CountDownLatch(1); // each thread holds its own lock before the other one
+                miracoStartedLatch = new CountDownLatch(1);
+
+                // ## Act ##
+                Future<Object> ambaFuture = service.submit(() -> container.getComponent(MixedLazyAmbaBean.class));
+                Future<Object> miracoFuture = service.submit(() -> container.getComponent(MixedLazyMiracoBean.class));
+                MixedLazyAmbaBean amba = (MixedLazyAmbaBean) ambaFuture.get(10, TimeUnit.SECONDS); // error if cycle detected
+                MixedLazyMiracoBean miraco = (MixedLazyMiracoBean) miracoFuture.get(10, TimeUnit.SECONDS);
+
+                // ## Assert ##
+                assertSame(miraco, amba.mixedLazyMiracoBean);
+                assertSame(amba, miraco.mixedLazyAmbaBean);
+                assertSame(amba, container.getComponent(MixedLazyAmbaBean.class));
+                assertSame(miraco, container.getComponent(MixedLazyMiracoBean.class));
+                container.destroy();
+            }
+        } finally {
+            service.shutdownNow();
+        }
+    }
+
+    public void test_getComponentDeployer_concurrent_createdOnce() throws Exception {
+        // ## Arrange ##
+        int threadCount = 16;
+        ComponentDefImpl componentDef = new ComponentDefImpl(StressLandBean.class);
+        ExecutorService service = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch latch = new CountDownLatch(1);
+        Set<ComponentDeployer> deployerSet = ConcurrentHashMap.newKeySet();
+        List<Future<?>> futureList = new ArrayList<Future<?>>();
+        try {
+            for (int i = 0; i < threadCount; i++) {
+                futureList.add(service.submit(() -> {
+                    latch.await();
+                    deployerSet.add(componentDef.getComponentDeployer());
+                    return null;
+                }));
+            }
+
+            // ## Act ##
+            latch.countDown();
+            for (Future<?> future : futureList) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            service.shutdownNow();
+        }
+
+        // ## Assert ##
+        assertEquals(1, deployerSet.size());
+    }
+
+    // ===================================================================================
+    //                                                                         Test Helper
+    //                                                                         ===========
+    protected ComponentDefImpl createInitComponentDef(Class<?> componentClass) {
+        ComponentDefImpl componentDef = new ComponentDefImpl(componentClass);
+        componentDef.addInitMethodDef(new InitMethodDefImpl("initialize"));
+        return componentDef;
+    }
+
+    public static class LazySeaBean {
+
+        protected static int initCount;
+
+        public void initialize() {
+            ++initCount;
+        }
+    }
+
+    public static class StressSeaBean {
+
+        protected static final AtomicInteger createdCount = new AtomicInteger();
+
+        protected StressLandBean stressLandBean;
+        protected boolean initialized; // no volatile to check publication by deployer
+
+        public StressSeaBean() {
+            createdCount.incrementAndGet();
+        }
+
+        public void setStressLandBean(StressLandBean stressLandBean) {
+            this.stressLandBean = stressLandBean;
+        }
+
+        public void initialize() {
+            try {
+                Thread.sleep(5L); // widen the window of first access
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            initialized = true;
+        }
+    }
+
+    public static class StressLandBean {
+    }
+
+    protected static volatile CyclicBarrier constructedBarrier;
+
+    protected static void awaitConstructed() {
+        try {
+            constructedBarrier.await(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to wait for the other bean", e);
+        }
+    }
+
+    public static class CyclicLazyAmbaBean {
+
+        protected CyclicLazyMiracoBean cyclicLazyMiracoBean;
+
+        public CyclicLazyAmbaBean() {
+            awaitConstructed();
+        }
+
+        public void setCyclicLazyMiracoBean(CyclicLazyMiracoBean cyclicLazyMiracoBean) {
+            this.cyclicLazyMiracoBean = cyclicLazyMiracoBean;
+        }
+    }
+
+    public static class CyclicLazyMiracoBean {
+
+        protected CyclicLazyAmbaBean cyclicLazyAmbaBean;
+
+        public CyclicLazyMiracoBean() {
+            awaitConstructed();
+        }
+
+        public void setCyclicLazyAmbaBean(CyclicLazyAmbaBean cyclicLazyAmbaBean) {
+            this.cyclicLazyAmbaBean = cyclicLazyAmbaBean;
+        }
+    }
+
+    protected static volatile CountDownLatch ambaStartedLatch;
+    protected static volatile CountDownLatch miracoStartedLatch;
+
+    protected static void awaitLatch(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static class MixedLazyAmbaBean {
+
+        protected MixedLazyMiracoBean mixedLazyMiracoBean;
+
+        public MixedLazyAmbaBean() {
+            ambaStartedLatch.countDown();
+            awaitLatch(miracoStartedLatch); // holding the lock of amba until miraco holds its own lock
+        }
+
+        public void setMixedLazyMiracoBean(MixedLazyMiracoBean mixedLazyMiracoBean) {
+            this.mixedLazyMiracoBean = mixedLazyMiracoBean;
+        }
+    }
+
+    public static class MixedLazyMiracoBean {
+
+        protected final MixedLazyAmbaBean mixedLazyAmbaBean;
+
+        public MixedLazyMiracoBean(MixedLazyMarkBean mixedLazyMarkBean, MixedLazyAmbaBean mixedLazyAmbaBean) {
+            this.mixedLazyAmbaBean = mixedLazyAmbaBean;
+        }
+    }
+
+    public static class MixedLazyMarkBean { // resolved before amba in arguments of miraco
+
+        public MixedLazyMarkBean() {
+            miracoStartedLatch.countDown();
+            awaitLatch(ambaStartedLatch); // amba is not requested by miraco until amba starts
+        }
+    }
+
+    public static class EagerLandBean {
+
+        protected static int initCount;
+
+        public void initialize() {
+            ++initCount;
+        }
+    }
+}
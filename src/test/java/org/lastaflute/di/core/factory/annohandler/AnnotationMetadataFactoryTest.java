@@ -0,0 +1,144 @@
+/*
+ * Copyright 2015-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.di.core.factory.annohandler;
+
+import java.lang.annotation.Annotation;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+
+import org.lastaflute.di.core.annotation.Aspect;
+import org.lastaflute.di.core.aop.annotation.Interceptor;
+import org.lastaflute.di.unit.UnitLastaDiTestCase;
+
+/**
+ * @author jflute
+ */
+public class AnnotationMetadataFactoryTest extends UnitLastaDiTestCase {
+
+    // ===================================================================================
+    //                                                                            Metadata
+    //                                                                            ========
+    public void test_getMetadata_cached() {
+        // ## Arrange ##
+        AnnotationMetadataFactory.clear();
+
+        // ## Act ##
+        AnnotationMetadata first = AnnotationMetadataFactory.getMetadata(SeaBean.class);
+        AnnotationMetadata second = AnnotationMetadataFactory.getMetadata(SeaBean.class);
+
+        // ## Assert ##
+        log(first);
+        assertSame(first, second);
+        assertSame(first.getMethods(), second.getMethods());
+        AnnotationMetadataFactory.clear();
+        assertNotSame(first, AnnotationMetadataFactory.getMetadata(SeaBean.class));
+    }
+
+    public void test_getMetadata_classAnnotation() {
+        // ## Arrange ##
+        AnnotationMetadata metadata = AnnotationMetadataFactory.getMetadata(SeaBean.class);
+
+        // ## Act ##
+        Aspect aspect = metadata.getClassAnnotation(Aspect.class);
+
+        // ## Assert ##
+        assertNotNull(aspect);
+        assertEquals("traceInterceptor", aspect.value());
+        assertNotNull(metadata.getClassAnnotation(MysticTx.class));
+        assertNull(metadata.getClassAnnotation(Resource.class));
+        assertEquals(SeaBean.class.getAnnotations().length, metadata.getClassAnnotations().length);
+    }
+
+    public void test_getMetadata_methodAnnotation() throws Exception {
+        // ## Arrange ##
+        AnnotationMetadata metadata = AnnotationMetadataFactory.getMetadata(SeaBean.class);
+        Method initMethod = SeaBean.class.getMethod("initialize");
+        Method plainMethod = SeaBean.class.getMethod("toString");
+
+        // ## Act ##
+        PostConstruct postConstruct = metadata.getMethodAnnotation(initMethod, PostConstruct.class);
+
+        // ## Assert ##
+        assertNotNull(postConstruct);
+        assertNull(metadata.getMethodAnnotation(plainMethod, PostConstruct.class));
+        assertEquals(0, metadata.getMethodAnnotations(plainMethod).length);
+        assertEquals(SeaBean.class.getMethods().length, metadata.getMethods().length); // no bridge here
+    }
+
+    public void test_getMetadata_fieldAnnotation() throws Exception {
+        // ## Arrange ##
+        AnnotationMetadata metadata = AnnotationMetadataFactory.getMetadata(SeaBean.class);
+        Field superField = LandBean.class.getDeclaredField("hangar");
+        Field plainField = SeaBean.class.getDeclaredField("dockside");
+
+        // ## Act ##
+        Resource resource = metadata.getFieldAnnotation(superField, Resource.class);
+
+        // ## Assert ##
+        assertNotNull(resource);
+        assertNull(metadata.getFieldAnnotation(plainField, Resource.class));
+    }
+
+    // ===================================================================================
+    //                                                                     Meta Annotation
+    //                                                                     ===============
+    public void test_getMetaAnnotation_memoized() {
+        // ## Arrange ##
+        Class<? extends Annotation> annotationType = MysticTx.class;
+
+        // ## Act ##
+        Interceptor interceptor = AnnotationMetadataFactory.getMetaAnnotation(annotationType, Interceptor.class);
+
+        // ## Assert ##
+        assertNotNull(interceptor);
+        assertEquals("mysticInterceptor", interceptor.value());
+        assertSame(interceptor, AnnotationMetadataFactory.getMetaAnnotation(annotationType, Interceptor.class));
+        assertNull(AnnotationMetadataFactory.getMetaAnnotation(Resource.class, Interceptor.class));
+    }
+
+    // ===================================================================================
+    //                                                                         Test Helper
+    //                                                                         ===========
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target({ ElementType.TYPE, ElementType.METHOD })
+    @Interceptor("mysticInterceptor")
+    public static @interface MysticTx {
+    }
+
+    public static class LandBean {
+
+        @Resource
+        protected String hangar;
+    }
+
+    @Aspect("traceInterceptor")
+    @MysticTx
+    public static class SeaBean extends LandBean {
+
+        protected String dockside;
+
+        @PostConstruct
+        public void initialize() {
+        }
+    }
+}
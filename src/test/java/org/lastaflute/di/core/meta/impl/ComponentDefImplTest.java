@@ -0,0 +1,268 @@
+/*
+ * Copyright 2015-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.di.core.meta.impl;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.lastaflute.di.core.util.ArgDefSupport;
+import org.lastaflute.di.core.util.AspectDefSupport;
+import org.lastaflute.di.core.util.DestroyMethodDefSupport;
+import org.lastaflute.di.core.util.InitMethodDefSupport;
+import org.lastaflute.di.core.util.InterTypeDefSupport;
+import org.lastaflute.di.core.util.MetaDefSupport;
+import org.lastaflute.di.core.util.PropertyDefSupport;
+import org.lastaflute.di.unit.UnitLastaDiTestCase;
+
+/**
+ * @author jflute
+ */
+public class ComponentDefImplTest extends UnitLastaDiTestCase {
+
+    // ===================================================================================
+    //                                                                    Compact Metadata
+    //                                                                    ================
+    public void test_compact_emptyDefinition() {
+        // ## Arrange ##
+        ComponentDefImpl cd = new ComponentDefImpl(SeaBean.class, "sea");
+
+        // ## Act ##
+        // ## Assert ##
+        assertEquals(0, cd.getArgDefSize());
+        assertEquals(0, cd.getPropertyDefSize());
+        assertEquals(0, cd.getInitMethodDefSize());
+        assertEquals(0, cd.getDestroyMethodDefSize());
+        assertEquals(0, cd.getAspectDefSize());
+        assertEquals(0, cd.getInterTypeDefSize());
+        assertEquals(0, cd.getMetaDefSize());
+        assertEquals(0, cd.getMetaDefs("land").length);
+        assertNull(cd.getMetaDef("land"));
+        assertFalse(cd.hasPropertyDef("land"));
+        try {
+            cd.getArgDef(0);
+            fail();
+        } catch (IndexOutOfBoundsException e) {
+            log(e.getMessage());
+        }
+    }
+
+    public void test_compact_addDefinition() {
+        // ## Arrange ##
+        LaContainerImpl container = new LaContainerImpl();
+        ComponentDefImpl cd = new ComponentDefImpl(SeaBean.class, "sea");
+        container.register(cd); // container is set before definitions
+
+        // ## Act ##
+        cd.addArgDef(new ArgDefImpl("mystic"));
+        cd.addArgDef(new ArgDefImpl("bonvo"));
+        cd.addPropertyDef(new PropertyDefImpl("land", "oneman"));
+        cd.addMetaDef(new MetaDefImpl("dockside", "hangar"));
+
+        // ## Assert ##
+        assertEquals(2, cd.getArgDefSize());
+        assertEquals("mystic", cd.getArgDef(0).getValue(String.class));
+        assertEquals("bonvo", cd.getArgDef(1).getValue(String.class));
+        assertSame(container, cd.getArgDef(1).getContainer());
+        assertTrue(cd.hasPropertyDef("LAND"));
+        assertEquals("oneman", cd.getPropertyDef("land").getValue(String.class));
+        assertEquals("hangar", cd.getMetaDef("dockside").getValue(String.class));
+        assertSame(container, cd.getMetaDef(0).getContainer());
+    }
+
+    // ===================================================================================
+    //                                                                      Compact Layout
+    //                                                                      ==============
+    public void test_compact_supportsNotCreatedUntilFirstAdd() throws Exception {
+        // ## Arrange ##
+        ComponentDefImpl cd = new ComponentDefImpl(SeaBean.class, "sea");
+
+        // ## Act ##
+        // ## Assert ##
+        for (String fieldName : SUPPORT_FIELD_NAMES) {
+            assertNull(fieldName, readField(ComponentDefImpl.class, cd, fieldName));
+        }
+        cd.addArgDef(new ArgDefImpl("mystic"));
+        assertNotNull(readField(ComponentDefImpl.class, cd, "argDefSupport"));
+        for (String fieldName : SUPPORT_FIELD_NAMES) {
+            if (!fieldName.equals("argDefSupport")) {
+                assertNull(fieldName, readField(ComponentDefImpl.class, cd, fieldName)); // others still not created
+            }
+        }
+    }
+
+    public void test_compact_supportsShareEmptyDefs() throws Exception {
+        // ## Arrange ##
+        Object[][] supportFields = { // support type, array field name
+                { ArgDefSupport.class, "argDefs" }, { InitMethodDefSupport.class, "methodDefs" },
+                { DestroyMethodDefSupport.class, "methodDefs" }, { AspectDefSupport.class, "aspectDefs" },
+                { InterTypeDefSupport.class, "interTypeDefs" }, { MetaDefSupport.class, "metaDefs" } };
+
+        // ## Act ##
+        // ## Assert ##
+        for (Object[] supportField : supportFields) {
+            Class<?> supportType = (Class<?>) supportField[0];
+            String fieldName = (String) supportField[1];
+            Object first = readField(supportType, supportType.newInstance(), fieldName);
+            Object second = readField(supportType, supportType.newInstance(), fieldName);
+            assertEquals(supportType.getSimpleName(), 0, ((Object[]) first).length);
+            assertSame(supportType.getSimpleName(), first, second); // one empty array for all instances
+        }
+        assertNull(readField(PropertyDefSupport.class, new PropertyDefSupport(), "propertyDefs")); // map is lazy
+        ArgDefSupport argDefSupport = new ArgDefSupport();
+        Object empty = readField(ArgDefSupport.class, argDefSupport, "argDefs");
+        argDefSupport.addArgDef(new ArgDefImpl("mystic"));
+        assertNotSame(empty, readField(ArgDefSupport.class, argDefSupport, "argDefs")); // copied at first add
+        assertEquals(0, ((Object[]) empty).length); // shared one is not broken
+    }
+
+    // ===================================================================================
+    //                                                                    Footprint Report
+    //                                                                    ================
+    // measured by this test on the previous layout (every support eager with ArrayList or CaseInsensitiveMap):
+    //  seven supports, six ArrayList, one CaseInsensitiveMap with two Entry[] and the definition itself
+    protected static final int BEFORE_OBJECT_COUNT = 17;
+    protected static final long BEFORE_ESTIMATED_BYTES = 608L;
+
+    public void test_compact_footprintReport() throws Exception {
+        // ## Arrange ##
+        ComponentDefImpl first = new ComponentDefImpl(SeaBean.class, "sea");
+        ComponentDefImpl second = new ComponentDefImpl(SeaBean.class, "sea");
+
+        // ## Act ##
+        Map<Object, Object> sharedMap = walkReachable(second); // e.g. singleton instance def, shared empty arrays
+        Map<Object, Object> ownMap = walkReachable(first);
+        ownMap.keySet().removeAll(sharedMap.keySet());
+
+        // ## Assert ##
+        Map<String, Integer> typeCountMap = new TreeMap<String, Integer>();
+        long estimatedBytes = 0L;
+        for (Object own : ownMap.keySet()) {
+            String typeName = own.getClass().getSimpleName();
+            Integer count = typeCountMap.get(typeName);
+            typeCountMap.put(typeName, count != null ? count + 1 : 1);
+            estimatedBytes += estimateShallowBytes(own);
+        }
+        log("before: objects={}, bytes={}", BEFORE_OBJECT_COUNT, BEFORE_ESTIMATED_BYTES);
+        log("after : objects={}, bytes={}, types={}", ownMap.size(), estimatedBytes, typeCountMap);
+        assertEquals(1, ownMap.size()); // only the definition itself for empty one
+        assertTrue(typeCountMap.containsKey(ComponentDefImpl.class.getSimpleName()));
+        assertEquals(80L, estimatedBytes); // from 608 bytes of previous layout
+    }
+
+    /**
+     * @param root The root object to walk instance fields. (NotNull)
+     * @return The identity map of reachable objects (as key) except class objects. (NotNull)
+     */
+    protected Map<Object, Object> walkReachable(Object root) throws Exception {
+        Map<Object, Object> reachableMap = new IdentityHashMap<Object, Object>();
+        Deque<Object> stack = new ArrayDeque<Object>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Object current = stack.pop();
+            if (current instanceof Class<?> || current instanceof ClassLoader || reachableMap.containsKey(current)) {
+                continue;
+            }
+            reachableMap.put(current, current);
+            Class<?> currentType = current.getClass();
+            if (currentType.isArray()) {
+                if (!currentType.getComponentType().isPrimitive()) {
+                    for (int i = 0; i < Array.getLength(current); i++) {
+                        Object element = Array.get(current, i);
+                        if (element != null) {
+                            stack.push(element);
+                        }
+                    }
+                }
+                continue;
+            }
+            for (Field field : collectInstanceFields(currentType)) {
+                if (!field.getType().isPrimitive()) {
+                    field.setAccessible(true);
+                    Object value = field.get(current);
+                    if (value != null) {
+                        stack.push(value);
+                    }
+                }
+            }
+        }
+        return reachableMap;
+    }
+
+    /**
+     * Estimate the shallow size as 64-bit JVM with compressed references. <br>
+     * Not exact layout (no field packing) but deterministic for comparison.
+     * @param obj The object to be estimated. (NotNull)
+     * @return The estimated bytes aligned by 8.
+     */
+    protected long estimateShallowBytes(Object obj) {
+        Class<?> type = obj.getClass();
+        long bytes;
+        if (type.isArray()) {
+            bytes = 16L + (long) Array.getLength(obj) * estimateSlotBytes(type.getComponentType());
+        } else {
+            bytes = 12L;
+            for (Field field : collectInstanceFields(type)) {
+                bytes += estimateSlotBytes(field.getType());
+            }
+        }
+        return (bytes + 7L) / 8L * 8L;
+    }
+
+    protected int estimateSlotBytes(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        } else if (type == int.class || type == float.class) {
+            return 4;
+        } else if (type == short.class || type == char.class) {
+            return 2;
+        } else if (type == byte.class || type == boolean.class) {
+            return 1;
+        }
+        return 4; // compressed reference
+    }
+
+    protected Set<Field> collectInstanceFields(Class<?> type) {
+        Set<Field> fieldSet = new LinkedHashSet<Field>();
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    fieldSet.add(field);
+                }
+            }
+        }
+        return fieldSet;
+    }
+
+    protected static final String[] SUPPORT_FIELD_NAMES = { "argDefSupport", "propertyDefSupport", "initMethodDefSupport",
+            "destroyMethodDefSupport", "aspectDefSupport", "interTypeDefSupport", "metaDefSupport" };
+
+    protected Object readField(Class<?> declaringType, Object target, String fieldName) throws Exception {
+        Field field = declaringType.getDeclaredField(fieldName);
+        field.setAccessible(true);
+        return field.get(target);
+    }
+
+    public static class SeaBean {
+    }
+}
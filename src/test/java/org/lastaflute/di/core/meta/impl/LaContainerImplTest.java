@@ -0,0 +1,371 @@
+/*
+ * Copyright 2015-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.di.core.meta.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.lastaflute.di.core.ComponentDef;
+import org.lastaflute.di.core.smart.hot.HotdeployBehavior;
+import org.lastaflute.di.core.smart.warm.WarmdeployBehavior;
+import org.lastaflute.di.exception.ContainerInitFailureException;
+import org.lastaflute.di.unit.UnitLastaDiTestCase;
+
+/**
+ * @author jflute
+ */
+public class LaContainerImplTest extends UnitLastaDiTestCase {
+
+    // ===================================================================================
+    //                                                                     AllComponentDef
+    //                                                                     ===============
+    public void test_findAllComponentDefs_index_basic() {
+        // ## Arrange ##
+        LaContainerImpl root = new LaContainerImpl();
+        LaContainerImpl child = new LaContainerImpl();
+        root.include(child);
+        root.register(SeaBean.class);
+        child.register(SeaBean.class);
+        root.init();
+
+        // ## Act ##
+        ComponentDef[] first = root.findAllComponentDefs(SeaBean.class);
+        ComponentDef[] second = root.findAllComponentDefs(SeaBean.class);
+
+        // ## Assert ##
+        assertEquals(2, first.length);
+        assertEquals(2, second.length);
+        assertNotSame(first, second); // copied not to break the index
+        assertEquals(0, root.findAllComponentDefs(LandBean.class).length);
+    }
+
+    public void test_findAllComponentDefs_index_invalidated() {
+        // ## Arrange ##
+        LaContainerImpl root = new LaContainerImpl();
+        LaContainerImpl child = new LaContainerImpl();
+        LaContainerImpl grandChild = new LaContainerImpl();
+        root.include(child);
+        child.include(grandChild);
+        root.register(SeaBean.class);
+        root.init();
+        assertEquals(1, root.findAllComponentDefs(SeaBean.class).length);
+        assertEquals(0, root.findAllComponentDefs(LandBean.class).length);
+
+        // ## Act ##
+        grandChild.register(SeaBean.class); // e.g. warm deploy after initialization
+        grandChild.register(LandBean.class);
+
+        // ## Assert ##
+        assertEquals(2, root.findAllComponentDefs(SeaBean.class).length);
+        assertEquals(1, root.findAllComponentDefs(LandBean.class).length);
+        assertEquals(1, root.findAllComponents(LandBean.class).length);
+    }
+
+    public void test_findAllComponentDefs_index_registrationDuringCollection() throws Exception {
+        // ## Arrange ##
+        CollectionPausedLaContainerImpl root = new CollectionPausedLaContainerImpl();
+        root.register(SeaBean.class);
+        root.init(); // index is empty yet
+        CountDownLatch collectedLatch = new CountDownLatch(1);
+        CountDownLatch registeredLatch = new CountDownLatch(1);
+        root.collectedLatch = collectedLatch;
+        root.registeredLatch = registeredLatch;
+        ExecutorService service = Executors.newSingleThreadExecutor();
+        try {
+            Future<ComponentDef[]> future = service.submit(() -> root.findAllComponentDefs(SeaBean.class));
+            assertTrue(collectedLatch.await(10, TimeUnit.SECONDS)); // collected but not put to index yet
+
+            // ## Act ##
+            root.register(SeaBean.class);
+            registeredLatch.countDown();
+            ComponentDef[] stale = future.get(10, TimeUnit.SECONDS);
+
+            // ## Assert ##
+            assertEquals(1, stale.length); // collected before the registration
+            assertEquals(2, root.findAllComponentDefs(SeaBean.class).length); // not from stale index
+        } finally {
+            service.shutdownNow();
+        }
+    }
+
+    protected static class CollectionPausedLaContainerImpl extends LaContainerImpl {
+
+        protected volatile CountDownLatch collectedLatch;
+        protected volatile CountDownLatch registeredLatch;
+
+        @Override
+        protected ComponentDef[] collectAllComponentDefs(Object componentKey) {
+            final ComponentDef[] componentDefs = super.collectAllComponentDefs(componentKey);
+            final CountDownLatch registered = registeredLatch;
+            if (registered != null) {
+                registeredLatch = null; // only first collection
+                collectedLatch.countDown();
+                try {
+                    registered.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            return componentDefs;
+        }
+    }
+
+    // ===================================================================================
+    //                                                                       Parallel Init
+    //                                                                       =============
+    public void test_init_parallel_independentConcurrently() {
+        // ## Arrange ##
+        ParallelLaContainerImpl container = new ParallelLaContainerImpl();
+        barrier = new CyclicBarrier(2);
+        initializedList.clear();
+        container.register(createInitComponentDef(BarrierSeaBean.class));
+        container.register(createInitComponentDef(BarrierLandBean.class));
+        container.register(createInitComponentDef(DependentPiariBean.class));
+
+        // ## Act ##
+        container.init(); // both barrier beans need to be waiting at the same time
+
+        // ## Assert ##
+        log(initializedList);
+        assertEquals(3, initializedList.size());
+        assertTrue(initializedList.indexOf("piari") > initializedList.indexOf("sea")); // after dependency (land is independent)
+        DependentPiariBean piari = (DependentPiariBean) container.getComponent(DependentPiariBean.class);
+        assertSame(container.getComponent(BarrierSeaBean.class), piari.seaBean);
+        assertTrue(piari.seaInitializedAtInjection);
+    }
+
+    public void test_init_parallel_cyclicSameThread() {
+        // ## Arrange ##
+        ParallelLaContainerImpl container = new ParallelLaContainerImpl();
+        container.register(CyclicAmbaBean.class);
+        container.register(CyclicMiracoBean.class);
+        container.register(SeaBean.class);
+
+        // ## Act ##
+        container.init();
+
+        // ## Assert ##
+        CyclicAmbaBean amba = (CyclicAmbaBean) container.getComponent(CyclicAmbaBean.class);
+        CyclicMiracoBean miraco = (CyclicMiracoBean) container.getComponent(CyclicMiracoBean.class);
+        assertSame(miraco, amba.miraco);
+        assertSame(amba, miraco.amba);
+        assertEquals(amba.threadName, miraco.threadName); // in one group
+    }
+
+    public void test_init_parallel_failure() {
+        // ## Arrange ##
+        ParallelLaContainerImpl container = new ParallelLaContainerImpl();
+        container.register(SeaBean.class);
+        container.register(createInitComponentDef(BrokenBean.class));
+        container.register(LandBean.class);
+
+        // ## Act ##
+        // ## Assert ##
+        try {
+            container.init();
+            fail();
+        } catch (ContainerInitFailureException e) {
+            log(e.getMessage());
+            assertTrue(e.getCause() instanceof IllegalStateException);
+            assertEquals("broken", e.getCause().getMessage());
+        }
+    }
+
+    public void test_init_parallel_timeout_reportStuck() {
+        // ## Arrange ##
+        ParallelLaContainerImpl container = new ParallelLaContainerImpl();
+        container.timeoutMillis = 300L;
+        stuckLatch = new CountDownLatch(1);
+        container.register(SeaBean.class);
+        container.register(createInitComponentDef(StuckBean.class));
+        container.register(LandBean.class);
+
+        // ## Act ##
+        // ## Assert ##
+        try {
+            container.init();
+            fail();
+        } catch (ContainerInitFailureException e) {
+            log(e.getCause().getMessage());
+            assertTrue(e.getCause() instanceof IllegalStateException);
+            assertTrue(e.getCause().getMessage().contains(StuckBean.class.getName()));
+        } finally {
+            stuckLatch.countDown();
+        }
+    }
+
+    public void test_isDependencyUnknown_initMethodArgExpression() {
+        // ## Arrange ##
+        ParallelComponentInitializer initializer = new ParallelComponentInitializer(null, 1);
+        ComponentDefImpl plainDef = new ComponentDefImpl(SeaBean.class);
+        plainDef.addInitMethodDef(new InitMethodDefImpl("initialize"));
+        ComponentDefImpl argExpDef = new ComponentDefImpl(SeaBean.class);
+        InitMethodDefImpl initMethodDef = new InitMethodDefImpl("initialize");
+        ArgDefImpl argDef = new ArgDefImpl();
+        argDef.setExpression((contextMap, container, resultType) -> null); // can refer anything
+        initMethodDef.addArgDef(argDef);
+        argExpDef.addInitMethodDef(initMethodDef);
+
+        // ## Act ##
+        // ## Assert ##
+        assertFalse(initializer.isDependencyUnknown(plainDef));
+        assertTrue(initializer.isDependencyUnknown(argExpDef));
+    }
+
+    public void test_isParallelComponentInit_lazyRegistration_serial() {
+        // ## Arrange ##
+        LaContainerImpl container = new LaContainerImpl() {
+            @Override
+            protected boolean isParallelComponentInitEnabled() {
+                return true;
+            }
+        };
+        LaContainerBehavior.Provider originalProvider = LaContainerBehavior.getProvider();
+        try {
+            // ## Act ##
+            // ## Assert ##
+            LaContainerBehavior.setProvider(new LaContainerBehavior.DefaultProvider()); // e.g. cool deploy
+            assertTrue(container.isParallelComponentInit());
+            LaContainerBehavior.setProvider(new WarmdeployBehavior()); // registered at lookup
+            assertFalse(container.isParallelComponentInit());
+            LaContainerBehavior.setProvider(new HotdeployBehavior());
+            assertFalse(container.isParallelComponentInit());
+        } finally {
+            LaContainerBehavior.setProvider(originalProvider);
+        }
+    }
+
+    protected ComponentDef createInitComponentDef(Class<?> componentClass) {
+        ComponentDefImpl componentDef = new ComponentDefImpl(componentClass);
+        componentDef.addInitMethodDef(new InitMethodDefImpl("initialize"));
+        return componentDef;
+    }
+
+    protected static class ParallelLaContainerImpl extends LaContainerImpl {
+
+        protected long timeoutMillis = 10 * 60 * 1000L;
+
+        @Override
+        protected boolean isParallelComponentInit() {
+            return true;
+        }
+
+        @Override
+        protected ParallelComponentInitializer newParallelComponentInitializer() {
+            return new ParallelComponentInitializer(classLoader, 4, timeoutMillis); // fixed for small machine
+        }
+    }
+
+    protected static CyclicBarrier barrier;
+    protected static final List<String> initializedList = Collections.synchronizedList(new ArrayList<String>());
+
+    protected static void awaitBarrier() {
+        try {
+            barrier.await(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException("Not initialized in parallel", e);
+        }
+    }
+
+    public static class BarrierSeaBean {
+
+        protected volatile boolean initialized;
+
+        public void initialize() {
+            awaitBarrier();
+            initialized = true;
+            initializedList.add("sea");
+        }
+    }
+
+    public static class BarrierLandBean {
+
+        public void initialize() {
+            awaitBarrier();
+            initializedList.add("land");
+        }
+    }
+
+    public static class DependentPiariBean {
+
+        protected BarrierSeaBean seaBean;
+        protected boolean seaInitializedAtInjection;
+
+        public void setSeaBean(BarrierSeaBean seaBean) {
+            this.seaBean = seaBean;
+            this.seaInitializedAtInjection = seaBean.initialized;
+        }
+
+        public void initialize() {
+            initializedList.add("piari");
+        }
+    }
+
+    public static class CyclicAmbaBean {
+
+        protected CyclicMiracoBean miraco;
+        protected String threadName;
+
+        public void setMiraco(CyclicMiracoBean miraco) {
+            this.miraco = miraco;
+            this.threadName = Thread.currentThread().getName();
+        }
+    }
+
+    public static class CyclicMiracoBean {
+
+        protected CyclicAmbaBean amba;
+        protected String threadName;
+
+        public void setAmba(CyclicAmbaBean amba) {
+            this.amba = amba;
+            this.threadName = Thread.currentThread().getName();
+        }
+    }
+
+    protected static volatile CountDownLatch stuckLatch;
+
+    public static class StuckBean {
+
+        public void initialize() {
+            try {
+                stuckLatch.await(10, TimeUnit.SECONDS); // e.g. waiting for other component forever
+            } catch (InterruptedException e) { // interrupted by shutdown after timeout
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public static class BrokenBean {
+
+        public void initialize() {
+            throw new IllegalStateException("broken");
+        }
+    }
+
+    public static class SeaBean {
+    }
+
+    public static class LandBean {
+    }
+}
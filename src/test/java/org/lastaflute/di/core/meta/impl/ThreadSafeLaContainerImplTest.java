@@ -0,0 +1,118 @@
+/*
+ * Copyright 2015-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.di.core.meta.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.lastaflute.di.core.ComponentDef;
+import org.lastaflute.di.core.meta.TooManyRegistrationComponentDef;
+import org.lastaflute.di.unit.UnitLastaDiTestCase;
+
+/**
+ * @author jflute
+ */
+public class ThreadSafeLaContainerImplTest extends UnitLastaDiTestCase {
+
+    // ===================================================================================
+    //                                                                         Concurrency
+    //                                                                         ===========
+    public void test_lookup_duringRegistration_consistent() throws Exception {
+        // ## Arrange ##
+        int readerCount = 4;
+        int registrationCount = 2000;
+        ThreadSafeLaContainerImpl root = new ThreadSafeLaContainerImpl();
+        ThreadSafeLaContainerImpl child = new ThreadSafeLaContainerImpl();
+        root.include(child);
+        root.init();
+        ExecutorService service = Executors.newFixedThreadPool(readerCount);
+        CountDownLatch latch = new CountDownLatch(1);
+        List<Future<?>> futureList = new ArrayList<Future<?>>();
+        try {
+            for (int i = 0; i < readerCount; i++) {
+                futureList.add(service.submit(() -> {
+                    latch.await();
+                    int previousLength = 0;
+                    while (previousLength < registrationCount) {
+                        ComponentDef[] localDefs = root.findLocalComponentDefs(SeaBean.class);
+                        assertTrue(localDefs.length >= previousLength); // never shrinks
+                        for (ComponentDef def : localDefs) {
+                            assertNotNull(def); // not torn array of too-many
+                        }
+                        previousLength = localDefs.length;
+                        ComponentDef landDef = root.internalGetComponentDef(LandBean.class);
+                        if (landDef != null) { // defined in child first, then overridden by root
+                            assertNotNull(landDef.getContainer());
+                        }
+                    }
+                    return null;
+                }));
+            }
+
+            // ## Act ##
+            latch.countDown();
+            child.register(LandBean.class);
+            for (int i = 0; i < registrationCount; i++) {
+                root.register(SeaBean.class);
+            }
+            root.register(LandBean.class);
+            for (Future<?> future : futureList) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            service.shutdownNow();
+        }
+
+        // ## Assert ##
+        ComponentDef seaDef = root.internalGetComponentDef(SeaBean.class);
+        assertTrue(seaDef instanceof TooManyRegistrationComponentDef);
+        assertEquals(registrationCount, ((TooManyRegistrationComponentDef) seaDef).getComponentDefs().length);
+        assertSame(root, root.internalGetComponentDef(LandBean.class).getContainer());
+    }
+
+    public void test_registration_tooMany_copyOnWrite() {
+        // ## Arrange ##
+        ThreadSafeLaContainerImpl root = new ThreadSafeLaContainerImpl();
+        root.register(SeaBean.class);
+        root.register(SeaBean.class);
+        ComponentDef before = root.internalGetComponentDef(SeaBean.class);
+        ComponentDef[] beforeDefs = root.findLocalComponentDefs(SeaBean.class);
+
+        // ## Act ##
+        root.register(SeaBean.class);
+
+        // ## Assert ##
+        ComponentDef after = root.internalGetComponentDef(SeaBean.class);
+        assertNotSame(before, after); // not mutated while readers may be holding it
+        assertEquals(2, ((TooManyRegistrationComponentDef) before).getComponentDefs().length);
+        assertEquals(3, ((TooManyRegistrationComponentDef) after).getComponentDefs().length);
+        assertEquals(2, beforeDefs.length);
+    }
+
+    // ===================================================================================
+    //                                                                         Test Helper
+    //                                                                         ===========
+    public static class SeaBean {
+    }
+
+    public static class LandBean {
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2015-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.di.core.smart.cool;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.lastaflute.di.core.creator.ActionCreator;
+import org.lastaflute.di.core.creator.AssistCreator;
+import org.lastaflute.di.core.creator.ComponentCreator;
+import org.lastaflute.di.core.creator.HelperCreator;
+import org.lastaflute.di.core.creator.JobCreator;
+import org.lastaflute.di.core.creator.LogicCreator;
+import org.lastaflute.di.core.creator.RepositoryCreator;
+import org.lastaflute.di.core.creator.ServiceCreator;
+import org.lastaflute.di.core.creator.ValidatorCreator;
+import org.lastaflute.di.core.deployer.ComponentDeployerFactory;
+import org.lastaflute.di.core.deployer.ExternalComponentDeployerProvider;
+import org.lastaflute.di.core.meta.impl.LaContainerBehavior;
+import org.lastaflute.di.core.meta.impl.LaContainerImpl;
+import org.lastaflute.di.mockapp.logic.MockSeaLogic;
+import org.lastaflute.di.mockapp.web.MockSeaAction;
+import org.lastaflute.di.naming.NamingConvention;
+import org.lastaflute.di.naming.StyledNamingConvention;
+import org.lastaflute.di.unit.UnitLastaDiTestCase;
+
+/**
+ * @author jflute
+ */
+public class CoolComponentAutoRegisterTest extends UnitLastaDiTestCase {
+
+    protected LaContainerBehavior.Provider originalBehaviorProvider;
+    protected ComponentDeployerFactory.Provider originalDeployerProvider;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        originalBehaviorProvider = LaContainerBehavior.getProvider();
+        LaContainerBehavior.setProvider(new LaContainerBehavior.DefaultProvider()); // without warm deploy of test container
+        originalDeployerProvider = ComponentDeployerFactory.getProvider();
+        ComponentDeployerFactory.setProvider(new ExternalComponentDeployerProvider()); // for request-scope action
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        ComponentDeployerFactory.setProvider(originalDeployerProvider);
+        LaContainerBehavior.setProvider(originalBehaviorProvider);
+        super.tearDown();
+    }
+
+    // ===================================================================================
+    //                                                                    Parallel Loading
+    //                                                                    ================
+    public void test_registerAll_parallel_sameAsSerial() throws Exception {
+        // ## Arrange ##
+        NamingConvention namingConvention = new StyledNamingConvention(); // smart package of test
+        LaContainerImpl serialContainer = new LaContainerImpl();
+        LaContainerImpl parallelContainer = new LaContainerImpl();
+        MockCoolComponentAutoRegister serialRegister = createRegister(serialContainer, namingConvention);
+        MockCoolComponentAutoRegister parallelRegister = createRegister(parallelContainer, namingConvention);
+        parallelRegister.parallelClassLoading = true;
+
+        // ## Act ##
+        serialRegister.registerAll();
+        parallelRegister.registerAll();
+
+        // ## Assert ##
+        List<Class<?>> serialList = extractComponentClassList(serialContainer);
+        List<Class<?>> parallelList = extractComponentClassList(parallelContainer);
+        log(serialList);
+        assertTrue(serialList.contains(MockSeaAction.class));
+        assertTrue(serialList.contains(MockSeaLogic.class));
+        assertEquals(serialList, parallelList); // same components in same order
+        assertEquals(0, serialRegister.preloadedCount.get());
+        assertTrue(parallelRegister.preloadedCount.get() >= parallelList.size());
+        assertTrue(parallelRegister.registeredClasses.isEmpty()); // cleared after registration
+    }
+
+    public void test_preloadClassesInParallel_failure_propagated() throws Exception {
+        // ## Arrange ##
+        LaContainerImpl container = new LaContainerImpl();
+        MockCoolComponentAutoRegister register = createRegister(container, new StyledNamingConvention());
+        register.parallelClassLoading = true;
+        IllegalStateException failure = new IllegalStateException("mystic");
+        register.preloadFailure = failure;
+        register.preloadFailureClassName = MockSeaLogic.class.getName();
+
+        // ## Act ##
+        // ## Assert ##
+        assertException(IllegalStateException.class, () -> register.registerAll()).handle(cause -> {
+            assertSame(failure, cause); // not wrapped by ForkJoinPool
+        });
+        assertEquals(0, container.getComponentDefSize()); // not registered if failed to load
+        assertTrue(register.registeredClasses.isEmpty());
+    }
+
+    // ===================================================================================
+    //                                                                     Component Index
+    //                                                                     ===============
+    public void test_registerAll_componentIndex_sameAsScanning() throws Exception {
+        // ## Arrange ##
+        NamingConvention namingConvention = new StyledNamingConvention();
+        LaContainerImpl scannedContainer = new LaContainerImpl();
+        LaContainerImpl indexedContainer = new LaContainerImpl();
+        MockCoolComponentAutoRegister scannedRegister = createRegister(scannedContainer, namingConvention);
+        MockCoolComponentAutoRegister indexedRegister = createRegister(indexedContainer, namingConvention);
+        indexedRegister.useComponentIndex = true;
+        CoolComponentIndex index = new CoolComponentIndex();
+        File outputDir = Files.createTempDirectory("lastadi").toFile();
+        index.writeClassNameList(outputDir, index.scanClassNameList(namingConvention)); // as build time
+        scannedRegister.registerAll();
+
+        // ## Act ##
+        ClassLoader originalLoader = Thread.currentThread().getContextClassLoader();
+        try (URLClassLoader indexLoader = new URLClassLoader(new URL[] { outputDir.toURI().toURL() }, originalLoader)) {
+            Thread.currentThread().setContextClassLoader(indexLoader);
+            indexedRegister.registerAll();
+        } finally {
+            Thread.currentThread().setContextClassLoader(originalLoader);
+        }
+
+        // ## Assert ##
+        List<Class<?>> scannedList = extractComponentClassList(scannedContainer);
+        List<Class<?>> indexedList = extractComponentClassList(indexedContainer);
+        log(indexedList);
+        assertTrue(scannedList.contains(MockSeaAction.class));
+        assertEquals(scannedList, indexedList); // same components in same order
+    }
+
+    public void test_registerAll_componentIndex_notFound() throws Exception {
+        // ## Arrange ##
+        LaContainerImpl container = new LaContainerImpl();
+        MockCoolComponentAutoRegister register = createRegister(container, new StyledNamingConvention());
+        register.useComponentIndex = true; // but no index in test classpath
+
+        // ## Act ##
+        // ## Assert ##
+        assertException(IllegalStateException.class, () -> register.registerAll()).handle(cause -> {
+            String msg = cause.getMessage();
+            assertTrue(msg.contains("Not found the component index"));
+            assertTrue(msg.contains(CoolComponentIndex.INDEX_PATH));
+        });
+        assertEquals(0, container.getComponentDefSize()); // no fallback to scanning
+    }
+
+    // ===================================================================================
+    //                                                                         Test Helper
+    //                                                                         ===========
+    protected MockCoolComponentAutoRegister createRegister(LaContainerImpl container, NamingConvention namingConvention)
+            throws Exception {
+        MockCoolComponentAutoRegister register = new MockCoolComponentAutoRegister();
+        ComponentCreator[] creators = { new ActionCreator(namingConvention), new AssistCreator(namingConvention),
+                new ValidatorCreator(namingConvention), new LogicCreator(namingConvention), new ServiceCreator(namingConvention),
+                new RepositoryCreator(namingConvention), new HelperCreator(namingConvention), new JobCreator(namingConvention) };
+        writeField(register, "container", container); // injected by @Resource in real world
+        writeField(register, "creators", creators);
+        writeField(register, "namingConvention", namingConvention);
+        return register;
+    }
+
+    protected void writeField(CoolComponentAutoRegister register, String fieldName, Object value) throws Exception {
+        Field field = CoolComponentAutoRegister.class.getDeclaredField(fieldName);
+        field.setAccessible(true);
+        field.set(register, value);
+    }
+
+    protected List<Class<?>> extractComponentClassList(LaContainerImpl container) {
+        List<Class<?>> classList = new ArrayList<Class<?>>();
+        for (int i = 0; i < container.getComponentDefSize(); i++) {
+            classList.add(container.getComponentDef(i).getComponentClass());
+        }
+        return classList;
+    }
+
+    protected static class MockCoolComponentAutoRegister extends CoolComponentAutoRegister {
+
+        protected boolean useComponentIndex;
+        protected boolean parallelClassLoading;
+        protected final AtomicInteger preloadedCount = new AtomicInteger(); // called in pool threads
+        protected RuntimeException preloadFailure;
+        protected String preloadFailureClassName;
+
+        @Override
+        protected boolean isUseComponentIndex() {
+            return useComponentIndex;
+        }
+
+        @Override
+        protected boolean isParallelClassLoading() {
+            return parallelClassLoading;
+        }
+
+        @Override
+        protected void preloadClass(ClassLoader classLoader, String className) {
+            if (preloadFailure != null && className.equals(preloadFailureClassName)) {
+                throw preloadFailure;
+            }
+            super.preloadClass(classLoader, className);
+            preloadedCount.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2015-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.di.core.smart.cool;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.lastaflute.di.mockapp.logic.MockSeaLogic;
+import org.lastaflute.di.mockapp.web.MockSeaAction;
+import org.lastaflute.di.naming.StyledNamingConvention;
+import org.lastaflute.di.unit.UnitLastaDiTestCase;
+
+/**
+ * @author jflute
+ */
+public class CoolComponentIndexTest extends UnitLastaDiTestCase {
+
+    public void test_writeAndRead_basic() throws Exception {
+        // ## Arrange ##
+        CoolComponentIndex index = new CoolComponentIndex();
+        List<String> scannedList = index.scanClassNameList(new StyledNamingConvention()); // smart package of test
+        log(scannedList);
+        assertTrue(scannedList.contains(MockSeaAction.class.getName()));
+        assertTrue(scannedList.contains(MockSeaLogic.class.getName()));
+        assertFalse(scannedList.stream().anyMatch(name -> name.contains("$")));
+        File outputDir = Files.createTempDirectory("lastadi").toFile();
+
+        // ## Act ##
+        index.writeClassNameList(outputDir, scannedList);
+
+        // ## Assert ##
+        File indexFile = new File(outputDir, CoolComponentIndex.INDEX_PATH);
+        assertTrue(indexFile.exists());
+        Set<String> readSet = new LinkedHashSet<String>();
+        index.readIndexFile(indexFile.toURI().toURL(), readSet);
+        assertEquals(scannedList, new ArrayList<String>(readSet));
+    }
+}
@@ -0,0 +1,347 @@
+/*
+ * Copyright 2015-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.di.core.smart.hot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.lastaflute.di.core.ComponentDef;
+import org.lastaflute.di.core.LaContainer;
+import org.lastaflute.di.core.creator.ComponentCreator;
+import org.lastaflute.di.core.factory.SingletonLaContainerFactory;
+import org.lastaflute.di.core.meta.impl.ComponentDefImpl;
+import org.lastaflute.di.core.meta.impl.LaContainerBehavior;
+import org.lastaflute.di.core.meta.impl.LaContainerBehavior.Provider;
+import org.lastaflute.di.unit.UnitLastaDiTestCase;
+
+/**
+ * @author jflute
+ */
+public class HotdeployBehaviorTest extends UnitLastaDiTestCase {
+
+    protected Provider originalProvider;
+    protected HotdeployBehavior behavior;
+    protected MockComponentCreator creator;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        originalProvider = LaContainerBehavior.getProvider();
+        creator = new MockComponentCreator();
+        behavior = new HotdeployBehavior();
+        behavior.setCreators(new ComponentCreator[] { creator });
+        LaContainerBehavior.setProvider(behavior);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        initActionMap.clear();
+        behavior.finish();
+        LaContainerBehavior.setProvider(originalProvider);
+        super.tearDown();
+    }
+
+    // ===================================================================================
+    //                                                                         Concurrency
+    //                                                                         ===========
+    public void test_getComponentDef_concurrentFirstAccess_initializedOnly() throws Exception {
+        int threadCount = 16;
+        int roundCount = 10;
+        LaContainer root = SingletonLaContainerFactory.getContainer();
+        ExecutorService service = Executors.newFixedThreadPool(threadCount);
+        try {
+            for (int round = 0; round < roundCount; round++) {
+                // ## Arrange ##
+                behavior.finish(); // clear hot-deployed definitions
+                creator.createdCount.set(0);
+                CountDownLatch latch = new CountDownLatch(1);
+                Set<ComponentDef> defSet = ConcurrentHashMap.newKeySet();
+                List<Future<?>> futureList = new ArrayList<Future<?>>();
+                for (int i = 0; i < threadCount; i++) {
+                    futureList.add(service.submit(() -> {
+                        latch.await();
+                        SlowInitComponentDef cd = (SlowInitComponentDef) root.getComponentDef(HotSeaBean.class);
+                        assertTrue(cd.initialized); // not published before initialization
+                        defSet.add(cd);
+                        return null;
+                    }));
+                }
+
+                // ## Act ##
+                latch.countDown();
+                for (Future<?> future : futureList) {
+                    future.get(10, TimeUnit.SECONDS);
+                }
+
+                // ## Assert ##
+                assertEquals(1, defSet.size());
+                assertEquals(1, creator.createdCount.get());
+                assertSame(defSet.iterator().next(), root.getComponentDef(HotSeaBean.class));
+            }
+        } finally {
+            service.shutdownNow();
+        }
+    }
+
+    public void test_getComponentDef_differentKeys_notSerialized() throws Exception {
+        // ## Arrange ##
+        LaContainer root = SingletonLaContainerFactory.getContainer();
+        CountDownLatch bonvoInitLatch = new CountDownLatch(1);
+        initActionMap.put(HotSeaBean.class, cd -> { // sea waits for bonvo in initialization
+            assertTrue(await(bonvoInitLatch)); // fails if creation of other key is blocked
+        });
+        initActionMap.put(HotBonvoBean.class, cd -> bonvoInitLatch.countDown());
+        ExecutorService service = Executors.newFixedThreadPool(2);
+        try {
+            // ## Act ##
+            Future<ComponentDef> seaFuture = service.submit(() -> root.getComponentDef(HotSeaBean.class));
+            Thread.sleep(50L); // sea is initializing
+            Future<ComponentDef> bonvoFuture = service.submit(() -> root.getComponentDef(HotBonvoBean.class));
+
+            // ## Assert ##
+            assertEquals(HotBonvoBean.class, bonvoFuture.get(10, TimeUnit.SECONDS).getComponentClass());
+            assertEquals(HotSeaBean.class, seaFuture.get(10, TimeUnit.SECONDS).getComponentClass());
+        } finally {
+            service.shutdownNow();
+        }
+    }
+
+    public void test_getComponentDef_cyclicLookupInInit_registeredDef() {
+        // ## Arrange ##
+        LaContainer root = SingletonLaContainerFactory.getContainer();
+        List<ComponentDef> cyclicList = new ArrayList<ComponentDef>();
+        initActionMap.put(HotSeaBean.class, cd -> cyclicList.add(root.getComponentDef(HotSeaBean.class))); // same thread
+
+        // ## Act ##
+        ComponentDef sea = root.getComponentDef(HotSeaBean.class);
+
+        // ## Assert ##
+        assertEquals(1, cyclicList.size());
+        assertSame(sea, cyclicList.get(0)); // initializing one
+        assertEquals(1, creator.createdCount.get());
+    }
+
+    public void test_getComponentDef_crossThreadCycle_noDeadlock() throws Exception {
+        // ## Arrange ##
+        LaContainer root = SingletonLaContainerFactory.getContainer();
+        CyclicBarrier barrier = new CyclicBarrier(2); // both are initializing before lookup of the other
+        Map<Class<?>, ComponentDef> foundMap = new ConcurrentHashMap<Class<?>, ComponentDef>();
+        initActionMap.put(HotSeaBean.class, cd -> {
+            await(barrier);
+            foundMap.put(HotBonvoBean.class, root.getComponentDef(HotBonvoBean.class));
+        });
+        initActionMap.put(HotBonvoBean.class, cd -> {
+            await(barrier);
+            foundMap.put(HotSeaBean.class, root.getComponentDef(HotSeaBean.class));
+        });
+        ExecutorService service = Executors.newFixedThreadPool(2);
+        try {
+            // ## Act ##
+            Future<ComponentDef> seaFuture = service.submit(() -> root.getComponentDef(HotSeaBean.class));
+            Future<ComponentDef> bonvoFuture = service.submit(() -> root.getComponentDef(HotBonvoBean.class));
+            ComponentDef sea = seaFuture.get(10, TimeUnit.SECONDS); // dead lock if timeout
+            ComponentDef bonvo = bonvoFuture.get(10, TimeUnit.SECONDS);
+
+            // ## Assert ##
+            assertSame(bonvo, foundMap.get(HotBonvoBean.class));
+            assertSame(sea, foundMap.get(HotSeaBean.class));
+            assertSame(sea, root.getComponentDef(HotSeaBean.class));
+            assertSame(bonvo, root.getComponentDef(HotBonvoBean.class));
+        } finally {
+            service.shutdownNow();
+        }
+    }
+
+    // ===================================================================================
+    //                                                                      NotFound Cache
+    //                                                                      ==============
+    public void test_notFoundCache_missCached() {
+        // ## Arrange ##
+        LaContainer root = SingletonLaContainerFactory.getContainer();
+
+        // ## Act ##
+        boolean first = root.hasComponentDef(HotLandBean.class);
+        boolean second = root.hasComponentDef(HotLandBean.class);
+
+        // ## Assert ##
+        assertFalse(first);
+        assertFalse(second);
+        assertTrue(behavior.isNotFoundCached(HotLandBean.class));
+        assertEquals(1, creator.calledCount.get()); // creators are not asked again
+    }
+
+    public void test_notFoundCache_clearedByStartAndFinish() {
+        // ## Arrange ##
+        LaContainer root = SingletonLaContainerFactory.getContainer();
+        assertFalse(root.hasComponentDef(HotLandBean.class));
+        assertTrue(behavior.isNotFoundCached(HotLandBean.class));
+
+        // ## Act ##
+        behavior.start(); // classes may be changed
+
+        // ## Assert ##
+        try {
+            assertFalse(behavior.isNotFoundCached(HotLandBean.class));
+            assertFalse(root.hasComponentDef(HotLandBean.class)); // cached again
+            assertTrue(behavior.isNotFoundCached(HotLandBean.class));
+        } finally {
+            behavior.stop(); // also finish() because of no keep
+        }
+        assertFalse(behavior.isNotFoundCached(HotLandBean.class));
+        assertEquals(2, creator.calledCount.get());
+    }
+
+    public void test_notFoundCache_limit() {
+        // ## Arrange ##
+        LaContainer root = SingletonLaContainerFactory.getContainer();
+        behavior.setNotFoundCacheLimit(2);
+
+        // ## Act ##
+        root.hasComponentDef("sea");
+        root.hasComponentDef("land");
+        assertTrue(behavior.isNotFoundCached("sea"));
+        assertTrue(behavior.isNotFoundCached("land"));
+        root.hasComponentDef("piari"); // over limit
+
+        // ## Assert ##
+        assertFalse(behavior.isNotFoundCached("sea")); // cleared when full
+        assertFalse(behavior.isNotFoundCached("land"));
+        assertTrue(behavior.isNotFoundCached("piari"));
+        behavior.setNotFoundCacheLimit(0); // suppressed
+        root.hasComponentDef("bonvo");
+        assertFalse(behavior.isNotFoundCached("bonvo"));
+    }
+
+    public void test_notFoundCache_resolvedAfterRegistration() {
+        // ## Arrange ##
+        LaContainer root = SingletonLaContainerFactory.getContainer();
+        assertFalse(root.hasComponentDef(HotLandBean.class));
+        assertTrue(behavior.isNotFoundCached(HotLandBean.class));
+
+        // ## Act ##
+        root.register(HotLandBean.class); // e.g. registered by other way after the miss
+
+        // ## Assert ##
+        ComponentDef found = root.getComponentDef(HotLandBean.class);
+        assertNotNull(found);
+        assertEquals(HotLandBean.class, found.getComponentClass());
+    }
+
+    public void test_notFoundCache_resolvedAfterHotClassAdded() {
+        // ## Arrange ##
+        LaContainer root = SingletonLaContainerFactory.getContainer();
+        assertFalse(root.hasComponentDef(HotLandBean.class));
+        creator.hotClassSet.add(HotLandBean.class); // e.g. class created while the application is running
+        assertFalse(root.hasComponentDef(HotLandBean.class)); // still cached in the request
+
+        // ## Act ##
+        behavior.finish(); // e.g. end of request
+
+        // ## Assert ##
+        assertTrue(root.hasComponentDef(HotLandBean.class));
+        assertFalse(behavior.isNotFoundCached(HotLandBean.class));
+    }
+
+    // ===================================================================================
+    //                                                                         Test Helper
+    //                                                                         ===========
+    protected static final Map<Class<?>, Consumer<ComponentDef>> initActionMap = new ConcurrentHashMap<Class<?>, Consumer<ComponentDef>>();
+
+    protected static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    protected static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to wait for the other thread", e);
+        }
+    }
+
+    protected static class MockComponentCreator implements ComponentCreator {
+
+        protected final Set<Class<?>> hotClassSet = ConcurrentHashMap.newKeySet();
+        protected final AtomicInteger createdCount = new AtomicInteger();
+        protected final AtomicInteger calledCount = new AtomicInteger();
+
+        public MockComponentCreator() {
+            hotClassSet.add(HotSeaBean.class);
+            hotClassSet.add(HotBonvoBean.class);
+        }
+
+        public ComponentDef createComponentDef(Class<?> componentClass) {
+            calledCount.incrementAndGet();
+            if (!hotClassSet.contains(componentClass)) {
+                return null;
+            }
+            createdCount.incrementAndGet();
+            return new SlowInitComponentDef(componentClass);
+        }
+
+        public ComponentDef createComponentDef(String componentName) {
+            return null;
+        }
+    }
+
+    protected static class SlowInitComponentDef extends ComponentDefImpl {
+
+        protected boolean initialized; // no volatile to check publication by behavior
+
+        public SlowInitComponentDef(Class<?> componentClass) {
+            super(componentClass);
+        }
+
+        @Override
+        public void init() {
+            try {
+                Thread.sleep(20L); // widen the window of first access
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            final Consumer<ComponentDef> action = initActionMap.get(getComponentClass());
+            if (action != null) {
+                action.accept(this);
+            }
+            super.init();
+            initialized = true;
+        }
+    }
+
+    public static class HotSeaBean {
+    }
+
+    public static class HotLandBean {
+    }
+
+    public static class HotBonvoBean {
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2015-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.di.helper.beans.factory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.lastaflute.di.helper.beans.BeanDesc;
+import org.lastaflute.di.unit.UnitLastaDiTestCase;
+
+/**
+ * @author jflute
+ */
+public class BeanDescFactoryTest extends UnitLastaDiTestCase {
+
+    // ===================================================================================
+    //                                                                           Bean Desc
+    //                                                                           =========
+    public void test_getBeanDesc_cached() {
+        // ## Arrange ##
+        BeanDescFactory.clear();
+
+        // ## Act ##
+        BeanDesc first = BeanDescFactory.getBeanDesc(SeaBean.class);
+        BeanDesc second = BeanDescFactory.getBeanDesc(SeaBean.class);
+
+        // ## Assert ##
+        assertSame(first, second);
+        assertEquals(1L, BeanDescFactory.getCacheMissCount());
+        assertEquals(1L, BeanDescFactory.getCacheHitCount());
+        BeanDescFactory.clear();
+        assertNotSame(first, BeanDescFactory.getBeanDesc(SeaBean.class));
+        assertEquals(1L, BeanDescFactory.getCacheMissCount());
+        assertEquals(0L, BeanDescFactory.getCacheHitCount());
+    }
+
+    public void test_getBeanDesc_concurrent_createdOnce() throws Exception {
+        // ## Arrange ##
+        BeanDescFactory.clear();
+        int threadCount = 8;
+        ExecutorService service = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch latch = new CountDownLatch(1);
+        Set<BeanDesc> descSet = ConcurrentHashMap.newKeySet();
+        List<Future<?>> futureList = new ArrayList<Future<?>>();
+        try {
+            for (int i = 0; i < threadCount; i++) {
+                futureList.add(service.submit(() -> {
+                    latch.await();
+                    descSet.add(BeanDescFactory.getBeanDesc(LandBean.class));
+                    return null;
+                }));
+            }
+
+            // ## Act ##
+            latch.countDown();
+            for (Future<?> future : futureList) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            service.shutdownNow();
+        }
+
+        // ## Assert ##
+        assertEquals(1, descSet.size());
+        assertEquals(1L, BeanDescFactory.getCacheMissCount());
+        assertEquals(threadCount - 1, BeanDescFactory.getCacheHitCount());
+    }
+
+    public static class SeaBean {
+    }
+
+    public static class LandBean {
+    }
+}
@@ -16,7 +16,14 @@
 package org.lastaflute.di.helper.beans.impl;
 
 import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.lastaflute.di.helper.beans.BeanDesc;
 import org.lastaflute.di.helper.beans.exception.BeanNoClassDefFoundError;
@@ -79,11 +86,162 @@ public class BeanDescImplTest extends UnitLastaDiTestCase {
         }
     }
 
+    public void test_classError_lazyIntrospection() {
+        // ## Arrange ##
+        BeanDescImpl desc = new BeanDescImpl(getClass(), true) { // no error here
+            @Override
+            protected void setupPropertyDescs() {
+                throw new NoClassDefFoundError("sea");
+            }
+        };
+        try {
+            // ## Act ##
+            desc.getPropertyDescSize();
+            // ## Assert ##
+            fail();
+        } catch (BeanNoClassDefFoundError e) {
+            log(e);
+        }
+        assertTrue(desc.hasMethod("getClass")); // other parts are available
+    }
+
+    // ===================================================================================
+    //                                                                  Lazy Introspection
+    //                                                                  ==================
+    public void test_lazyIntrospection_sameAsEager() {
+        // ## Arrange ##
+        BeanDesc eager = new BeanDescImpl(MaihamaBean.class);
+
+        // ## Act ##
+        BeanDesc lazy = new BeanDescImpl(MaihamaBean.class, true);
+
+        // ## Assert ##
+        assertEquals(eager.getFieldSize(), lazy.getFieldSize());
+        assertEquals(eager.getPropertyDescSize(), lazy.getPropertyDescSize());
+        assertEquals(eager.getMethodNames().length, lazy.getMethodNames().length);
+        assertTrue(lazy.hasField("sea"));
+        assertTrue(lazy.getField("sea").isAccessible());
+        assertTrue(lazy.hasPropertyDesc("hangar"));
+        assertEquals(String.class, lazy.getPropertyDesc("hangar").getPropertyType());
+        MaihamaBean bean = (MaihamaBean) lazy.newInstance(new Object[] { "mystic", 1 });
+        assertEquals("{mystic, 1}", bean.toString());
+    }
+
+    public void test_lazyIntrospection_concurrent() throws Exception {
+        // ## Arrange ##
+        BeanDesc lazy = new BeanDescImpl(MaihamaBean.class, true);
+        int threadCount = 8;
+        ExecutorService service = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch latch = new CountDownLatch(1);
+        List<Future<Integer>> futureList = new ArrayList<Future<Integer>>();
+        try {
+            for (int i = 0; i < threadCount; i++) {
+                futureList.add(service.submit(() -> {
+                    latch.await();
+                    return lazy.getPropertyDescSize() + lazy.getFieldSize();
+                }));
+            }
+
+            // ## Act ##
+            latch.countDown();
+
+            // ## Assert ##
+            BeanDesc eager = new BeanDescImpl(MaihamaBean.class);
+            for (Future<Integer> future : futureList) {
+                assertEquals(Integer.valueOf(eager.getPropertyDescSize() + eager.getFieldSize()), future.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            service.shutdownNow();
+        }
+    }
+
+    // ===================================================================================
+    //                                                                        New Instance
+    //                                                                        ============
+    public void test_newInstance_suitableConstructor() {
+        // ## Arrange ##
+        BeanDesc desc = new BeanDescImpl(MaihamaBean.class);
+
+        // ## Act ##
+        MaihamaBean first = (MaihamaBean) desc.newInstance(new Object[] { "mystic", 1 });
+        MaihamaBean second = (MaihamaBean) desc.newInstance(new Object[] { "bonvo", 2 }); // cached instantiator
+        MaihamaBean nullArg = (MaihamaBean) desc.newInstance(new Object[] { null, 3 });
+        MaihamaBean adjusted = (MaihamaBean) desc.newInstance(new Object[] { "dstore", 4L }); // number adjustment
+        MaihamaBean noArg = (MaihamaBean) desc.newInstance(null);
+
+        // ## Assert ##
+        log(first, second, nullArg, adjusted, noArg);
+        assertEquals("{mystic, 1}", first.toString());
+        assertEquals("{bonvo, 2}", second.toString());
+        assertEquals("{null, 3}", nullArg.toString());
+        assertEquals("{dstore, 4}", adjusted.toString());
+        assertEquals("{null, null}", noArg.toString());
+    }
+
+    // ===================================================================================
+    //                                                                      Property Value
+    //                                                                      ==============
+    public void test_setValue_writeMethod_parameterType() {
+        // ## Arrange ##
+        BeanDesc desc = new BeanDescImpl(DocksideBean.class);
+        DocksideBean bean = new DocksideBean();
+
+        // ## Act ##
+        desc.getPropertyDesc("count").setValue(bean, 3); // primitive parameter by wrapper value
+        desc.getPropertyDesc("name").setValue(bean, "mystic");
+        desc.getPropertyDesc("name").setValue(bean, null);
+        desc.getPropertyDesc("count").setValue(bean, 4); // cached parameter type
+
+        // ## Assert ##
+        assertEquals(4, bean.count);
+        assertNull(bean.name);
+        desc.getPropertyDesc("count").setValue(bean, null); // converted to default value for primitive
+        assertEquals(0, bean.count);
+    }
+
+    public static class DocksideBean {
+
+        private int count;
+        private String name;
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
     public static class MaihamaBean {
 
         private String sea;
         private Integer land;
 
+        public MaihamaBean() {
+        }
+
+        public MaihamaBean(String sea, Integer land) {
+            this.sea = sea;
+            this.land = land;
+        }
+
+        public String getHangar() {
+            return sea;
+        }
+
+        public void setHangar(String hangar) {
+            this.sea = hangar;
+        }
+
         @Override
         public String toString() {
             return "{" + sea + ", " + land + "}";
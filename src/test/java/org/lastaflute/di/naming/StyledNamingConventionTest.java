@@ -311,6 +311,26 @@ public class StyledNamingConventionTest extends UnitLastaDiTestCase {
         assertNull(convention.fromComponentNameToClass("biz_onionarc_infrastructure_mockOnionArcLoggingRepository"));
     }
 
+    public void test_fromComponentNameToClass_existenceClassIndex() throws Exception {
+        StyledNamingConvention convention = createConvention();
+        convention.useExistenceClassIndex();
+        assertEquals(MockSeaAction.class, convention.fromComponentNameToClass("mockSeaAction"));
+        assertEquals(MockLandAction.class, convention.fromComponentNameToClass("mock_land_mockLandAction"));
+        assertEquals(MockLandoAssist.class, convention.fromComponentNameToClass("mock_land_assist_mockLandoAssist"));
+        assertEquals(MockLandJob.class, convention.fromComponentNameToClass("firstpark_mockLandJob"));
+        assertEquals(MockBonvoLogicImpl.class, convention.fromComponentNameToClass("nearstation_mockBonvoLogic"));
+        assertEquals(MockCleanEgRepository.class, convention.fromComponentNameToClass("cleaneg_domain_repository_mockCleanEgRepository"));
+        assertNull(convention.fromComponentNameToClass("mockNondiSeaLogic"));
+        assertNull(convention.fromComponentNameToClass("biz_mockBizRootLogic"));
+        assertEquals(MockBonvoLogicImpl.class, convention.toCompleteClass(MockBonvoLogic.class));
+        assertEquals(MockCleanEgInteractor.class, convention.toCompleteClass(MockCleanEgInteractor.class));
+
+        // rebuilt after dispose e.g. hot-deploy
+        convention.dispose();
+        assertEquals(MockSeaAction.class, convention.fromComponentNameToClass("mockSeaAction"));
+        assertEquals(MockBonvoLogicImpl.class, convention.toCompleteClass(MockBonvoLogic.class));
+    }
+
     // -----------------------------------------------------
     //                         Component/ClassName to Suffix
     //                         -----------------------------
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2015-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.di.util;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.function.Function;
+
+import org.lastaflute.di.exception.InvocationTargetRuntimeException;
+import org.lastaflute.di.exception.SIllegalArgumentException;
+import org.lastaflute.di.helper.beans.BeanDesc;
+import org.lastaflute.di.helper.beans.PropertyDesc;
+import org.lastaflute.di.helper.beans.exception.BeanIllegalPropertyException;
+import org.lastaflute.di.helper.beans.impl.BeanDescImpl;
+import org.lastaflute.di.unit.UnitLastaDiTestCase;
+
+/**
+ * @author jflute
+ */
+public class LdiMethodHandleUtilTest extends UnitLastaDiTestCase {
+
+    // ===================================================================================
+    //                                                                        Field Setter
+    //                                                                        ============
+    public void test_setFieldValue_private() throws Exception {
+        // ## Arrange ##
+        Field field = HandleSea.class.getDeclaredField("hangar");
+        field.setAccessible(true);
+        HandleSea sea = new HandleSea();
+
+        // ## Act ##
+        LdiMethodHandleUtil.setFieldValue(field, sea, "mystic");
+        LdiMethodHandleUtil.setFieldValue(field, sea, "bonvo"); // cached handle
+
+        // ## Assert ##
+        assertEquals("bonvo", sea.hangar);
+        assertNotNull(LdiMethodHandleUtil.findFieldSetter(field));
+    }
+
+    public void test_setFieldValue_primitive() throws Exception {
+        // ## Arrange ##
+        Field field = HandleSea.class.getDeclaredField("count");
+        field.setAccessible(true);
+        HandleSea sea = new HandleSea();
+
+        // ## Act ##
+        LdiMethodHandleUtil.setFieldValue(field, sea, 3);
+
+        // ## Assert ##
+        assertEquals(3, sea.count);
+        try {
+            LdiMethodHandleUtil.setFieldValue(field, sea, null);
+            fail();
+        } catch (IllegalArgumentException e) { // same as reflection
+            log(e.getMessage());
+        }
+    }
+
+    public void test_setFieldValue_illegalType() throws Exception {
+        // ## Arrange ##
+        Field field = HandleSea.class.getDeclaredField("hangar");
+        field.setAccessible(true);
+        HandleSea sea = new HandleSea();
+
+        // ## Act ##
+        // ## Assert ##
+        try {
+            LdiMethodHandleUtil.setFieldValue(field, sea, 1);
+            fail();
+        } catch (SIllegalArgumentException e) { // same as LdiFieldUtil
+            log(e.getMessage());
+        }
+        assertNull(sea.hangar);
+    }
+
+    // ===================================================================================
+    //                                                                        Instantiator
+    //                                                                        ============
+    public void test_toInstantiator_noArg() throws Exception {
+        // ## Arrange ##
+        Function<Object[], Object> instantiator = LdiMethodHandleUtil.toInstantiator(HandleSea.class.getConstructor());
+
+        // ## Act ##
+        Object first = instantiator.apply(null);
+        Object second = instantiator.apply(new Object[] {});
+
+        // ## Assert ##
+        assertTrue(first instanceof HandleSea);
+        assertNotSame(first, second);
+    }
+
+    public void test_toInstantiator_args() throws Exception {
+        // ## Arrange ##
+        Constructor<HandleLand> constructor = HandleLand.class.getConstructor(String.class, int.class);
+        Function<Object[], Object> instantiator = LdiMethodHandleUtil.toInstantiator(constructor);
+
+        // ## Act ##
+        HandleLand land = (HandleLand) instantiator.apply(new Object[] { "oneman", 3 });
+
+        // ## Assert ##
+        assertEquals("oneman", land.name);
+        assertEquals(3, land.count);
+        try {
+            instantiator.apply(new Object[] { "oneman", null });
+            fail();
+        } catch (IllegalArgumentException e) { // same as reflection
+            log(e.getMessage());
+        }
+        try {
+            instantiator.apply(new Object[] { "broken", 1 });
+            fail();
+        } catch (InvocationTargetRuntimeException e) { // same as reflection
+            log(e.getMessage());
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    // ===================================================================================
+    //                                                                        Write Method
+    //                                                                        ============
+    public void test_propertyDesc_setValue_writeMethod() {
+        // ## Arrange ##
+        BeanDesc beanDesc = new BeanDescImpl(HandleSea.class);
+        PropertyDesc propertyDesc = beanDesc.getPropertyDesc("dockside");
+        HandleSea sea = new HandleSea();
+
+        // ## Act ##
+        propertyDesc.setValue(sea, "oneman");
+
+        // ## Assert ##
+        assertEquals("oneman", sea.getDockside());
+        try {
+            propertyDesc.setValue(new Object(), "oneman"); // not bean instance
+            fail();
+        } catch (BeanIllegalPropertyException e) { // same as reflection
+            log(e.getMessage());
+        }
+    }
+
+    public static class HandleLand {
+
+        private final String name;
+        private final int count;
+
+        public HandleLand(String name, int count) {
+            if ("broken".equals(name)) {
+                throw new IllegalStateException("broken land");
+            }
+            this.name = name;
+            this.count = count;
+        }
+    }
+
+    public static class HandleSea {
+
+        private String hangar;
+        private int count;
+        private String dockside;
+
+        public String getDockside() {
+            return dockside;
+        }
+
+        public void setDockside(String dockside) {
+            this.dockside = dockside;
+        }
+    }
+}
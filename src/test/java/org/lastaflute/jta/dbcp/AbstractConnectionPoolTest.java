@@ -0,0 +1,180 @@
+/*
+ * Copyright 2015-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.jta.dbcp;
+
+import org.lastaflute.jta.core.LaTransactionManager;
+import org.lastaflute.jta.dbcp.impl.StandardConnectionPoolMetrics;
+import org.lastaflute.jta.unit.UnitLastaJtaTest;
+
+/**
+ * The common tests of connection pools, each pool implementation extends it.
+ * @author jflute
+ */
+public abstract class AbstractConnectionPoolTest extends UnitLastaJtaTest {
+
+    protected MockXADataSource dataSource;
+    protected SimpleConnectionPool pool;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        dataSource = new MockXADataSource();
+        pool = createPool();
+        pool.setXADataSource(dataSource);
+        pool.setTransactionManager(new LaTransactionManager());
+    }
+
+    /**
+     * @return The new instance of connection pool to be tested. (NotNull)
+     */
+    protected abstract SimpleConnectionPool createPool();
+
+    @Override
+    protected void tearDown() throws Exception {
+        pool.close();
+        super.tearDown();
+    }
+
+    // ===================================================================================
+    //                                                                         Maintenance
+    //                                                                         ===========
+    public void test_maintainer_fillMinPoolSize() throws Exception {
+        // ## Arrange ##
+        pool.setMinPoolSize(2);
+        pool.setMaintenanceInterval(50L);
+
+        // ## Act ##
+        pool.startMaintainer();
+
+        // ## Assert ##
+        waitForFreePoolSize(2);
+        final ConnectionWrapper wrapper = pool.checkOut();
+        assertEquals(2, dataSource.getCreatedCount()); // already created
+        wrapper.close();
+    }
+
+    public void test_maintainer_rampUpAhead() throws Exception {
+        // ## Arrange ##
+        pool.setMaxPoolSize(3);
+        pool.setRampUpAheadSize(5); // limited by max
+        pool.setMaintenanceInterval(50L);
+        pool.startMaintainer();
+        Thread.sleep(100L);
+        assertEquals(0, dataSource.getCreatedCount()); // no demand yet
+
+        // ## Act ##
+        final ConnectionWrapper wrapper = pool.checkOut();
+
+        // ## Assert ##
+        waitForFreePoolSize(2);
+        Thread.sleep(100L);
+        assertEquals(3, dataSource.getCreatedCount());
+        wrapper.close();
+    }
+
+    public void test_maintainer_closed() throws Exception {
+        // ## Arrange ##
+        pool.setMinPoolSize(2);
+        pool.setMaintenanceInterval(50L);
+        pool.startMaintainer();
+        waitForFreePoolSize(2);
+
+        // ## Act ##
+        pool.close();
+
+        // ## Assert ##
+        assertEquals(0, pool.getFreePoolSize());
+        assertEquals(2, dataSource.getClosedCount());
+    }
+
+    // ===================================================================================
+    //                                                               Background Validation
+    //                                                               =====================
+    public void test_backgroundValidation_evictBrokenOnly() throws Exception {
+        // ## Arrange ##
+        pool.setMinPoolSize(3);
+        pool.setMaintenanceInterval(50L);
+        pool.setBackgroundValidation(true);
+        pool.startMaintainer();
+        waitForFreePoolSize(3);
+
+        // ## Act ##
+        dataSource.breakConnection(1);
+
+        // ## Assert ##
+        final long limit = System.currentTimeMillis() + 5000L;
+        while ((pool.getValidationFailureCount() == 0 || dataSource.getCreatedCount() < 4) && System.currentTimeMillis() < limit) {
+            Thread.sleep(5L);
+        }
+        waitForFreePoolSize(3); // refilled
+        assertEquals(1, pool.getValidationFailureCount());
+        assertEquals(1, dataSource.getClosedCount()); // only the broken one
+        assertEquals(4, dataSource.getCreatedCount());
+        assertTrue(pool.getValidationCount() >= 3);
+    }
+
+    public void test_backgroundValidation_noCheckOutValidation() throws Exception {
+        // ## Arrange ##
+        pool.setMinPoolSize(1);
+        pool.setValidationQuery("select 1");
+        pool.setMaintenanceInterval(60000L); // only first time in this test
+        pool.setBackgroundValidation(true);
+        pool.startMaintainer();
+        waitForFreePoolSize(1);
+
+        // ## Act ##
+        final ConnectionWrapper wrapper = pool.checkOut();
+
+        // ## Assert ##
+        assertEquals(0, pool.getValidationCount()); // no round trip in check-out
+        wrapper.close();
+    }
+
+    // ===================================================================================
+    //                                                                             Metrics
+    //                                                                             =======
+    public void test_metrics_hold_checkInAndRelease() throws Exception {
+        // ## Arrange ##
+        final StandardConnectionPoolMetrics metrics = new StandardConnectionPoolMetrics();
+        pool.setMetrics(metrics);
+        final ConnectionWrapper first = pool.checkOut();
+        final ConnectionWrapper second = pool.checkOut();
+
+        // ## Act ##
+        first.close(); // check-in
+        second.release(); // broken connection
+        second.release(); // no hold twice
+
+        // ## Assert ##
+        log(metrics);
+        assertEquals(2, metrics.getHoldCount());
+        assertEquals(-1L, first.endHold(System.nanoTime())); // ended at check-in
+        final ConnectionWrapper recycled = pool.checkOut(); // new wrapper inheriting physical connection
+        recycled.close();
+        assertEquals(3, metrics.getHoldCount());
+    }
+
+    // ===================================================================================
+    //                                                                        Assist Logic
+    //                                                                        ============
+    protected void waitForFreePoolSize(int expected) throws InterruptedException {
+        final long limit = System.currentTimeMillis() + 5000L;
+        while (pool.getFreePoolSize() < expected && System.currentTimeMillis() < limit) {
+            Thread.sleep(5L);
+        }
+        assertEquals(expected, pool.getFreePoolSize());
+    }
+}
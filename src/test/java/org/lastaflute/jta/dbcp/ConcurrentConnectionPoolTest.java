@@ -0,0 +1,207 @@
+/*
+ * Copyright 2015-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.jta.dbcp;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.lastaflute.jta.dbcp.exception.ConnectionPoolShortFreeSQLException;
+
+/**
+ * @author jflute
+ */
+public class ConcurrentConnectionPoolTest extends AbstractConnectionPoolTest {
+
+    @Override
+    protected SimpleConnectionPool createPool() {
+        return new ConcurrentConnectionPool();
+    }
+
+    // ===================================================================================
+    //                                                                             Recycle
+    //                                                                             =======
+    public void test_checkOut_recycle() throws Exception {
+        // ## Arrange ##
+        final ConnectionWrapper first = pool.checkOut();
+        final Connection firstPhysical = first.getPhysicalConnection();
+        first.close(); // returns to pool
+
+        // ## Act ##
+        final ConnectionWrapper second = pool.checkOut();
+
+        // ## Assert ##
+        assertSame(firstPhysical, second.getPhysicalConnection());
+        assertEquals(1, dataSource.getCreatedCount());
+        assertEquals(1, pool.getActivePoolSize());
+        assertEquals(0, pool.getFreePoolSize());
+        second.close();
+        assertEquals(0, pool.getActivePoolSize());
+        assertEquals(1, pool.getFreePoolSize());
+    }
+
+    // ===================================================================================
+    //                                                                           Max Limit
+    //                                                                           =========
+    public void test_checkOut_maxPoolSize_noWait() throws Exception {
+        // ## Arrange ##
+        pool.setMaxPoolSize(2);
+        pool.setMaxWait(0);
+        final ConnectionWrapper first = pool.checkOut();
+        final Connection firstPhysical = first.getPhysicalConnection();
+        pool.checkOut();
+
+        // ## Act ##
+        // ## Assert ##
+        try {
+            pool.checkOut();
+            fail();
+        } catch (ConnectionPoolShortFreeSQLException e) {
+            log(e.getMessage());
+        }
+        first.close();
+        final ConnectionWrapper third = pool.checkOut();
+        assertSame(firstPhysical, third.getPhysicalConnection());
+        assertEquals(2, dataSource.getCreatedCount());
+    }
+
+    public void test_checkOut_maxPoolSize_waitForCheckIn() throws Exception {
+        // ## Arrange ##
+        pool.setMaxPoolSize(1);
+        pool.setMaxWait(5000L);
+        final ConnectionWrapper first = pool.checkOut();
+        final Connection firstPhysical = first.getPhysicalConnection();
+        final ExecutorService service = Executors.newSingleThreadExecutor();
+        try {
+            final CountDownLatch started = new CountDownLatch(1);
+            final Future<Connection> future = service.submit(() -> {
+                started.countDown();
+                final ConnectionWrapper waited = pool.checkOut();
+                final Connection physical = waited.getPhysicalConnection();
+                waited.close();
+                return physical;
+            });
+            started.await();
+            Thread.sleep(50L); // to wait for the permit
+
+            // ## Act ##
+            first.close();
+
+            // ## Assert ##
+            assertSame(firstPhysical, future.get(5, TimeUnit.SECONDS));
+            assertEquals(1, dataSource.getCreatedCount());
+        } finally {
+            service.shutdownNow();
+        }
+    }
+
+    // ===================================================================================
+    //                                                                          Contention
+    //                                                                          ==========
+    public void test_checkOut_contention() throws Exception {
+        // ## Arrange ##
+        final int maxPoolSize = 4;
+        pool.setMaxPoolSize(maxPoolSize);
+        pool.setMaxWait(-1L);
+        final int threadCount = 32;
+        final int loopCount = 500;
+        final ExecutorService service = Executors.newFixedThreadPool(threadCount);
+        try {
+            final CountDownLatch ready = new CountDownLatch(1);
+            final List<Future<Void>> futureList = new ArrayList<Future<Void>>();
+            for (int i = 0; i < threadCount; i++) {
+                futureList.add(service.submit(() -> {
+                    ready.await();
+                    for (int j = 0; j < loopCount; j++) {
+                        final ConnectionWrapper wrapper = pool.checkOut();
+                        try {
+                            assertTrue(pool.getActivePoolSize() <= maxPoolSize);
+                        } finally {
+                            wrapper.close();
+                        }
+                    }
+                    return null;
+                }));
+            }
+
+            // ## Act ##
+            ready.countDown();
+            for (Future<Void> future : futureList) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+
+            // ## Assert ##
+            log("created", dataSource.getCreatedCount(), "free", pool.getFreePoolSize());
+            assertTrue(dataSource.getCreatedCount() <= maxPoolSize);
+            assertEquals(0, pool.getActivePoolSize());
+            assertEquals(dataSource.getCreatedCount(), pool.getFreePoolSize());
+        } finally {
+            service.shutdownNow();
+        }
+    }
+
+    // ===================================================================================
+    //                                                                          Validation
+    //                                                                          ==========
+    public void test_checkOut_validation_brokenOnly() throws Exception {
+        // ## Arrange ##
+        pool.setValidationQuery("select 1");
+        pool.setValidationInterval(0L);
+        final ConnectionWrapper first = pool.checkOut();
+        final ConnectionWrapper second = pool.checkOut();
+        final Connection secondPhysical = second.getPhysicalConnection();
+        second.close();
+        first.close(); // LIFO so first is next
+        dataSource.breakConnection(0);
+
+        // ## Act ##
+        final ConnectionWrapper checkedOut = pool.checkOut();
+
+        // ## Assert ##
+        assertSame(secondPhysical, checkedOut.getPhysicalConnection());
+        assertEquals(2, dataSource.getCreatedCount());
+        assertEquals(1, dataSource.getClosedCount()); // only the broken one
+        assertEquals(0, pool.getFreePoolSize());
+    }
+
+    // ===================================================================================
+    //                                                                          Idle Sweep
+    //                                                                          ==========
+    public void test_sweepIdleConnection() throws Exception {
+        // ## Arrange ##
+        pool.setTimeout(0);
+        pool.setMinPoolSize(1);
+        final ConnectionWrapper first = pool.checkOut();
+        final ConnectionWrapper second = pool.checkOut();
+        final ConnectionWrapper third = pool.checkOut();
+        first.close();
+        second.close();
+        third.close();
+        Thread.sleep(5L);
+
+        // ## Act ##
+        ((ConcurrentConnectionPool) pool).sweepIdleConnection();
+
+        // ## Assert ##
+        assertEquals(1, pool.getFreePoolSize());
+        assertEquals(2, dataSource.getClosedCount());
+    }
+}
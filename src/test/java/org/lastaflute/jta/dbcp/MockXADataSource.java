@@ -0,0 +1,183 @@
+/*
+ * Copyright 2015-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.jta.dbcp;
+
+import java.io.PrintWriter;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import javax.sql.XAConnection;
+import javax.sql.XADataSource;
+
+import org.lastaflute.jta.dbcp.impl.XAConnectionImpl;
+
+/**
+ * The data source of fake connections without database for connection pool tests.
+ * @author jflute
+ */
+public class MockXADataSource implements XADataSource {
+
+    protected final AtomicInteger createdCount = new AtomicInteger();
+    protected final AtomicInteger closedCount = new AtomicInteger();
+    protected final AtomicInteger connectingCount = new AtomicInteger();
+    protected final List<MockConnectionState> stateList = new CopyOnWriteArrayList<MockConnectionState>();
+    protected volatile long connectDelayMillis; // to simulate network round trip
+
+    // ===================================================================================
+    //                                                                       XA Connection
+    //                                                                       =============
+    @Override
+    public XAConnection getXAConnection() throws SQLException {
+        connectingCount.incrementAndGet();
+        try {
+            if (connectDelayMillis > 0) {
+                Thread.sleep(connectDelayMillis);
+            }
+        } catch (InterruptedException e) {
+            throw new SQLException("Interrupted the connecting", e);
+        } finally {
+            connectingCount.decrementAndGet();
+        }
+        createdCount.incrementAndGet();
+        return new XAConnectionImpl(createConnection());
+    }
+
+    @Override
+    public XAConnection getXAConnection(String user, String password) throws SQLException {
+        return getXAConnection();
+    }
+
+    protected Connection createConnection() {
+        final MockConnectionState state = new MockConnectionState();
+        stateList.add(state);
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    final String name = method.getName();
+                    if ("close".equals(name)) {
+                        if (!state.closed) {
+                            state.closed = true;
+                            closedCount.incrementAndGet();
+                        }
+                        return null;
+                    } else if ("isClosed".equals(name)) {
+                        return state.closed;
+                    } else if ("getAutoCommit".equals(name)) {
+                        return state.autoCommit;
+                    } else if ("setAutoCommit".equals(name)) {
+                        state.autoCommit = (Boolean) args[0];
+                        return null;
+                    } else if ("isValid".equals(name)) {
+                        return !state.closed && !state.broken;
+                    } else if ("prepareStatement".equals(name)) {
+                        return createStatement(state);
+                    } else if ("hashCode".equals(name)) {
+                        return System.identityHashCode(proxy);
+                    } else if ("equals".equals(name)) {
+                        return proxy == args[0];
+                    } else if ("toString".equals(name)) {
+                        return "mockConn@" + Integer.toHexString(System.identityHashCode(proxy));
+                    }
+                    return defaultValue(method.getReturnType());
+                });
+    }
+
+    protected PreparedStatement createStatement(MockConnectionState state) {
+        return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { PreparedStatement.class },
+                (proxy, method, args) -> {
+                    if ("executeQuery".equals(method.getName()) && state.broken) {
+                        throw new SQLException("Broken connection");
+                    }
+                    return defaultValue(method.getReturnType());
+                });
+    }
+
+    protected static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        } else if (type == int.class) {
+            return 0;
+        } else if (type == long.class) {
+            return 0L;
+        }
+        return null;
+    }
+
+    protected static class MockConnectionState {
+
+        protected volatile boolean closed;
+        protected volatile boolean autoCommit = true;
+        protected volatile boolean broken;
+    }
+
+    // ===================================================================================
+    //                                                                         Data Source
+    //                                                                         ===========
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return null;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return 0;
+    }
+
+    @Override
+    public Logger getParentLogger() {
+        return null;
+    }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    public int getCreatedCount() {
+        return createdCount.get();
+    }
+
+    public int getConnectingCount() {
+        return connectingCount.get();
+    }
+
+    public int getClosedCount() {
+        return closedCount.get();
+    }
+
+    public void breakAllConnections() { // e.g. database restart
+        stateList.forEach(state -> state.broken = true);
+    }
+
+    public void breakConnection(int createdIndex) { // e.g. killed session
+        stateList.get(createdIndex).broken = true;
+    }
+
+    public void setConnectDelayMillis(long connectDelayMillis) {
+        this.connectDelayMillis = connectDelayMillis;
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2015-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.jta.dbcp;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.XAConnection;
+
+import org.lastaflute.jta.dbcp.exception.ConnectionPoolShortFreeSQLException;
+import org.lastaflute.jta.dbcp.impl.StandardConnectionPoolMetrics;
+
+/**
+ * @author jflute
+ */
+public class SimpleConnectionPoolTest extends AbstractConnectionPoolTest {
+
+    protected ExecutorService service;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        service = Executors.newCachedThreadPool();
+    }
+
+    @Override
+    protected SimpleConnectionPool createPool() {
+        return new SimpleConnectionPool();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        service.shutdownNow();
+        super.tearDown();
+    }
+
+    // ===================================================================================
+    //                                                                        Slow Connect
+    //                                                                        ============
+    public void test_checkOut_slowConnect_notBlockCheckIn() throws Exception {
+        // ## Arrange ##
+        pool.setMaxPoolSize(2);
+        final ConnectionWrapper first = pool.checkOut();
+        dataSource.setConnectDelayMillis(1000L);
+        final Future<ConnectionWrapper> future = service.submit(() -> pool.checkOut());
+        waitForConnecting();
+
+        // ## Act ##
+        final long before = System.currentTimeMillis();
+        first.close();
+        final ConnectionWrapper recycled = pool.checkOut(); // free connection without connect
+        final long elapsed = System.currentTimeMillis() - before;
+
+        // ## Assert ##
+        log("elapsed", elapsed);
+        assertTrue("elapsed=" + elapsed, elapsed < 500L);
+        assertNotNull(recycled);
+        assertNotNull(future.get(5, TimeUnit.SECONDS));
+        assertEquals(2, pool.getActivePoolSize());
+        assertEquals(2, dataSource.getCreatedCount());
+    }
+
+    public void test_checkOut_slowConnect_pendingCountedByMaxPoolSize() throws Exception {
+        // ## Arrange ##
+        pool.setMaxPoolSize(1);
+        pool.setMaxWait(0L);
+        dataSource.setConnectDelayMillis(1000L);
+        final Future<ConnectionWrapper> future = service.submit(() -> pool.checkOut());
+        waitForConnecting();
+
+        // ## Act ##
+        // ## Assert ##
+        try {
+            pool.checkOut();
+            fail();
+        } catch (ConnectionPoolShortFreeSQLException e) {
+            log(e.getMessage());
+            assertContains(e.getMessage(), "Pending CheckOut");
+        }
+        future.get(5, TimeUnit.SECONDS).close();
+        assertEquals(1, dataSource.getCreatedCount());
+        assertEquals(0, pool.getActivePoolSize());
+        assertEquals(1, pool.getFreePoolSize());
+    }
+
+    public void test_checkOut_failedConnect_releaseSlot() throws Exception {
+        // ## Arrange ##
+        pool.setMaxPoolSize(1);
+        pool.setMaxWait(0L);
+        pool.setXADataSource(new MockXADataSource() {
+            @Override
+            public XAConnection getXAConnection() throws SQLException {
+                throw new SQLException("Connection refused");
+            }
+        });
+
+        // ## Act ##
+        try {
+            pool.checkOut();
+            fail();
+        } catch (ConnectionPoolShortFreeSQLException e) {
+            fail(e.getMessage());
+        } catch (SQLException e) {
+            log(e.getMessage());
+        }
+
+        // ## Assert ##
+        pool.setXADataSource(dataSource);
+        assertNotNull(pool.checkOut()); // slot is not leaked
+    }
+
+    // ===================================================================================
+    //                                                                          Contention
+    //                                                                          ==========
+    public void test_checkOut_contention_slowConnect() throws Exception {
+        // ## Arrange ##
+        final int maxPoolSize = 3;
+        pool.setMaxPoolSize(maxPoolSize);
+        pool.setMaxWait(-1L);
+        dataSource.setConnectDelayMillis(20L);
+        final int threadCount = 16;
+        final CountDownLatch ready = new CountDownLatch(1);
+        final List<Future<Void>> futureList = new ArrayList<Future<Void>>();
+        for (int i = 0; i < threadCount; i++) {
+            futureList.add(service.submit(() -> {
+                ready.await();
+                for (int j = 0; j < 100; j++) {
+                    final ConnectionWrapper wrapper = pool.checkOut();
+                    try {
+                        assertTrue(pool.getActivePoolSize() <= maxPoolSize);
+                    } finally {
+                        wrapper.close();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        // ## Act ##
+        ready.countDown();
+        for (Future<Void> future : futureList) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+
+        // ## Assert ##
+        log("created", dataSource.getCreatedCount());
+        assertTrue(dataSource.getCreatedCount() <= maxPoolSize);
+        assertEquals(0, pool.getActivePoolSize());
+        assertEquals(dataSource.getCreatedCount(), pool.getFreePoolSize());
+    }
+
+    // ===================================================================================
+    //                                                                             Metrics
+    //                                                                             =======
+    public void test_metrics() throws Exception {
+        // ## Arrange ##
+        final StandardConnectionPoolMetrics metrics = new StandardConnectionPoolMetrics();
+        pool.setMetrics(metrics);
+        pool.setMaxPoolSize(1);
+        pool.setMaxWait(0L);
+        pool.setValidationQuery("select 1");
+
+        // ## Act ##
+        final ConnectionWrapper first = pool.checkOut();
+        Thread.sleep(20L);
+        try {
+            pool.checkOut();
+            fail();
+        } catch (ConnectionPoolShortFreeSQLException e) {
+            // expected
+        }
+        first.close();
+        pool.checkOut().close(); // recycled with validation
+
+        // ## Assert ##
+        log(metrics);
+        assertEquals(2, metrics.getCheckOutCount());
+        assertEquals(1, metrics.getCheckOutTimeoutCount());
+        assertEquals(2, metrics.getHoldCount());
+        assertTrue(metrics.getHoldMaxMillis() >= 20.0);
+        assertEquals(1, metrics.getCreationCount());
+        assertEquals(0, metrics.getCreationFailureCount());
+        assertEquals(1, metrics.getValidationCount());
+        assertEquals(0, metrics.getValidationFailureCount());
+    }
+
+    // ===================================================================================
+    //                                                                        Assist Logic
+    //                                                                        ============
+    protected void waitForConnecting() throws InterruptedException {
+        final long limit = System.currentTimeMillis() + 5000L;
+        while (dataSource.getConnectingCount() == 0 && System.currentTimeMillis() < limit) {
+            Thread.sleep(5L);
+        }
+        assertEquals(1, dataSource.getConnectingCount());
+    }
+
+    protected void assertContains(String str, String keyword) {
+        assertTrue("str=" + str, str.contains(keyword));
+    }
+}
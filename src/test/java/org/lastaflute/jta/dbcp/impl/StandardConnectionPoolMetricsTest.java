@@ -0,0 +1,52 @@
+/*
+ * Copyright 2015-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.jta.dbcp.impl;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.lastaflute.jta.unit.UnitLastaJtaTest;
+
+/**
+ * @author jflute
+ */
+public class StandardConnectionPoolMetricsTest extends UnitLastaJtaTest {
+
+    public void test_registerMBean() throws Exception {
+        // ## Arrange ##
+        final StandardConnectionPoolMetrics metrics = new StandardConnectionPoolMetrics();
+        metrics.recordCheckOutWait(2000000L);
+        metrics.recordCheckOutTimeout();
+        metrics.recordValidation(1000L, false);
+
+        // ## Act ##
+        final ObjectName objectName = metrics.registerMBean("sea");
+        try {
+            // ## Assert ##
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            log(objectName);
+            assertEquals(1L, server.getAttribute(objectName, "CheckOutCount"));
+            assertEquals(2.0, server.getAttribute(objectName, "CheckOutWaitMaxMillis"));
+            assertEquals(1L, server.getAttribute(objectName, "CheckOutTimeoutCount"));
+            assertEquals(1L, server.getAttribute(objectName, "ValidationFailureCount"));
+        } finally {
+            metrics.unregisterMBean(objectName);
+        }
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(objectName));
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2015-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.jta.helper.metrics;
+
+import org.lastaflute.jta.unit.UnitLastaJtaTest;
+
+/**
+ * @author jflute
+ */
+public class LjtLatencyHistogramTest extends UnitLastaJtaTest {
+
+    public void test_bucket_boundary() {
+        // ## Arrange ##
+        // ## Act ##
+        // ## Assert ##
+        int previousIndex = -1;
+        for (long value : new long[] { 0L, 1L, 3L, 4L, 7L, 8L, 9L, 1000L, 123456789L, Long.MAX_VALUE }) {
+            final int index = LjtLatencyHistogram.indexOf(value);
+            assertTrue(index >= previousIndex); // e.g. 8 and 9 are same bucket
+            assertTrue(index < LjtLatencyHistogram.BUCKET_SIZE);
+            final long upper = LjtLatencyHistogram.upperBoundOf(index);
+            assertTrue("value=" + value + ", upper=" + upper, value <= upper);
+            assertTrue("value=" + value + ", upper=" + upper, upper - value <= value / 4); // 25% at most
+            previousIndex = index;
+        }
+    }
+
+    public void test_percentile() {
+        // ## Arrange ##
+        final LjtLatencyHistogram histogram = new LjtLatencyHistogram();
+        assertEquals(0L, histogram.getPercentile(99.0));
+        for (long value = 1; value <= 1000; value++) {
+            histogram.record(value * 1000L); // 1 to 1000 microseconds
+        }
+
+        // ## Act ##
+        final long p50 = histogram.getPercentile(50.0);
+        final long p99 = histogram.getPercentile(99.0);
+        final long p100 = histogram.getPercentile(100.0);
+
+        // ## Assert ##
+        log(histogram, p50, p99);
+        assertEquals(1000L, histogram.getCount());
+        assertEquals(500500L, histogram.getMean());
+        assertTrue(p50 >= 500000L && p50 <= 500000L * 5 / 4);
+        assertTrue(p99 >= 990000L && p99 <= 1000000L);
+        assertEquals(1000000L, p100); // not over max
+        assertEquals(1000000L, histogram.getMax());
+    }
+}